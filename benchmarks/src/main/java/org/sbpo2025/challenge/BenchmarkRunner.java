@@ -0,0 +1,88 @@
+package org.sbpo2025.challenge;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Corre los benchmarks de JMH sobre todas las instancias de las carpetas dadas (por defecto
+ * datasets/a y datasets/b), cada una en las escalas pedidas. Se reporta throughput y, con el
+ * profiler de GC, la tasa de asignacion (gc.alloc.rate y gc.alloc.rate.norm por operacion).
+ *
+ * ModelBuildBenchmark solo se corre si se puede cargar la libreria nativa de CPLEX.
+ *
+ * Uso: java [-Djava.library.path=<cplex_path>] -jar benchmarks/target/benchmarks.jar [carpeta|archivo ...]
+ *          [--scale 1,4] [--only <regex>] [--no-cplex] [--result <archivo.csv>]
+ */
+public class BenchmarkRunner {
+
+    private static final String USAGE = "Usage: java -jar benchmarks/target/benchmarks.jar [inputDir|inputFile ...] [--scale 1,4] [--only <regex>] [--no-cplex] [--result <file.csv>]";
+
+    public static void main(String[] args) throws RunnerException {
+        List<String> inputs = new ArrayList<>();
+        String[] scales = {"1", "4"};
+        String only = null;
+        String result = "benchmarks/target/jmh-results.csv";
+        boolean cplex = true;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--scale"    -> scales = args[++i].split(",");
+                case "--only"     -> only = args[++i];
+                case "--no-cplex" -> cplex = false;
+                case "--result"   -> result = args[++i];
+                default -> {
+                    if (args[i].startsWith("--")) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    collectInputs(new File(args[i]), inputs);
+                }
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            for (String folder : new String[] {"datasets/a", "datasets/b"})
+                collectInputs(new File(folder), inputs);
+        }
+
+        if (inputs.isEmpty()) {
+            System.out.println("No instances found");
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .param("instance", inputs.toArray(new String[0]))
+                .param("scale", scales)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(result);
+
+        if (only != null) options.include(only);
+        else options.include(BenchmarkRunner.class.getPackageName() + "\\..*Benchmark");
+
+        if (!cplex || !CPLEXSolver.isAvailable()) {
+            System.out.println("CPLEX no disponible, se saltea ModelBuildBenchmark");
+            options.exclude(ModelBuildBenchmark.class.getSimpleName());
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    private static void collectInputs(File folder, List<String> inputs) {
+        File[] files = folder.isDirectory() ? folder.listFiles((dir, name) -> name.endsWith(".txt")) : new File[] {folder};
+        if (files == null) return;
+
+        Arrays.sort(files);
+        for (File file : files)
+            if (file.isFile()) inputs.add(file.getPath());
+    }
+}
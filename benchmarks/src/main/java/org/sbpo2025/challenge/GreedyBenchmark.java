@@ -0,0 +1,30 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Los dos golosos de GreedySolver, incluyendo el armado de sus indices
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreedyBenchmark {
+
+    @Benchmark
+    public double solveWithBothGreedies(InstanceState state) {
+        List<Integer> orders = new ArrayList<>();
+        List<Integer> aisles = new ArrayList<>();
+
+        return new GreedySolver(state.loaded).solve_with_both_greedies(orders, aisles, -1);
+    }
+}
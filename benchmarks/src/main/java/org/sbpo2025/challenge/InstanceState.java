@@ -0,0 +1,123 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/*
+ * Instancia compartida por los benchmarks. BenchmarkRunner completa los parametros con todas las
+ * instancias de las carpetas pedidas; los valores por defecto sirven para correr un benchmark suelto.
+ *
+ * Con scale > 1 se usa una version agrandada: scale copias de ordenes, pasillos e items (cada copia
+ * con sus propios items) y cotas LB/UB multiplicadas por scale. Se escribe en un archivo temporal
+ * para que el parser tambien la lea.
+ */
+@State(Scope.Benchmark)
+public class InstanceState {
+
+    @Param({"datasets/a/instance_0001.txt"})
+    public String instance;
+
+    @Param({"1"})
+    public int scale;
+
+    public Path file;
+    public Instance loaded;
+
+    private Path temporary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Instance original = MappedInstanceParser.parse(instance);
+
+        if (scale <= 1) {
+            this.file = Path.of(instance);
+            this.loaded = original;
+            return;
+        }
+
+        this.loaded = scaled(original, scale);
+        this.temporary = Files.createTempFile("scaled-" + scale + "-", ".txt");
+        writeText(loaded, temporary);
+        this.file = temporary;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (temporary != null) Files.deleteIfExists(temporary);
+    }
+
+    // scale copias disjuntas de la instancia: la copia c usa los items [c * nItems, (c + 1) * nItems)
+    public static Instance scaled(Instance instance, int scale) {
+        int nItems = instance.nItems();
+
+        int[][] orders = replicate(instance, scale, true);
+        int[][] aisles = replicate(instance, scale, false);
+
+        return new Instance(nItems * scale,
+                orders[0], orders[1], orders[2],
+                aisles[0], aisles[1], aisles[2],
+                instance.waveSizeLB() * scale, instance.waveSizeUB() * scale);
+    }
+
+    // Devuelve {offsets, items, cantidades} de las filas repetidas scale veces
+    private static int[][] replicate(Instance instance, int scale, boolean orders) {
+        int rows      = orders ? instance.nOrders() : instance.nAisles();
+        int nonZeros  = orders ? instance.orderNonZeros() : instance.aisleNonZeros();
+
+        int[] offsets    = new int[rows * scale + 1];
+        int[] items      = new int[nonZeros * scale];
+        int[] quantities = new int[nonZeros * scale];
+        int n = 0;
+
+        for (int c = 0; c < scale; c++) {
+            int shift = c * instance.nItems();
+
+            for (int r = 0; r < rows; r++) {
+                int start = orders ? instance.orderStart(r) : instance.aisleStart(r);
+                int end   = orders ? instance.orderEnd(r) : instance.aisleEnd(r);
+
+                for (int k = start; k < end; k++) {
+                    items[n] = shift + (orders ? instance.orderItem(k) : instance.aisleItem(k));
+                    quantities[n++] = orders ? instance.orderQuantity(k) : instance.aisleQuantity(k);
+                }
+                offsets[c * rows + r + 1] = n;
+            }
+        }
+
+        return new int[][] {offsets, items, quantities};
+    }
+
+    // Mismo formato de texto que los archivos de datasets/
+    public static void writeText(Instance instance, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write(instance.nOrders() + " " + instance.nItems() + " " + instance.nAisles());
+            writer.newLine();
+
+            for (int o = 0; o < instance.nOrders(); o++) {
+                writer.write(Integer.toString(instance.orderDistinct(o)));
+                for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                    writer.write(" " + instance.orderItem(k) + " " + instance.orderQuantity(k));
+                writer.newLine();
+            }
+
+            for (int a = 0; a < instance.nAisles(); a++) {
+                writer.write(Integer.toString(instance.aisleDistinct(a)));
+                for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+                    writer.write(" " + instance.aisleItem(k) + " " + instance.aisleQuantity(k));
+                writer.newLine();
+            }
+
+            writer.write(instance.waveSizeLB() + " " + instance.waveSizeUB());
+            writer.newLine();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Armado del modelo de CPLEX (MIPSolver.generateMIP via generateModel) desde cero, arrancando de la
+ * solucion del goloso. Necesita la libreria nativa: sin ella BenchmarkRunner lo deja afuera, y si se
+ * corre suelto falla en el setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelBuildBenchmark {
+
+    private SolverConfig config;
+    private List<Integer> orders;
+    private List<Integer> aisles;
+    private double greedyValue;
+
+    @Setup(Level.Trial)
+    public void setUp(InstanceState state) {
+        if (!CPLEXSolver.isAvailable())
+            throw new IllegalStateException("CPLEX no disponible, correr con -Djava.library.path=<cplex_path>");
+
+        this.config = SolverConfig.defaults().withThreads(1).withBackend(SolverConfig.Backend.CPLEX);
+        this.orders = new ArrayList<>();
+        this.aisles = new ArrayList<>();
+        this.greedyValue = new GreedySolver(state.loaded).solve_with_both_greedies(orders, aisles, -1);
+    }
+
+    @Benchmark
+    public MIPSolver generateMIP(InstanceState state) {
+        MIPSolver solver = new MIPSolver(state.loaded, config);
+        solver.startFromGreedySolution(greedyValue);
+        solver.generateModel(new ArrayList<>(orders), new ArrayList<>(aisles));
+        solver.end();
+        return solver;
+    }
+}
@@ -0,0 +1,27 @@
+package org.sbpo2025.challenge;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Challenge.readInput (MappedInstanceParser) sobre el archivo de la instancia
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadInputBenchmark {
+
+    @Benchmark
+    public Instance readInput(InstanceState state) {
+        Challenge challenge = new Challenge();
+        challenge.readInput(state.file.toString());
+        return challenge.getInstance();
+    }
+}
@@ -0,0 +1,53 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Factibilidad y objetivo de ChallengeSolver sobre la solucion del goloso
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    private ChallengeSolver solver;
+    private ChallengeSolution solution;
+
+    @Setup(Level.Trial)
+    public void setUp(InstanceState state) {
+        // Backend Java para no depender de CPLEX, los metodos medidos no lo usan
+        SolverConfig config = SolverConfig.defaults().withThreads(1).withBackend(SolverConfig.Backend.JAVA);
+        this.solver = new ChallengeSolver(state.loaded, config);
+
+        List<Integer> orders = new ArrayList<>();
+        List<Integer> aisles = new ArrayList<>();
+        new GreedySolver(state.loaded).solve_with_both_greedies(orders, aisles, -1);
+        this.solution = new ChallengeSolution(Set.copyOf(orders), Set.copyOf(aisles));
+    }
+
+    @Benchmark
+    public boolean isSolutionFeasible() {
+        return solver.isSolutionFeasible(solution);
+    }
+
+    @Benchmark
+    public double computeObjectiveFunction() {
+        return solver.computeObjectiveFunction(solution);
+    }
+}
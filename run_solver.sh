@@ -5,11 +5,5 @@ output="output/output_$1"
 
 python3 run_challenge.py . $directory $output
 
-for file in "$directory"/*; do
-    if [ -f "$file" ]; then
-        filename=$(basename "$file")
-        echo "Result for $filename"
-        python3 "checker.py" $directory"/"$filename $output"/"$filename
-    fi
-done
+java -jar target/ChallengeSBPO2025-1.0.jar --check $directory $output
 
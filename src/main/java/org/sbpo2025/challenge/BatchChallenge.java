@@ -0,0 +1,219 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+/*
+ * Resuelve todas las instancias de una carpeta en una sola JVM, repartiendolas en un pool de workers.
+ * Cada instancia tiene su propio presupuesto de tiempo (medido desde que empieza a leerse) y los
+ * threads de CPLEX se reparten entre los workers.
+ *
+ * Al terminar escribe un CSV con objetivo, factibilidad, tiempo de pared y lo que saco la reduccion
+ * (InstanceReducer) por instancia.
+ */
+public class BatchChallenge {
+
+    private static final String USAGE = "Usage: java -jar target/ChallengeSBPO2025-1.0.jar --batch <inputDir> <outputDir>"
+            + " [--workers <n>] [--threads <perWorker>] [--time-limit <seconds>] [--backend auto|cplex|java] [--cache <cacheDir>] [--summary <file.csv>] [--telemetry <file.jsonl>] [--anytime] [--parallel-lambdas <n>] [--gap-threshold <relativeGap>] [--legacy-callbacks] [--column-generation]";
+
+    private final File inputDir;
+    private final File outputDir;
+    private final int workers;
+    private final SolverConfig config;
+    private final String cacheDir;
+    private final JsonLinesTelemetry telemetry;
+
+    public record Result(String instance, int nOrders, int nAisles, String backend, double objective, boolean feasible,
+                         long wallTimeMillis, String status, InstanceReducer.Stats reduction) {
+    }
+
+    public BatchChallenge(File inputDir, File outputDir, int workers, SolverConfig config, String cacheDir) {
+        this(inputDir, outputDir, workers, config, cacheDir, null);
+    }
+
+    public BatchChallenge(File inputDir, File outputDir, int workers, SolverConfig config, String cacheDir, JsonLinesTelemetry telemetry) {
+        this.inputDir  = inputDir;
+        this.outputDir = outputDir;
+        this.workers   = Math.max(1, workers);
+        this.config    = config;
+        this.cacheDir  = cacheDir;
+        this.telemetry = telemetry;
+    }
+
+    public List<Result> run() throws InterruptedException {
+        File[] inputs = inputDir.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (inputs == null) return List.of();
+        Arrays.sort(inputs);
+
+        outputDir.mkdirs();
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<Result>> futures = new ArrayList<>();
+
+        for (File input : inputs)
+            futures.add(pool.submit(() -> solveInstance(input)));
+
+        pool.shutdown();
+
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < inputs.length; i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(new Result(inputs[i].getName(), 0, 0, "", 0, false, 0, "error: " + e.getCause(), null));
+            }
+        }
+
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        return results;
+    }
+
+    private Result solveInstance(File input) {
+        StopWatch stopWatch = StopWatch.createStarted();
+        String name = input.getName();
+        SolverListener listener = telemetry != null ? telemetry.forInstance(name) : SolverListener.NONE;
+
+        Challenge challenge = new Challenge();
+        long phaseStart = System.nanoTime();
+        challenge.readInput(input.getPath(), cacheDir);
+        listener.onPhase("parse", System.nanoTime() - phaseStart);
+        Instance instance = challenge.getInstance();
+
+        if (instance == null)
+            return new Result(name, 0, 0, "", 0, false, stopWatch.getTime(TimeUnit.MILLISECONDS), "read error", null);
+
+        ChallengeSolver challengeSolver = new ChallengeSolver(instance, config, listener);
+        ChallengeSolution challengeSolution = challengeSolver.solve(stopWatch, new File(outputDir, name).getPath());
+
+        phaseStart = System.nanoTime();
+        challenge.writeOutput(challengeSolution, new File(outputDir, name).getPath());
+        listener.onPhase("write", System.nanoTime() - phaseStart);
+
+        long wallTime = stopWatch.getTime(TimeUnit.MILLISECONDS);
+        boolean feasible = challengeSolution != null && challengeSolver.isSolutionFeasible(challengeSolution);
+        double objective = challengeSolution != null ? challengeSolver.computeObjectiveFunction(challengeSolution) : 0;
+        String status = wallTime > config.timeLimitMillis() ? "over time limit" : "ok";
+
+        return new Result(name, instance.nOrders(), instance.nAisles(), challengeSolver.getBackendName(),
+                objective, feasible, wallTime, status, challengeSolver.getReductionStats());
+    }
+
+    public static void writeSummary(List<Result> results, File summaryFile) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(summaryFile))) {
+            writer.write("instance,orders,aisles,backend,objective,feasible,wall_time_ms,status,"
+                    + "removed_orders_ub,removed_orders_stock,removed_items,removed_aisles_empty,removed_aisles_dominated,reduction_ms");
+            writer.newLine();
+
+            for (Result r : results) {
+                InstanceReducer.Stats reduction = r.reduction() != null ? r.reduction() : new InstanceReducer.Stats(0, 0, 0, 0, 0, 0);
+
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%s,%.6f,%b,%d,%s,%d,%d,%d,%d,%d,%d",
+                        r.instance(), r.nOrders(), r.nAisles(), r.backend(), r.objective(), r.feasible(), r.wallTimeMillis(), r.status(),
+                        reduction.overUBOrders(), reduction.noStockOrders(), reduction.unneededItems(),
+                        reduction.emptyAisles(), reduction.dominatedAisles(), reduction.millis()));
+                writer.newLine();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        File inputDir  = new File(args[0]);
+        File outputDir = new File(args[1]);
+        int workers    = 1;
+        int threads    = -1;
+        long timeLimit = SolverConfig.DEFAULT_TIME_LIMIT_MILLIS / 1000;
+        SolverConfig.Backend backend = SolverConfig.Backend.AUTO;
+        String cacheDir = null;
+        String telemetryFile = null;
+        File summary   = new File(outputDir, "summary.csv");
+
+        boolean anytime = false;
+        boolean legacyCallbacks = false;
+        boolean columnGeneration = false;
+        int parallelLambdas = 1;
+        double gapThreshold = 0;
+
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--anytime")) {
+                anytime = true;
+                continue;
+            }
+
+            if (args[i].equals("--legacy-callbacks")) {
+                legacyCallbacks = true;
+                continue;
+            }
+
+            if (args[i].equals("--column-generation")) {
+                columnGeneration = true;
+                continue;
+            }
+
+            if (i + 1 >= args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            switch (args[i]) {
+                case "--workers"    -> workers   = Integer.parseInt(args[++i]);
+                case "--threads"    -> threads   = Integer.parseInt(args[++i]);
+                case "--time-limit" -> timeLimit = Long.parseLong(args[++i]);
+                case "--backend"    -> backend   = SolverConfig.Backend.valueOf(args[++i].toUpperCase());
+                case "--cache"      -> cacheDir  = args[++i];
+                case "--summary"    -> summary   = new File(args[++i]);
+                case "--telemetry"  -> telemetryFile = args[++i];
+                case "--parallel-lambdas" -> parallelLambdas = Integer.parseInt(args[++i]);
+                case "--gap-threshold"    -> gapThreshold    = Double.parseDouble(args[++i]);
+                default -> {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+
+        if (!inputDir.isDirectory()) {
+            System.out.println("Input directory not found: " + inputDir);
+            return;
+        }
+
+        // Por defecto cada worker se queda con su parte de los cores
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors() / Math.max(1, workers);
+
+        SolverConfig config = SolverConfig.defaults()
+                .withTimeLimitMillis(TimeUnit.SECONDS.toMillis(timeLimit))
+                .withThreads(threads)
+                .withBackend(backend)
+                .withAnytime(anytime)
+                .withParallelLambdas(parallelLambdas)
+                .withGapThreshold(gapThreshold)
+                .withLegacyCallbacks(legacyCallbacks)
+                .withColumnGeneration(columnGeneration);
+
+        JsonLinesTelemetry telemetry = telemetryFile != null ? new JsonLinesTelemetry(Path.of(telemetryFile)) : null;
+        List<Result> results = new BatchChallenge(inputDir, outputDir, workers, config, cacheDir, telemetry).run();
+        if (telemetry != null) telemetry.close();
+
+        writeSummary(results, summary);
+        System.out.println("Summary written to " + summary);
+    }
+}
@@ -0,0 +1,484 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * Simplex dual con variables acotadas, en arreglos primitivos.
+ *
+ *     max  c x
+ *     s.a. A x <= b          (cada fila con su holgura s >= 0)
+ *          l <= x <= u       (todas las columnas estructurales acotadas)
+ *
+ * Como todas las columnas estructurales son acotadas, la base de holguras es siempre dual factible
+ * (cada no basica se pone en la cota que corresponde al signo de su costo reducido). Eso permite:
+ *   - arrancar sin fase 1,
+ *   - cambiar cotas (branch and bound) y reoptimizar desde la base anterior,
+ *   - agregar filas en cualquier momento (la holgura nueva entra a la base).
+ *
+ * La inversa de la base se guarda densa (m x m), por lo que esta pensado para pocas filas activas:
+ * las filas de cobertura se agregan de forma perezosa desde afuera.
+ *
+ * Internamente se trabaja minimizando -c x. Para evitar ciclos por degeneracion dual (muchos costos
+ * reducidos nulos con datos enteros) los costos de las no basicas se perturban al empezar cada solve,
+ * agrandando su costo reducido sin cambiarle el signo; al llegar al optimo se saca la perturbacion y
+ * se termina de limpiar con algunas iteraciones mas.
+ */
+final class BoundedDualSimplex {
+
+    public enum Status { OPTIMAL, INFEASIBLE, LIMIT }
+
+    private static final double PRIMAL_TOL = 1e-7;
+    private static final double DUAL_TOL   = 1e-9;
+    private static final double PIVOT_TOL  = 1e-9;
+    private static final int    REFRESH    = 64;
+    private static final double PERTURBATION = 1e-6;
+
+    private final int n; // columnas estructurales
+    private int m;       // filas
+
+    // Variables: 0..n-1 estructurales, n..n+m-1 holguras
+    private double[] cost;  // minimizacion
+    private final double[] perturbation;
+    private final Random random = new Random(0);
+    private double[] lower;
+    private double[] upper;
+    private double[] x;
+    private double[] d;     // costos reducidos
+    private boolean[] atUpper;
+    private int[] positionInBasis; // -1 si no es basica
+
+    // Filas (CSR creciente)
+    private int[] rowStart = new int[17];
+    private int[] rowIndex = new int[64];
+    private double[] rowValue = new double[64];
+    private double[] rhs = new double[16];
+
+    // Columnas (listas por columna, crecen al agregar filas)
+    private final int[][] colIndex;
+    private final double[][] colValue;
+    private final int[] colLength;
+
+    private int[] basis = new int[16];
+    private double[][] basisInverse = new double[0][];
+
+    private double[] alphaRow;
+    private double[] alphaColumn = new double[16];
+
+    private long iterations;
+
+    BoundedDualSimplex(int nCols) {
+        this.n = nCols;
+        this.m = 0;
+
+        this.cost    = new double[nCols + 16];
+        this.lower   = new double[nCols + 16];
+        this.upper   = new double[nCols + 16];
+        this.x       = new double[nCols + 16];
+        this.d       = new double[nCols + 16];
+        this.atUpper = new boolean[nCols + 16];
+        this.positionInBasis = new int[nCols + 16];
+        Arrays.fill(this.positionInBasis, -1);
+
+        this.colIndex  = new int[nCols][];
+        this.colValue  = new double[nCols][];
+        this.colLength = new int[nCols];
+        this.perturbation = new double[nCols];
+
+        this.alphaRow = new double[nCols];
+    }
+
+    int nRows()  { return m; }
+    int nCols()  { return n; }
+    long iterations() { return iterations; }
+
+    void setCost(int j, double maxCost) {
+        cost[j] = -maxCost;
+    }
+
+    void setBounds(int j, double l, double u) {
+        lower[j] = l;
+        upper[j] = u;
+    }
+
+    double lowerBound(int j) { return lower[j]; }
+    double upperBound(int j) { return upper[j]; }
+
+    // Agrega sum(values[k] * x[indices[k]]) <= b. La holgura entra a la base.
+    int addRow(int[] indices, double[] values, int length, double b) {
+        ensureRowCapacity(length);
+        int r = m;
+
+        for (int k = 0; k < length; k++) {
+            int pos = rowStart[r] + k;
+            rowIndex[pos] = indices[k];
+            rowValue[pos] = values[k];
+            appendToColumn(indices[k], r, values[k]);
+        }
+        rowStart[r + 1] = rowStart[r] + length;
+        rhs[r] = b;
+
+        int slack = n + r;
+        cost[slack] = 0;
+        lower[slack] = 0;
+        upper[slack] = Double.POSITIVE_INFINITY;
+        d[slack] = 0;
+        atUpper[slack] = false;
+
+        // B' = [[B, 0], [a_B, 1]]  =>  B'^-1 = [[B^-1, 0], [-a_B B^-1, 1]]
+        // Las filas de la inversa tienen capacidad de sobra para no copiarla entera en cada fila nueva
+        ensureInverseCapacity(m + 1);
+
+        double[] lastRow = new double[basisInverse.length];
+        for (int k = 0; k < length; k++) {
+            int pos = positionInBasis[indices[k]];
+            if (pos < 0) continue;
+            double a = values[k];
+            double[] inverseRow = basisInverse[pos];
+            for (int i = 0; i < m; i++)
+                lastRow[i] -= a * inverseRow[i];
+        }
+        lastRow[m] = 1;
+        basisInverse[m] = lastRow;
+        basis[r] = slack;
+        positionInBasis[slack] = r;
+        m++;
+
+        // Valor de la holgura con el x actual
+        double activity = 0;
+        for (int k = 0; k < length; k++)
+            activity += values[k] * x[indices[k]];
+        x[slack] = b - activity;
+
+        return r;
+    }
+
+    // Arranca desde la base de holguras
+    void resetBasis() {
+        for (int j = 0; j < n; j++) positionInBasis[j] = -1;
+
+        int capacity = Math.max(16, basisInverse.length);
+        basisInverse = new double[capacity][];
+        for (int r = 0; r < m; r++) {
+            basisInverse[r] = new double[capacity];
+            basisInverse[r][r] = 1;
+            basis[r] = n + r;
+            positionInBasis[n + r] = r;
+        }
+
+        refresh();
+    }
+
+    Status solve(long deadlineNanos, long maxIterations) {
+        refresh();
+
+        // Una holgura no basica con costo reducido negativo no se arregla moviendo cotas
+        // (pasa si cambio el costo): se vuelve a la base de holguras, que es dual factible
+        for (int i = 0; i < m; i++) {
+            if (positionInBasis[n + i] < 0 && d[n + i] < -DUAL_TOL) {
+                resetBasis();
+                break;
+            }
+        }
+
+        long start = iterations;
+        perturbCosts();
+        Status status = iterate(start, deadlineNanos, maxIterations);
+        removePerturbation();
+
+        // Sin la perturbacion puede quedar alguna infactibilidad primal chica
+        if (status == Status.OPTIMAL) status = iterate(start, deadlineNanos, maxIterations);
+
+        return status;
+    }
+
+    private Status iterate(long start, long deadlineNanos, long maxIterations) {
+        while (true) {
+            if (iterations - start >= maxIterations || System.nanoTime() > deadlineNanos)
+                return Status.LIMIT;
+
+            if ((iterations - start) % REFRESH == REFRESH - 1) refresh();
+
+            // Fila que sale: la de mayor infactibilidad primal
+            int r = -1;
+            double worst = PRIMAL_TOL;
+            for (int k = 0; k < m; k++) {
+                int var = basis[k];
+                double v = x[var];
+                double infeasibility = Math.max(lower[var] - v, v - upper[var]);
+                if (infeasibility > worst) {
+                    worst = infeasibility;
+                    r = k;
+                }
+            }
+            if (r < 0) return Status.OPTIMAL;
+
+            int leaving = basis[r];
+            double delta = x[leaving] < lower[leaving] ? x[leaving] - lower[leaving] : x[leaving] - upper[leaving];
+            double sign = delta < 0 ? -1 : 1;
+
+            double[] rho = basisInverse[r];
+            computeAlphaRow(rho);
+
+            // Test de cociente
+            int entering = -1;
+            double bestRatio = Double.POSITIVE_INFINITY, bestPivot = 0;
+
+            for (int j = 0; j < n + m; j++) {
+                if (positionInBasis[j] >= 0 || lower[j] == upper[j]) continue;
+
+                double alpha = (j < n ? alphaRow[j] : rho[j - n]) * sign;
+                boolean candidate = atUpper[j] ? alpha < -PIVOT_TOL : alpha > PIVOT_TOL;
+                if (!candidate) continue;
+
+                double ratio = Math.max(d[j] / alpha, 0);
+                if (ratio < bestRatio - DUAL_TOL || (ratio <= bestRatio + DUAL_TOL && Math.abs(alpha) > bestPivot)) {
+                    bestRatio = Math.min(ratio, bestRatio);
+                    bestPivot = Math.abs(alpha);
+                    entering = j;
+                }
+            }
+
+            if (entering < 0) return Status.INFEASIBLE;
+
+            double alphaEntering = entering < n ? alphaRow[entering] : rho[entering - n];
+            double thetaDual = d[entering] / alphaEntering;
+
+            for (int j = 0; j < n + m; j++) {
+                if (positionInBasis[j] >= 0) continue;
+                double alpha = j < n ? alphaRow[j] : rho[j - n];
+                if (alpha != 0) d[j] -= thetaDual * alpha;
+            }
+            d[leaving] = -thetaDual;
+            d[entering] = 0;
+
+            computeAlphaColumn(entering);
+
+            double thetaPrimal = delta / alphaColumn[r];
+            for (int k = 0; k < m; k++)
+                x[basis[k]] -= thetaPrimal * alphaColumn[k];
+            x[entering] += thetaPrimal;
+            x[leaving] = delta < 0 ? lower[leaving] : upper[leaving];
+            atUpper[leaving] = delta > 0;
+
+            pivot(r);
+
+            positionInBasis[leaving] = -1;
+            positionInBasis[entering] = r;
+            basis[r] = entering;
+
+            iterations++;
+        }
+    }
+
+    private void perturbCosts() {
+        for (int j = 0; j < n; j++) {
+            if (positionInBasis[j] >= 0 || lower[j] == upper[j]) {
+                perturbation[j] = 0;
+                continue;
+            }
+            double eps = PERTURBATION * (1 + Math.abs(cost[j])) * (0.5 + random.nextDouble());
+            perturbation[j] = atUpper[j] ? -eps : eps;
+            cost[j] += perturbation[j];
+        }
+        refresh();
+    }
+
+    private void removePerturbation() {
+        for (int j = 0; j < n; j++) {
+            cost[j] -= perturbation[j];
+            perturbation[j] = 0;
+        }
+        refresh();
+    }
+
+    // Recalcula duales, costos reducidos y valores primales desde la inversa actual,
+    // y reubica las no basicas en la cota que las deja dual factibles.
+    private void refresh() {
+        double[] y = duals(false);
+
+        for (int j = 0; j < n; j++) {
+            if (positionInBasis[j] >= 0) continue;
+
+            double reduced = cost[j];
+            for (int k = 0; k < colLength[j]; k++)
+                reduced -= y[colIndex[j][k]] * colValue[j][k];
+            d[j] = reduced;
+
+            if (reduced > DUAL_TOL) atUpper[j] = false;
+            else if (reduced < -DUAL_TOL) atUpper[j] = true;
+            if (upper[j] == lower[j]) atUpper[j] = false;
+
+            x[j] = atUpper[j] ? upper[j] : lower[j];
+        }
+
+        for (int i = 0; i < m; i++) {
+            int slack = n + i;
+            if (positionInBasis[slack] >= 0) continue;
+            d[slack] = -y[i];
+            atUpper[slack] = false;
+            x[slack] = 0;
+        }
+
+        // x_B = B^-1 (b - N x_N)
+        double[] residual = Arrays.copyOf(rhs, m);
+        for (int j = 0; j < n; j++) {
+            if (positionInBasis[j] >= 0 || x[j] == 0) continue;
+            for (int k = 0; k < colLength[j]; k++)
+                residual[colIndex[j][k]] -= colValue[j][k] * x[j];
+        }
+        for (int i = 0; i < m; i++) {
+            int slack = n + i;
+            if (positionInBasis[slack] < 0) residual[i] -= x[slack];
+        }
+
+        for (int r = 0; r < m; r++) {
+            double v = 0;
+            double[] inverseRow = basisInverse[r];
+            for (int i = 0; i < m; i++) v += inverseRow[i] * residual[i];
+            x[basis[r]] = v;
+        }
+    }
+
+    // y = c_B B^-1 (en el problema de maximizacion si forMax)
+    private double[] duals(boolean forMax) {
+        double[] y = new double[m];
+
+        for (int r = 0; r < m; r++) {
+            double cB = cost[basis[r]];
+            if (cB == 0) continue;
+            double[] inverseRow = basisInverse[r];
+            for (int i = 0; i < m; i++) y[i] += cB * inverseRow[i];
+        }
+
+        if (forMax)
+            for (int i = 0; i < m; i++) y[i] = -y[i];
+
+        return y;
+    }
+
+    private void computeAlphaRow(double[] rho) {
+        Arrays.fill(alphaRow, 0);
+
+        for (int i = 0; i < m; i++) {
+            double r = rho[i];
+            if (r == 0) continue;
+            for (int pos = rowStart[i]; pos < rowStart[i + 1]; pos++)
+                alphaRow[rowIndex[pos]] += r * rowValue[pos];
+        }
+    }
+
+    private void computeAlphaColumn(int j) {
+        if (alphaColumn.length < m) alphaColumn = new double[Math.max(m, alphaColumn.length * 2)];
+        Arrays.fill(alphaColumn, 0, m, 0);
+
+        if (j >= n) {
+            int i = j - n;
+            for (int r = 0; r < m; r++) alphaColumn[r] = basisInverse[r][i];
+            return;
+        }
+
+        for (int k = 0; k < colLength[j]; k++) {
+            int i = colIndex[j][k];
+            double a = colValue[j][k];
+            for (int r = 0; r < m; r++) alphaColumn[r] += basisInverse[r][i] * a;
+        }
+    }
+
+    private void pivot(int r) {
+        double[] pivotRow = basisInverse[r];
+        double p = alphaColumn[r];
+
+        for (int i = 0; i < m; i++) pivotRow[i] /= p;
+
+        for (int k = 0; k < m; k++) {
+            if (k == r) continue;
+            double f = alphaColumn[k];
+            if (f == 0) continue;
+            double[] row = basisInverse[k];
+            for (int i = 0; i < m; i++) row[i] -= f * pivotRow[i];
+        }
+    }
+
+    double value(int j) {
+        return x[j];
+    }
+
+    // Objetivo del problema de maximizacion
+    double objective() {
+        double z = 0;
+        for (int j = 0; j < n; j++) z -= cost[j] * x[j];
+        return z;
+    }
+
+    // Duales de las filas para el problema de maximizacion (>= 0 en el optimo)
+    double[] rowDuals() {
+        return duals(true);
+    }
+
+    // Costos reducidos de las estructurales para el problema de maximizacion
+    double reducedCost(int j) {
+        return positionInBasis[j] >= 0 ? 0 : -d[j];
+    }
+
+    double rowActivity(int r, double[] values) {
+        double activity = 0;
+        for (int pos = rowStart[r]; pos < rowStart[r + 1]; pos++)
+            activity += rowValue[pos] * values[rowIndex[pos]];
+        return activity;
+    }
+
+    double rhs(int r) {
+        return rhs[r];
+    }
+
+    private void ensureInverseCapacity(int rows) {
+        if (rows <= basisInverse.length) return;
+
+        int capacity = Math.max(rows, Math.max(16, basisInverse.length * 2));
+        basisInverse = Arrays.copyOf(basisInverse, capacity);
+        for (int r = 0; r < m; r++)
+            basisInverse[r] = Arrays.copyOf(basisInverse[r], capacity);
+    }
+
+    private void appendToColumn(int j, int row, double value) {
+        int len = colLength[j];
+        if (colIndex[j] == null) {
+            colIndex[j] = new int[4];
+            colValue[j] = new double[4];
+        } else if (len == colIndex[j].length) {
+            colIndex[j] = Arrays.copyOf(colIndex[j], len * 2);
+            colValue[j] = Arrays.copyOf(colValue[j], len * 2);
+        }
+        colIndex[j][len] = row;
+        colValue[j][len] = value;
+        colLength[j] = len + 1;
+    }
+
+    private void ensureRowCapacity(int length) {
+        if (m + 2 > rowStart.length) rowStart = Arrays.copyOf(rowStart, rowStart.length * 2);
+        if (m + 1 > rhs.length) {
+            rhs = Arrays.copyOf(rhs, rhs.length * 2);
+            basis = Arrays.copyOf(basis, basis.length * 2);
+        }
+        int needed = rowStart[m] + length;
+        if (needed > rowIndex.length) {
+            int newLength = Math.max(needed, rowIndex.length * 2);
+            rowIndex = Arrays.copyOf(rowIndex, newLength);
+            rowValue = Arrays.copyOf(rowValue, newLength);
+        }
+        int vars = n + m + 1;
+        if (vars > cost.length) {
+            int newLength = Math.max(vars, n + 2 * (cost.length - n));
+            cost    = Arrays.copyOf(cost, newLength);
+            lower   = Arrays.copyOf(lower, newLength);
+            upper   = Arrays.copyOf(upper, newLength);
+            x       = Arrays.copyOf(x, newLength);
+            d       = Arrays.copyOf(d, newLength);
+            atUpper = Arrays.copyOf(atUpper, newLength);
+            int oldLength = positionInBasis.length;
+            positionInBasis = Arrays.copyOf(positionInBasis, newLength);
+            Arrays.fill(positionInBasis, oldLength, newLength, -1);
+        }
+    }
+}
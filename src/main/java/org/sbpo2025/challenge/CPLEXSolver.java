@@ -1,16 +1,12 @@
 package org.sbpo2025.challenge;
 
-import java.util.List;
-import java.util.Map;
-
 import ilog.concert.IloException;
 import ilog.cplex.IloCplex;
 
 public abstract class CPLEXSolver {
 
     // Problem data
-    protected final List<Map<Integer, Integer>> orders;
-    protected final List<Map<Integer, Integer>> aisles;
+    protected Instance instance; // Cambia entre olas (updateInstance)
     protected final int nItems;
     protected final int waveSizeLB;
     protected final int waveSizeUB;
@@ -22,38 +18,49 @@ public abstract class CPLEXSolver {
     protected final double TOLERANCE        = 1e-2;
     protected double PRECISION              = 1e-4;
     protected final double BINARY_RANGE     = 1e-4;
-    protected final long TIME_LIMIT_SEC     = 600;
+    protected final long TIME_LIMIT_SEC;    // Sale de SolverConfig
     protected final long TIME_LIMIT_SEC_IT  = 10;
     protected final int MAX_ITERATIONS      = 100;
 
     protected Boolean solutionInfeasible = false;
 
-    public CPLEXSolver(List<Map<Integer, Integer>> orders, List<Map<Integer, Integer>> aisles, int nItems, int waveSizeLB, int waveSizeUB) {
-        this.orders     = orders;
-        this.aisles     = aisles;
-        this.nItems     = nItems;
-        this.waveSizeLB = waveSizeLB;
-        this.waveSizeUB = waveSizeUB;
+    // El ultimo solve se corto antes de terminar (TimeListener o cota negativa); lo setean los callbacks
+    protected volatile boolean abortedEarly = false;
 
-        try {
-            this.cplex = new IloCplex();
-            
-            this.cplex.use(new IloCplex.MIPInfoCallback() {
-                @Override
-                protected void main() throws IloException {
-                    if (getBestObjValue() < -PRECISION) {
-                        System.out.print("Frenó por eps");
-                        abort();
-                    }
-                }
-            });
+    protected final SolverConfig config;
+
+    public CPLEXSolver(Instance instance) {
+        this(instance, SolverConfig.defaults());
+    }
 
+    public CPLEXSolver(Instance instance, SolverConfig config) {
+        this.instance   = instance;
+        this.nItems     = instance.nItems();
+        this.waveSizeLB = instance.waveSizeLB();
+        this.waveSizeUB = instance.waveSizeUB();
+        this.config     = config;
+
+        this.TIME_LIMIT_SEC = config.timeLimitSec();
+
+        try {
+            this.cplex = CplexPool.acquire();
         } catch (IloException e) {
             System.out.println("Error!!!!!!" + e.getMessage());
             this.cplex = null;
         } 
     }
 
+    // Hay libreria nativa y licencia para crear un entorno (mismo criterio que el backend AUTO)
+    public static boolean isAvailable() {
+        try {
+            IloCplex cplex = new IloCplex();
+            cplex.end();
+            return true;
+        } catch (LinkageError | IloException e) {
+            return false;
+        }
+    }
+
     protected void setCPLEXParamsTo() throws IloException {
         // Prints
         this.cplex.setParam(IloCplex.Param.Simplex.Display, 0); 
@@ -62,8 +69,7 @@ public abstract class CPLEXSolver {
         this.cplex.setWarning(null); 
 
         // Threads
-        int availableThreads = Runtime.getRuntime().availableProcessors();
-        this.cplex.setParam(IloCplex.Param.Threads, availableThreads);
+        this.cplex.setParam(IloCplex.Param.Threads, this.config.threads());
         this.cplex.setParam(IloCplex.Param.Parallel, IloCplex.ParallelMode.Opportunistic);
         cplex.setParam(IloCplex.Param.RandomSeed, 0);
 
@@ -100,6 +106,16 @@ public abstract class CPLEXSolver {
         this.cplex.setParam(IloCplex.Param.MIP.Strategy.HeuristicFreq, 0); // 1 ejecuta solo en raiz, n > 1 ejecuta cada n nodos del árbol 
     }
 
+    // Cota global de F(lambda) negativa: ninguna solucion mejora lambda, se corta. Solo en el contexto GlobalProgress
+    protected boolean stopOnNegativeBound(IloCplex.Callback.Context context) throws IloException {
+        if (context.getDoubleInfo(IloCplex.Callback.Context.Info.BestBound) >= -PRECISION) return false;
+
+        // Corre en los threads de CPLEX: no se imprime, el corte queda en wasAbortedEarly
+        abortedEarly = true;
+        context.abort();
+        return true;
+    }
+
     protected void updateEmphasis(int newValue) {
         try {
             this.cplex.setParam(IloCplex.Param.Emphasis.MIP, newValue);
@@ -109,8 +125,10 @@ public abstract class CPLEXSolver {
         
     }
 
+    // Con CplexPool habilitado el entorno vuelve al pool en lugar de cerrarse
     protected void endCplex() {
-        if (this.cplex != null) this.cplex.end();
+        if (this.cplex != null) CplexPool.release(this.cplex);
+        this.cplex = null;
     }
 
     protected abstract void initializeVariables() throws IloException;
@@ -0,0 +1,121 @@
+package org.sbpo2025.challenge;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+/*
+ * Corre cada instancia dos veces con CPLEX, con los callbacks viejos (MIPInfo, Heuristic, Incumbent)
+ * y con el callback generico de MIPSolver, y compara:
+ *
+ *   nodes, nodes_per_s  nodos de todos los solves de Dinkelbach y nodos por segundo de solve
+ *   incumbent_ms        tiempo medio, por solve, hasta el primer incumbente de CPLEX
+ *   first_cplex_ms      desde el arranque hasta que un incumbente de CPLEX mejora el store
+ *   best_ms             desde el arranque hasta la ultima mejora del store (la solucion final)
+ *
+ * Imprime un CSV por stdout. Necesita la libreria nativa de CPLEX.
+ *
+ * Uso: java -Djava.library.path=<cplex_path> -cp target/ChallengeSBPO2025-1.0.jar org.sbpo2025.challenge.CallbackComparison
+ *          [carpeta|archivo ...] [--time-limit <seconds>] [--threads <n>]
+ */
+public class CallbackComparison {
+
+    private static final String USAGE = "Usage: java -Djava.library.path=<cplex_path> -cp target/ChallengeSBPO2025-1.0.jar org.sbpo2025.challenge.CallbackComparison"
+            + " [inputDir|inputFile ...] [--time-limit <seconds>] [--threads <n>]";
+
+    public static void main(String[] args) throws IOException {
+        List<File> inputs = new ArrayList<>();
+        long timeLimit = 60;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--time-limit" -> timeLimit = Long.parseLong(args[++i]);
+                case "--threads"    -> threads   = Integer.parseInt(args[++i]);
+                default -> {
+                    if (args[i].startsWith("--")) {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    collectInputs(new File(args[i]), inputs);
+                }
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            for (String folder : new String[] {"datasets/a", "datasets/b"})
+                collectInputs(new File(folder), inputs);
+        }
+
+        if (!CPLEXSolver.isAvailable()) {
+            System.out.println("CPLEX no disponible, no hay nada que comparar");
+            return;
+        }
+
+        SolverConfig config = SolverConfig.defaults()
+                .withTimeLimitMillis(TimeUnit.SECONDS.toMillis(timeLimit))
+                .withThreads(threads)
+                .withBackend(SolverConfig.Backend.CPLEX);
+
+        List<String> rows = new ArrayList<>();
+        for (File input : inputs) {
+            Instance instance = MappedInstanceParser.parse(input.getPath());
+            for (boolean legacy : new boolean[] {true, false})
+                rows.add(input.getName() + "," + (legacy ? "legacy" : "generic") + "," + run(instance, config.withLegacyCallbacks(legacy)));
+        }
+
+        // Al final, para que no se mezcle con lo que imprimen los solvers
+        System.out.println("instance,callbacks,iterations,nodes,solve_ms,nodes_per_s,incumbent_ms,first_cplex_ms,best_ms,objective");
+        rows.forEach(System.out::println);
+    }
+
+    private static String run(Instance instance, SolverConfig config) {
+        StopWatch stopWatch = StopWatch.createStarted();
+        ChallengeSolver solver = new ChallengeSolver(instance, config);
+        ParametricSolver parametricSolver = solver.getParametricSolver();
+
+        // El listener corre en el thread de quien mejora (callbacks de CPLEX incluidos): solo anota tiempos
+        AtomicLong firstCplex = new AtomicLong(-1);
+        AtomicLong best = new AtomicLong(-1);
+        parametricSolver.getIncumbentStore().setImprovementListener(incumbent -> {
+            long now = stopWatch.getNanoTime();
+            if (incumbent.source().equals("cplex")) firstCplex.compareAndSet(-1, now);
+            best.set(now);
+        });
+
+        ChallengeSolution solution = solver.solve(stopWatch);
+
+        long solveNanos = 0;
+        for (SubproblemSolver.IterationTiming timing : parametricSolver.getIterationTimings()) solveNanos += timing.solveNanos();
+
+        MIPSolver mipSolver = (MIPSolver) parametricSolver.getSubproblemSolver();
+        long nodes = mipSolver.getNodeCount();
+        int withIncumbent = mipSolver.getSolvesWithIncumbent();
+
+        return String.format(Locale.ROOT, "%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.6f",
+                parametricSolver.getIterationTimings().size(), nodes, solveNanos / 1e6,
+                solveNanos > 0 ? nodes / (solveNanos / 1e9) : 0,
+                withIncumbent > 0 ? mipSolver.getTimeToIncumbentNanos() / 1e6 / withIncumbent : -1,
+                millis(firstCplex.get()), millis(best.get()), solver.computeObjectiveFunction(solution));
+    }
+
+    private static double millis(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1e6;
+    }
+
+    private static void collectInputs(File folder, List<File> inputs) {
+        File[] files = folder.isDirectory() ? folder.listFiles((dir, name) -> name.endsWith(".txt")) : new File[] {folder};
+        if (files == null) return;
+
+        Arrays.sort(files);
+        for (File file : files)
+            if (file.isFile()) inputs.add(file);
+    }
+}
@@ -5,22 +5,46 @@ import org.apache.commons.lang3.time.StopWatch;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 
 public class Challenge {
 
-    private List<Map<Integer, Integer>> orders;
-    private List<Map<Integer, Integer>> aisles;
-    private int nItems;
-    private int waveSizeLB;
-    private int waveSizeUB;
+    private Instance instance;
 
     public void readInput(String inputFilePath) {
+        try {
+            instance = MappedInstanceParser.parse(inputFilePath);
+        } catch (IOException e) {
+            System.err.println("Error reading input from " + inputFilePath);
+            e.printStackTrace();
+        }
+    }
+
+    // Igual que readInput pero pasando por el cache binario de cacheDir
+    public void readInput(String inputFilePath, String cacheDir) {
+        if (cacheDir == null) {
+            readInput(inputFilePath);
+            return;
+        }
+
+        try {
+            instance = new InstanceCache(Path.of(cacheDir)).load(inputFilePath);
+        } catch (IOException e) {
+            System.err.println("Error reading input from " + inputFilePath + " through cache " + cacheDir);
+            e.printStackTrace();
+        }
+    }
+
+    // Lector linea a linea original, se mantiene como referencia para ParserBenchmark
+    void readInputByLines(String inputFilePath) {
         try {
             BufferedReader reader = new BufferedReader(new FileReader(inputFilePath));
             String line = reader.readLine();
@@ -29,43 +53,91 @@ public class Challenge {
             int nItems = Integer.parseInt(firstLine[1]);
             int nAisles = Integer.parseInt(firstLine[2]);
 
-            // Initialize orders and aisles arrays
-            orders = new ArrayList<>(nOrders);
-            aisles = new ArrayList<>(nAisles);
-            this.nItems = nItems;
-
             // Read orders
-            readItemQuantityPairs(reader, nOrders, orders);
+            int[] orderOffsets = new int[nOrders + 1];
+            int[][] orderEntries = readItemQuantityPairs(reader, nOrders, orderOffsets);
 
             // Read aisles
-            readItemQuantityPairs(reader, nAisles, aisles);
+            int[] aisleOffsets = new int[nAisles + 1];
+            int[][] aisleEntries = readItemQuantityPairs(reader, nAisles, aisleOffsets);
 
             // Read wave size bounds
             line = reader.readLine();
             String[] bounds = line.split(" ");
-            waveSizeLB = Integer.parseInt(bounds[0]);
-            waveSizeUB = Integer.parseInt(bounds[1]);
+            int waveSizeLB = Integer.parseInt(bounds[0]);
+            int waveSizeUB = Integer.parseInt(bounds[1]);
 
             reader.close();
+
+            instance = new Instance(nItems,
+                    orderOffsets, orderEntries[0], orderEntries[1],
+                    aisleOffsets, aisleEntries[0], aisleEntries[1],
+                    waveSizeLB, waveSizeUB);
         } catch (IOException e) {
             System.err.println("Error reading input from " + inputFilePath);
             e.printStackTrace();
         }
     }
 
-    private void readItemQuantityPairs(BufferedReader reader, int nLines, List<Map<Integer, Integer>> orders) throws IOException {
+    // Devuelve {items, cantidades} en formato CSR y completa offsets
+    private int[][] readItemQuantityPairs(BufferedReader reader, int nLines, int[] offsets) throws IOException {
+        int[] items = new int[Math.max(16, nLines * 4)];
+        int[] quantities = new int[items.length];
+        int nonZeros = 0;
+
         String line;
-        for (int orderIndex = 0; orderIndex < nLines; orderIndex++) {
+        for (int lineIndex = 0; lineIndex < nLines; lineIndex++) {
             line = reader.readLine();
             String[] orderLine = line.split(" ");
-            int nOrderItems = Integer.parseInt(orderLine[0]);
-            Map<Integer, Integer> orderMap = new HashMap<>();
-            for (int k = 0; k < nOrderItems; k++) {
-                int itemIndex = Integer.parseInt(orderLine[2 * k + 1]);
-                int itemQuantity = Integer.parseInt(orderLine[2 * k + 2]);
-                orderMap.put(itemIndex, itemQuantity);
+            int nLineItems = Integer.parseInt(orderLine[0]);
+
+            if (nonZeros + nLineItems > items.length) {
+                int newLength = Math.max(items.length * 2, nonZeros + nLineItems);
+                items = Arrays.copyOf(items, newLength);
+                quantities = Arrays.copyOf(quantities, newLength);
+            }
+
+            for (int k = 0; k < nLineItems; k++) {
+                items[nonZeros] = Integer.parseInt(orderLine[2 * k + 1]);
+                quantities[nonZeros] = Integer.parseInt(orderLine[2 * k + 2]);
+                nonZeros++;
             }
-            orders.add(orderMap);
+            offsets[lineIndex + 1] = nonZeros;
+        }
+
+        return new int[][] { Arrays.copyOf(items, nonZeros), Arrays.copyOf(quantities, nonZeros) };
+    }
+
+    public Instance getInstance() {
+        return instance;
+    }
+
+    // Cuanto tarda escribir la salida mas grande posible (todas las ordenes y pasillos), para
+    // reservarlo del presupuesto. Se escribe a un archivo temporal que se borra.
+    public static long measureWriteNanos(Instance instance) {
+        long start = System.nanoTime();
+
+        try {
+            Path file = Files.createTempFile("sbpo-write-margin", ".txt");
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writeIds(writer, instance.nOrders());
+                writeIds(writer, instance.nAisles());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Error measuring write time: " + e.getMessage());
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static void writeIds(BufferedWriter writer, int n) throws IOException {
+        writer.write(String.valueOf(n));
+        writer.newLine();
+        for (int i = 0; i < n; i++) {
+            writer.write(String.valueOf(i));
+            writer.newLine();
         }
     }
 
@@ -75,54 +147,164 @@ public class Challenge {
             return;
         }
         try {
-            BufferedWriter writer = new BufferedWriter(new FileWriter(outputFilePath));
-            var orders = challengeSolution.orders();
-            var aisles = challengeSolution.aisles();
+            writeSolution(challengeSolution.orders(), challengeSolution.aisles(), Path.of(outputFilePath));
+            System.out.println("Output written to " + outputFilePath);
 
-            // Write the number of orders
-            writer.write(String.valueOf(orders.size()));
-            writer.newLine();
+        } catch (IOException e) {
+            System.err.println("Error writing output to " + outputFilePath);
+            e.printStackTrace();
+        }
+    }
 
-            // Write each order
-            for (int order : orders) {
-                writer.write(String.valueOf(order));
+    // Escribe en un temporal de la misma carpeta y lo renombra encima de la salida, asi quien la lea
+    // (o un kill a mitad de la escritura) nunca ve un archivo a medias
+    public static void writeSolution(Collection<Integer> orders, Collection<Integer> aisles, Path outputFile) throws IOException {
+        // Un temporal por thread (el escritor anytime y el shutdown hook pueden escribir a la vez).
+        // No se usa createTempFile porque deja permisos 600 en la salida
+        Path tmp = outputFile.resolveSibling(outputFile.getFileName() + "." + ProcessHandle.current().pid()
+                + "." + Thread.currentThread().getId() + ".tmp");
+
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp)) {
+                // Write the number of orders
+                writer.write(String.valueOf(orders.size()));
                 writer.newLine();
-            }
 
-            // Write the number of aisles
-            writer.write(String.valueOf(aisles.size()));
-            writer.newLine();
+                // Write each order
+                for (int order : orders) {
+                    writer.write(String.valueOf(order));
+                    writer.newLine();
+                }
 
-            // Write each aisle
-            for (int aisle : aisles) {
-                writer.write(String.valueOf(aisle));
+                // Write the number of aisles
+                writer.write(String.valueOf(aisles.size()));
                 writer.newLine();
-            }
 
-            writer.close();
-            System.out.println("Output written to " + outputFilePath);
+                // Write each aisle
+                for (int aisle : aisles) {
+                    writer.write(String.valueOf(aisle));
+                    writer.newLine();
+                }
+            }
 
-        } catch (IOException e) {
-            System.err.println("Error writing output to " + outputFilePath);
-            e.printStackTrace();
+            try {
+                Files.move(tmp, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, outputFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
         }
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
         // Start the stopwatch to track the running time
         StopWatch stopWatch = StopWatch.createStarted();
 
-        if (args.length != 2) {
-            System.out.println("Usage: java -jar target/ChallengeSBPO2025-1.0.jar <inputFilePath> <outputFilePath>");
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchChallenge.main(Arrays.copyOfRange(args, 1, args.length));
             return;
         }
 
+        if (args.length > 0 && args[0].equals("--check")) {
+            SolutionChecker.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--generate")) {
+            InstanceGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--waves")) {
+            WavePlanner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--daemon")) {
+            SolverDaemon.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--submit")) {
+            DaemonClient.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        String cacheDir = null;
+        String telemetryFile = null;
+        SolverConfig config = SolverConfig.defaults();
+        boolean validArgs = args.length >= 2;
+
+        for (int i = 2; i < args.length && validArgs; i++) {
+            if (args[i].equals("--cache") && i + 1 < args.length) cacheDir = args[++i];
+            else if (args[i].equals("--time-limit") && i + 1 < args.length) config = config.withTimeLimitMillis(1000 * Long.parseLong(args[++i]));
+            else if (args[i].equals("--telemetry") && i + 1 < args.length) telemetryFile = args[++i];
+            else if (args[i].equals("--anytime")) config = config.withAnytime(true);
+            else if (args[i].equals("--parallel-lambdas") && i + 1 < args.length) config = config.withParallelLambdas(Integer.parseInt(args[++i]));
+            else if (args[i].equals("--gap-threshold") && i + 1 < args.length) config = config.withGapThreshold(Double.parseDouble(args[++i]));
+            else if (args[i].equals("--legacy-callbacks")) config = config.withLegacyCallbacks(true);
+            else if (args[i].equals("--column-generation")) config = config.withColumnGeneration(true);
+            else if (args[i].equals("--backend") && i + 1 < args.length) config = config.withBackend(SolverConfig.Backend.valueOf(args[++i].toUpperCase()));
+            else validArgs = false;
+        }
+
+        if (!validArgs) {
+            System.out.println("Usage: java -jar target/ChallengeSBPO2025-1.0.jar <inputFilePath> <outputFilePath> [--cache <cacheDir>] [--time-limit <seconds>] [--backend auto|cplex|java] [--telemetry <file.jsonl>] [--anytime] [--parallel-lambdas <n>] [--gap-threshold <relativeGap>] [--legacy-callbacks] [--column-generation]");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --batch <inputDir> <outputDir> [options]");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --check <inputFile|inputDir> <solutionFile|solutionDir>");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --generate <outputFile> [options]");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --waves <inputFile> <outputDir> [--count <k>] [options]");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --daemon (--port <n> | --socket <path>) [--workers <n>] [--threads <perJob>] [options]");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --submit (--port <n> | --socket <path>) <inputFile> <outputFile> [--deadline <seconds>] [--priority <n>]");
+            return;
+        }
+
+        JsonLinesTelemetry telemetry = telemetryFile != null ? new JsonLinesTelemetry(Path.of(telemetryFile)) : null;
+        SolverListener listener = telemetry != null ? telemetry.forInstance(Path.of(args[0]).getFileName().toString()) : SolverListener.NONE;
+
         Challenge challenge = new Challenge();
-        challenge.readInput(args[0]);
-        var challengeSolver = new ChallengeSolver(
-                challenge.orders, challenge.aisles, challenge.nItems, challenge.waveSizeLB, challenge.waveSizeUB);
-        ChallengeSolution challengeSolution = challengeSolver.solve(stopWatch);
+        long phaseStart = System.nanoTime();
+        challenge.readInput(args[0], cacheDir);
+        listener.onPhase("parse", System.nanoTime() - phaseStart);
 
+        var challengeSolver = new ChallengeSolver(challenge.instance, config, listener);
+        if (config.backend() == SolverConfig.Backend.AUTO && !challengeSolver.getBackendName().equals("MIPSolver"))
+            System.out.println("CPLEX no disponible, usando " + challengeSolver.getBackendName());
+        System.out.println("Reduccion: " + challengeSolver.getReductionStats());
+        ChallengeSolution challengeSolution = challengeSolver.solve(stopWatch, args[1]);
+        if (config.anytime()) System.out.println("Checkpoints written: " + challengeSolver.getCheckpoints());
+        printBound(challengeSolver.getParametricSolver().getLastBound());
+        printIterationTimings(challengeSolver.getParametricSolver().getIterationTimings());
+
+        phaseStart = System.nanoTime();
         challenge.writeOutput(challengeSolution, args[1]);
+        listener.onPhase("write", System.nanoTime() - phaseStart);
+
+        if (telemetry != null) telemetry.close();
+    }
+
+    private static void printBound(SolverListener.BoundEvent bound) {
+        if (bound == null) return;
+
+        double gap = bound.bound() > 0 ? (bound.bound() - bound.bestRatio()) / bound.bound() : 0;
+        System.out.println(String.format(Locale.ROOT, "Cota superior %.6f (%s; lagrangiana %.6f, %d iteraciones), gap %.2e%s",
+                bound.bound(), bound.source().isEmpty() ? "-" : bound.source(), bound.lagrangianBound(), bound.lagrangianIterations(),
+                gap, bound.gapStop() ? ": se corto el solve" : ""));
+    }
+
+    // Tiempo de actualizar el modelo contra tiempo de solve, sumado sobre las iteraciones de Dinkelbach
+    private static void printIterationTimings(List<SubproblemSolver.IterationTiming> timings) {
+        if (timings.isEmpty()) return;
+
+        long update = 0, solve = 0, maxUpdate = 0;
+        for (SubproblemSolver.IterationTiming t : timings) {
+            update += t.modelUpdateNanos();
+            solve += t.solveNanos();
+            maxUpdate = Math.max(maxUpdate, t.modelUpdateNanos());
+        }
+
+        System.out.println(String.format(Locale.ROOT, "Dinkelbach: %d iteraciones, modelo %.2f ms (max %.2f ms), solve %.1f ms",
+                timings.size(), update / 1e6, maxUpdate / 1e6, solve / 1e6));
     }
 }
@@ -1,48 +1,110 @@
 package org.sbpo2025.challenge;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.time.StopWatch;
 
 public class ChallengeSolver {
-    private final long MAX_RUNTIME = 600000; // milliseconds; 10 minutes
+    private final long MAX_RUNTIME; // milliseconds
+    private final boolean anytime;
 
-    protected List<Map<Integer, Integer>> orders;
-    protected List<Map<Integer, Integer>> aisles;
+    protected final Instance instance;
     protected int nItems;
     protected int waveSizeLB;
     protected int waveSizeUB;
     
+    // La instancia que ven los solvers es la reducida, con ids compactos
+    private final InstanceReducer.Reduction reduction;
+
     // Solvers
     private final ParametricSolver parametricSolver;
 
-    public ChallengeSolver(
-            List<Map<Integer, Integer>> orders, List<Map<Integer, Integer>> aisles, int nItems, int waveSizeLB, int waveSizeUB) {
-        this.orders = orders;
-        this.aisles = aisles;
-        this.nItems = nItems;
-        this.waveSizeLB = waveSizeLB;
-        this.waveSizeUB = waveSizeUB;
-                
-        this.parametricSolver   = new ParametricSolver(orders, aisles, nItems, waveSizeLB, waveSizeUB);
+    // Soluciones escritas en modo anytime por el ultimo solve
+    private int checkpoints;
+
+    public ChallengeSolver(Instance instance) {
+        this(instance, SolverConfig.defaults());
+    }
+
+    public ChallengeSolver(Instance instance, SolverConfig config) {
+        this(instance, config, SolverListener.NONE);
+    }
+
+    public ChallengeSolver(Instance instance, SolverConfig config, SolverListener listener) {
+        this.MAX_RUNTIME = config.timeLimitMillis();
+        this.anytime = config.anytime();
+        this.instance = instance;
+        this.nItems = instance.nItems();
+        this.waveSizeLB = instance.waveSizeLB();
+        this.waveSizeUB = instance.waveSizeUB();
+
+        long reductionStart = System.nanoTime();
+        this.reduction = new InstanceReducer(instance).reduce();
+        listener.onPhase("reduction", System.nanoTime() - reductionStart);
+
+        this.parametricSolver   = new ParametricSolver(reduction.instance(), config, listener);
+    }
+
+    public ChallengeSolution solve(StopWatch stopWatch) {
+        return solve(stopWatch, null);
     }
 
-    public ChallengeSolution solve(StopWatch stopWatch) {  
+    // En modo anytime cada mejora se escribe en outputFilePath mientras se resuelve
+    public ChallengeSolution solve(StopWatch stopWatch, String outputFilePath) {  
         List<Integer> used_orders = new ArrayList<>();
         List<Integer> used_aisles = new ArrayList<>();
 
-        parametricSolver.solveMILFP(used_orders, used_aisles, 0.4, stopWatch);
-            
-        ChallengeSolution solution = new ChallengeSolution(Set.copyOf(used_orders), Set.copyOf(used_aisles));
+        // El presupuesto cuenta desde que arranco el stopWatch y reserva lo que tarda escribir la salida
+        long startNanos = System.nanoTime() - stopWatch.getNanoTime();
+        TimeBudget budget = new TimeBudget(startNanos, TimeUnit.MILLISECONDS.toNanos(MAX_RUNTIME),
+                2 * Challenge.measureWriteNanos(instance), parametricSolver.getSubproblemSolver().getPrecision());
+
+        SolutionCheckpointer checkpointer = null;
+        if (anytime && outputFilePath != null) {
+            checkpointer = new SolutionCheckpointer(parametricSolver.getIncumbentStore(), reduction, Path.of(outputFilePath));
+            checkpointer.start();
+        }
+
+        parametricSolver.solveMILFP(used_orders, used_aisles, 0.4, budget);
+        parametricSolver.end();
+
+        if (checkpointer != null) {
+            checkpointer.close();
+            checkpoints = checkpointer.getCheckpoints();
+        }
+
+        // De vuelta a los ids de la instancia original
+        ChallengeSolution solution = new ChallengeSolution(Set.copyOf(reduction.originalOrders(used_orders)),
+                                                           Set.copyOf(reduction.originalAisles(used_aisles)));
 
         return solution;
     } 
 
+    public int getCheckpoints() {
+        return checkpoints;
+    }
+
+    public InstanceReducer.Stats getReductionStats() {
+        return reduction.stats();
+    }
+
+    // Para traducir a ids originales lo que va apareciendo en el IncumbentStore
+    public InstanceReducer.Reduction getReduction() {
+        return reduction;
+    }
+
+    public ParametricSolver getParametricSolver() {
+        return parametricSolver;
+    }
+
+    public String getBackendName() {
+        return parametricSolver.getSubproblemSolver().getClass().getSimpleName();
+    }
+
     /*
      * Get the remaining time in seconds
      */
@@ -55,62 +117,21 @@ public class ChallengeSolver {
     protected boolean isSolutionFeasible(ChallengeSolution challengeSolution) {
         Set<Integer> selectedOrders = challengeSolution.orders();
         Set<Integer> visitedAisles = challengeSolution.aisles();
-        if (selectedOrders == null || visitedAisles == null || selectedOrders.isEmpty() || visitedAisles.isEmpty()) {
+        if (selectedOrders == null || visitedAisles == null) {
             return false;
         }
 
-        int[] totalUnitsPicked = new int[nItems];
-        int[] totalUnitsAvailable = new int[nItems];
-
-        // Calculate total units picked
-        for (int order : selectedOrders) {
-            for (Map.Entry<Integer, Integer> entry : orders.get(order).entrySet()) {
-                totalUnitsPicked[entry.getKey()] += entry.getValue();
-            }
-        }
-
-        // Calculate total units available
-        for (int aisle : visitedAisles) {
-            for (Map.Entry<Integer, Integer> entry : aisles.get(aisle).entrySet()) {
-                totalUnitsAvailable[entry.getKey()] += entry.getValue();
-            }
-        }
-
-        // Check if the total units picked are within bounds
-        int totalUnits = Arrays.stream(totalUnitsPicked).sum();
-        if (totalUnits < waveSizeLB || totalUnits > waveSizeUB) {
-            return false;
-        }
-
-        // Check if the units picked do not exceed the units available
-        for (int i = 0; i < nItems; i++) {
-            if (totalUnitsPicked[i] > totalUnitsAvailable[i]) {
-                return false;
-            }
-        }
-
-        return true;
+        return new SolutionValidator(instance).load(selectedOrders, visitedAisles).isFeasible();
     }
 
     protected double computeObjectiveFunction(ChallengeSolution challengeSolution) {
         Set<Integer> selectedOrders = challengeSolution.orders();
         Set<Integer> visitedAisles = challengeSolution.aisles();
-        if (selectedOrders == null || visitedAisles == null || selectedOrders.isEmpty() || visitedAisles.isEmpty()) {
+        if (selectedOrders == null || visitedAisles == null) {
             return 0.0;
         }
-        int totalUnitsPicked = 0;
-
-        // Calculate total units picked
-        for (int order : selectedOrders) {
-            totalUnitsPicked += orders.get(order).values().stream()
-                    .mapToInt(Integer::intValue)
-                    .sum();
-        }
-
-        // Calculate the number of visited aisles
-        int numVisitedAisles = visitedAisles.size();
 
-        // Objective function: total units picked / number of visited aisles
-        return (double) totalUnitsPicked / numVisitedAisles;
+        // Total units picked / number of visited aisles
+        return new SolutionValidator(instance).load(selectedOrders, visitedAisles).objective();
     }
 }
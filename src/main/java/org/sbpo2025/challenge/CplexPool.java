@@ -0,0 +1,127 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import ilog.concert.IloException;
+import ilog.cplex.IloCplex;
+
+/*
+ * Entornos de CPLEX que se reusan entre solves del mismo proceso (SolverDaemon). Crear un IloCplex
+ * (licencia, entorno nativo) cuesta mas que muchos solves chicos.
+ *
+ * Mientras no se llame a enable cada solver crea su entorno y lo cierra con end(), como siempre. Con
+ * el pool habilitado, release vacia el modelo, saca los callbacks y vuelve los parametros a los
+ * defaults (setCPLEXParamsTo los pone de nuevo en cada solve), y lo guarda si hay lugar.
+ */
+public final class CplexPool {
+
+    private static CplexPool shared;
+
+    private final Deque<IloCplex> idle = new ArrayDeque<>();
+    private final int capacity;
+    private int created;
+    private int reused;
+
+    private CplexPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public static synchronized void enable(int capacity) {
+        if (shared == null) shared = new CplexPool(capacity);
+    }
+
+    // Crea entornos hasta tener count libres; false si CPLEX no esta disponible
+    public static boolean prewarm(int count) {
+        CplexPool pool = pool();
+        if (pool == null) return false;
+
+        try {
+            while (pool.idleCount() < Math.min(count, pool.capacity)) {
+                IloCplex cplex = create(pool);
+                synchronized (pool) {
+                    pool.idle.push(cplex);
+                }
+            }
+        } catch (IloException | LinkageError e) {
+            System.out.println("CPLEX no disponible para el pool (" + e.getMessage() + ")");
+            return false;
+        }
+        return true;
+    }
+
+    static IloCplex acquire() throws IloException {
+        CplexPool pool = pool();
+        if (pool == null) return new IloCplex();
+
+        synchronized (pool) {
+            if (!pool.idle.isEmpty()) {
+                pool.reused++;
+                return pool.idle.pop();
+            }
+        }
+        return create(pool);
+    }
+
+    static void release(IloCplex cplex) {
+        CplexPool pool = pool();
+        if (pool != null) {
+            try {
+                cplex.clearModel();
+                cplex.clearCallbacks();
+                cplex.setDefaults();
+
+                synchronized (pool) {
+                    if (pool.idle.size() < pool.capacity) {
+                        pool.idle.push(cplex);
+                        return;
+                    }
+                }
+            } catch (IloException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+
+        cplex.end();
+    }
+
+    public static String stats() {
+        CplexPool pool = pool();
+        if (pool == null) return "sin pool";
+
+        synchronized (pool) {
+            return pool.created + " entornos creados, " + pool.reused + " reusados, " + pool.idle.size() + " libres";
+        }
+    }
+
+    // Cierra los entornos libres; los que estan en uso se cierran al devolverse
+    public static void shutdown() {
+        CplexPool pool;
+        synchronized (CplexPool.class) {
+            pool = shared;
+            shared = null;
+        }
+        if (pool == null) return;
+
+        synchronized (pool) {
+            for (IloCplex cplex : pool.idle) cplex.end();
+            pool.idle.clear();
+        }
+    }
+
+    private static synchronized CplexPool pool() {
+        return shared;
+    }
+
+    private static IloCplex create(CplexPool pool) throws IloException {
+        IloCplex cplex = new IloCplex();
+        synchronized (pool) {
+            pool.created++;
+        }
+        return cplex;
+    }
+
+    private synchronized int idleCount() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,111 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cliente de SolverDaemon: manda una instancia, imprime lo que va llegando (QUEUED, STARTED,
+ * INCUMBENT) y escribe la solucion final en outputFile. Con --status o --shutdown solo manda el
+ * comando.
+ *
+ * Uso: java -jar target/ChallengeSBPO2025-1.0.jar --submit (--port <n> | --socket <path>) <inputFile> <outputFile>
+ *          [--deadline <seconds>] [--priority <n>] [--threads <n>]
+ *      java -jar target/ChallengeSBPO2025-1.0.jar --submit (--port <n> | --socket <path>) --status|--shutdown
+ */
+public class DaemonClient {
+
+    private static final String USAGE = "Usage: java -jar target/ChallengeSBPO2025-1.0.jar --submit (--port <n> | --socket <path>) <inputFile> <outputFile>"
+            + " [--deadline <seconds>] [--priority <n>] [--threads <n>]\n"
+            + "       java -jar target/ChallengeSBPO2025-1.0.jar --submit (--port <n> | --socket <path>) --status|--shutdown";
+
+    public static void main(String[] args) throws IOException {
+        Integer port = null;
+        Path socket = null;
+        String command = null;
+        StringBuilder options = new StringBuilder();
+        List<String> files = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                files.add(args[i]);
+                continue;
+            }
+
+            if (args[i].equals("--status") || args[i].equals("--shutdown")) {
+                command = args[i].substring(2).toUpperCase();
+                continue;
+            }
+
+            if (i + 1 >= args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            switch (args[i]) {
+                case "--port"     -> port   = Integer.parseInt(args[++i]);
+                case "--socket"   -> socket = Path.of(args[++i]);
+                case "--deadline" -> options.append(" deadline=").append(TimeUnit.SECONDS.toMillis(Long.parseLong(args[++i])));
+                case "--priority" -> options.append(" priority=").append(Integer.parseInt(args[++i]));
+                case "--threads"  -> options.append(" threads=").append(Integer.parseInt(args[++i]));
+                default -> {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+
+        if ((port == null) == (socket == null) || (command == null && files.size() != 2)) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        byte[] payload = new byte[0];
+        if (command == null) {
+            payload = Files.readAllBytes(Path.of(files.get(0)));
+            command = "SOLVE" + options + " bytes=" + payload.length;
+        }
+
+        try (SocketChannel channel = port != null
+                ? SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port))
+                : SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            OutputStream out = Channels.newOutputStream(channel);
+            out.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+            out.write(payload);
+            out.flush();
+
+            // Se lee despues de mandar todo: los streams del canal no se pueden usar a la vez
+            BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+                if (line.startsWith("SOLUTION ")) writeSolution(line, Path.of(files.get(1)));
+            }
+        }
+    }
+
+    // SOLUTION <job> <ms> <cociente> <ordenes> <pasillos>
+    private static void writeSolution(String line, Path outputFile) throws IOException {
+        String[] fields = line.split(" ");
+        Challenge.writeSolution(parseIds(fields[4]), parseIds(fields[5]), outputFile);
+    }
+
+    private static List<Integer> parseIds(String field) {
+        List<Integer> ids = new ArrayList<>();
+        if (field.equals("-")) return ids;
+        for (String id : field.split(",")) ids.add(Integer.parseInt(id));
+        return ids;
+    }
+}
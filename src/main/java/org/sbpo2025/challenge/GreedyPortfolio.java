@@ -0,0 +1,179 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Portafolio de golosos multi-arranque que corre en paralelo antes del primer subproblema.
+ *
+ * Cada estrategia es un par de puntajes (uno por orden y uno por pasillo) con los que se ordenan
+ * ordenes y pasillos antes de correr GreedySolver. Las dos primeras son las de
+ * solve_with_both_greedies (pasillos por unidades y por items distintos); despues vienen:
+ *   - pasillos por unidades por item distinto,
+ *   - pasillos por cobertura pesada por rareza (los items que estan en pocos pasillos valen mas),
+ *   - ordenes por unidades por item distinto,
+ *   - perturbaciones aleatorias (con semilla fija) de las anteriores.
+ *
+ * Las estrategias se reparten con fork-join y se queda con el mejor cociente; ante empates gana
+ * la de menor indice, asi el resultado no depende de los threads.
+ */
+public class GreedyPortfolio {
+
+    private static final int    RANDOM_STARTS_PER_THREAD = 2;
+    private static final double NOISE = 0.2;
+
+    private final Instance instance;
+    private final GreedySolver greedySolver;
+    private final int threads;
+
+    private final List<Strategy> strategies = new ArrayList<>();
+    private String lastWinner = "";
+
+    public record Strategy(String name, double[] orderScores, double[] aisleScores) {
+    }
+
+    private record Candidate(int index, double ratio, List<Integer> orders, List<Integer> aisles) {
+    }
+
+    public GreedyPortfolio(Instance instance, int threads) {
+        this.instance     = instance;
+        this.greedySolver = new GreedySolver(instance);
+        this.threads      = Math.max(1, threads);
+
+        buildStrategies();
+    }
+
+    public List<Strategy> getStrategies() {
+        return strategies;
+    }
+
+    // Nombre de la estrategia que dio la mejor solucion en el ultimo solve ("" si ninguna mejoro la cota)
+    public String getLastWinner() {
+        return lastWinner;
+    }
+
+    public double solve(List<Integer> ordersToSave, List<Integer> aislesToSave, double aLowerBound) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Candidate best;
+
+        try {
+            best = pool.invoke(new StrategyTask(0, strategies.size(), aLowerBound));
+        } finally {
+            pool.shutdown();
+        }
+
+        if (best == null || best.ratio() <= aLowerBound) {
+            lastWinner = "";
+            return aLowerBound;
+        }
+
+        ordersToSave.clear();
+        aislesToSave.clear();
+        ordersToSave.addAll(best.orders());
+        aislesToSave.addAll(best.aisles());
+        lastWinner = strategies.get(best.index()).name();
+
+        return best.ratio();
+    }
+
+    private class StrategyTask extends RecursiveTask<Candidate> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final double aLowerBound;
+
+        StrategyTask(int from, int to, double aLowerBound) {
+            this.from = from;
+            this.to = to;
+            this.aLowerBound = aLowerBound;
+        }
+
+        @Override
+        protected Candidate compute() {
+            if (to - from == 1) return run(from, aLowerBound);
+
+            int mid = (from + to) >>> 1;
+            StrategyTask left  = new StrategyTask(from, mid, aLowerBound);
+            StrategyTask right = new StrategyTask(mid, to, aLowerBound);
+
+            right.fork();
+            Candidate leftBest  = left.compute();
+            Candidate rightBest = right.join();
+
+            if (leftBest == null) return rightBest;
+            if (rightBest == null) return leftBest;
+            return rightBest.ratio() > leftBest.ratio() ? rightBest : leftBest;
+        }
+    }
+
+    private Candidate run(int index, double aLowerBound) {
+        Strategy strategy = strategies.get(index);
+        List<Integer> orders = new ArrayList<>();
+        List<Integer> aisles = new ArrayList<>();
+
+        double ratio = greedySolver.solve_with_scores(orders, aisles, strategy.orderScores(), strategy.aisleScores(), aLowerBound);
+
+        return ratio > aLowerBound ? new Candidate(index, ratio, orders, aisles) : null;
+    }
+
+    private void buildStrategies() {
+        int nOrders = instance.nOrders();
+        int nAisles = instance.nAisles();
+
+        double[] orderUnits         = new double[nOrders];
+        double[] orderUnitsPerItem  = new double[nOrders];
+        double[] aisleUnits         = new double[nAisles];
+        double[] aisleDistinct      = new double[nAisles];
+        double[] aisleUnitsPerItem  = new double[nAisles];
+        double[] aisleRarity        = new double[nAisles];
+
+        int[] itemDemand = new int[instance.nItems()];
+        for (int o = 0; o < nOrders; o++) {
+            orderUnits[o] = instance.orderUnits(o);
+            orderUnitsPerItem[o] = (double) instance.orderUnits(o) / Math.max(1, instance.orderDistinct(o));
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                itemDemand[instance.orderItem(k)] += instance.orderQuantity(k);
+        }
+
+        for (int a = 0; a < nAisles; a++) {
+            aisleUnits[a] = instance.aisleUnits(a);
+            aisleDistinct[a] = instance.aisleDistinct(a);
+            aisleUnitsPerItem[a] = (double) instance.aisleUnits(a) / Math.max(1, instance.aisleDistinct(a));
+
+            // Solo cuenta el stock que alguna orden puede usar
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++) {
+                int item = instance.aisleItem(k);
+                int holders = instance.itemAislesEnd(item) - instance.itemAislesStart(item);
+                aisleRarity[a] += (double) Math.min(instance.aisleQuantity(k), itemDemand[item]) / holders;
+            }
+        }
+
+        strategies.add(new Strategy("units", orderUnits, aisleUnits));
+        strategies.add(new Strategy("distinct", orderUnits, aisleDistinct));
+        strategies.add(new Strategy("units-per-item", orderUnits, aisleUnitsPerItem));
+        strategies.add(new Strategy("rarity", orderUnits, aisleRarity));
+        strategies.add(new Strategy("rarity/orders-per-item", orderUnitsPerItem, aisleRarity));
+        strategies.add(new Strategy("units/orders-per-item", orderUnitsPerItem, aisleUnits));
+
+        // Perturbaciones: se alternan las bases deterministas
+        int randomStarts = RANDOM_STARTS_PER_THREAD * threads;
+        for (int s = 0; s < randomStarts; s++) {
+            SplittableRandom random = new SplittableRandom(s + 1);
+            Strategy base = strategies.get(s % 4);
+
+            strategies.add(new Strategy(base.name() + "~" + (s + 1),
+                    perturb(base.orderScores(), random), perturb(base.aisleScores(), random)));
+        }
+    }
+
+    private static double[] perturb(double[] scores, SplittableRandom random) {
+        double[] perturbed = new double[scores.length];
+        for (int i = 0; i < scores.length; i++)
+            perturbed[i] = scores[i] * (1 + NOISE * (2 * random.nextDouble() - 1));
+        return perturbed;
+    }
+}
@@ -1,27 +1,72 @@
 package org.sbpo2025.challenge;
 
-import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
+import java.util.function.IntToDoubleFunction;
+
+/*
+ * Goloso: abre pasillos en el orden dado y, despues de cada uno, toma en el orden dado todas las
+ * ordenes que ya se pueden armar con el stock abierto y entran en UB. Se queda con el mejor prefijo.
+ *
+ * En lugar de volver a recorrer todas las ordenes pendientes despues de cada pasillo, se lleva para
+ * cada orden cuantos de sus items todavia no alcanzan ("faltantes"). Para cada item las entradas de
+ * ordenes estan ordenadas por cantidad, asi cuando cambia el stock de un item de s a s' solo se tocan
+ * las entradas con cantidad entre s y s'. Una orden pendiente solo puede pasar a estar lista cuando
+ * se abre un pasillo con alguno de sus items (tomar ordenes solo baja el stock), por lo que en cada
+ * paso se revisan solo las ordenes cuyo contador llego a 0, en el mismo orden que el recorrido completo.
+ *
+ * El resultado es identico al del recorrido con LinkedList que habia antes. Las estructuras por item se
+ * arman una vez y son de solo lectura; el estado de cada corrida es local, asi que se puede usar desde
+ * varios threads a la vez (GreedyPortfolio).
+ */
 public class GreedySolver {
 
-    private final List<Map<Integer, Integer>> orders;
-    private final List<Map<Integer, Integer>> aisles;
+    private final Instance instance;
     private final int nItems;
     private final int waveSizeLB;
     private final int waveSizeUB;
 
-    public GreedySolver(List<Map<Integer, Integer>> orders, List<Map<Integer, Integer>> aisles, int nItems, int waveSizeLB, int waveSizeUB) {
-        this.orders = orders;
-        this.aisles = aisles;
-        this.nItems = nItems;
-        this.waveSizeLB = waveSizeLB;
-        this.waveSizeUB = waveSizeUB; 
+    // item -> entradas (orden, cantidad) ordenadas por cantidad creciente
+    private final int[] itemEntryOffsets;
+    private final int[] entryOrders;
+    private final int[] entryQuantities;
+
+    public GreedySolver(Instance instance) {
+        this.instance = instance;
+        this.nItems = instance.nItems();
+        this.waveSizeLB = instance.waveSizeLB();
+        this.waveSizeUB = instance.waveSizeUB();
+
+        this.itemEntryOffsets = new int[nItems + 1];
+        this.entryOrders      = new int[instance.orderNonZeros()];
+        this.entryQuantities  = new int[instance.orderNonZeros()];
+        buildItemEntries();
+    }
+
+    private void buildItemEntries() {
+        for (int o = 0; o < instance.nOrders(); o++)
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                itemEntryOffsets[instance.orderItem(k) + 1]++;
+
+        for (int i = 0; i < nItems; i++)
+            itemEntryOffsets[i + 1] += itemEntryOffsets[i];
+
+        // (cantidad << 32 | orden) para ordenar cada item por cantidad con un sort primitivo
+        long[] keys = new long[entryOrders.length];
+        int[] next = Arrays.copyOf(itemEntryOffsets, nItems);
+
+        for (int o = 0; o < instance.nOrders(); o++)
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                keys[next[instance.orderItem(k)]++] = ((long) instance.orderQuantity(k) << 32) | o;
+
+        for (int i = 0; i < nItems; i++)
+            Arrays.sort(keys, itemEntryOffsets[i], itemEntryOffsets[i + 1]);
+
+        for (int e = 0; e < keys.length; e++) {
+            entryOrders[e]     = (int) keys[e];
+            entryQuantities[e] = (int) (keys[e] >>> 32);
+        }
     }
 
     public double solve(List<Integer> ordersToSave, List<Integer> aislesToSave) {
@@ -33,119 +78,145 @@ public class GreedySolver {
     }
 
     public double solve_with_both_greedies(List<Integer> ordersToSave, List<Integer> aislesToSave, double aLowerBound) {
-        LinkedList<Integer> ordersSortedByNumElements = new LinkedList<>(getMapIndicesSortedByMapSumOfValues(this.orders)); // Linked list para remover en O(1) desde adentro
-        LinkedList<Integer> ordersSortedByNumElementsClone = (LinkedList<Integer>) ordersSortedByNumElements.clone();
+        int[] ordersSortedByNumElements = getIndicesSortedByDescending(instance.nOrders(), instance::orderUnits);
 
-        double first_greedy_value = solve_for_sorted_aisles_and_orders(ordersToSave, aislesToSave, ordersSortedByNumElements, getMapIndicesSortedByMapSumOfValues(this.aisles), aLowerBound);
+        double first_greedy_value = solve_for_sorted_aisles_and_orders(ordersToSave, aislesToSave, ordersSortedByNumElements, getIndicesSortedByDescending(instance.nAisles(), instance::aisleUnits), aLowerBound);
 
-        double second_greedy_value = solve_for_sorted_aisles_and_orders(ordersToSave, aislesToSave, ordersSortedByNumElementsClone, getMapIndicesSortedByNumDistinct(this.aisles), Math.max(first_greedy_value, aLowerBound));
+        double second_greedy_value = solve_for_sorted_aisles_and_orders(ordersToSave, aislesToSave, ordersSortedByNumElements, getIndicesSortedByDescending(instance.nAisles(), instance::aisleDistinct), Math.max(first_greedy_value, aLowerBound));
 
         return second_greedy_value;
     }
 
+    // Goloso con ordenes y pasillos recorridos de mayor a menor puntaje (lo usa GreedyPortfolio)
+    public double solve_with_scores(List<Integer> ordersToSave, List<Integer> aislesToSave, double[] orderScores, double[] aisleScores, double aLowerBound) {
+        int[] ordersSorted = getIndicesSortedByDescending(orderScores.length, o -> orderScores[o]);
+
+        return solve_for_sorted_aisles_and_orders(ordersToSave, aislesToSave, ordersSorted, getIndicesSortedByDescending(aisleScores.length, a -> aisleScores[a]), aLowerBound);
+    }
+
     public double solve(List<Integer> ordersToSave, List<Integer> aislesToSave, double aLowerBound, boolean sortByNumberOfValues) {
-        List<Integer> aislesSortedByNumElements;
+        int[] aislesSortedByNumElements;
 
         if (sortByNumberOfValues)
-            aislesSortedByNumElements = getMapIndicesSortedByMapSumOfValues(this.aisles);
+            aislesSortedByNumElements = getIndicesSortedByDescending(instance.nAisles(), instance::aisleUnits);
         else
-            aislesSortedByNumElements = getMapIndicesSortedByNumDistinct(this.aisles);
+            aislesSortedByNumElements = getIndicesSortedByDescending(instance.nAisles(), instance::aisleDistinct);
+
+        int[] ordersSortedByNumElements = getIndicesSortedByDescending(instance.nOrders(), instance::orderUnits);
 
-        LinkedList<Integer> ordersSortedByNumElements = new LinkedList<>(getMapIndicesSortedByMapSumOfValues(this.orders)); // Linked list para remover en O(1) desde adentro
-        
         return solve_for_sorted_aisles_and_orders(ordersToSave, aislesToSave, ordersSortedByNumElements, aislesSortedByNumElements, aLowerBound);
     }
 
-    private double solve_for_sorted_aisles_and_orders(List<Integer> ordersToSave, List<Integer> aislesToSave, LinkedList<Integer> ordersSortedByNumElements, List<Integer> aislesSortedByNumElements, double aLowerBound) {
+    private double solve_for_sorted_aisles_and_orders(List<Integer> ordersToSave, List<Integer> aislesToSave, int[] ordersSorted, int[] aislesSorted, double aLowerBound) {
+        int nOrders = instance.nOrders();
+
         int[] elementsPerType = new int[this.nItems]; // Inicializa a 0 automaticamente
+        int[] missing = new int[nOrders];             // Items de la orden que todavia no alcanzan
+        int[] rank = new int[nOrders];                // Posicion de la orden en el recorrido
+        boolean[] done = new boolean[nOrders];        // Tomada o descartada por UB
+
+        // Ordenes que llegaron a 0 faltantes en este paso, como posiciones en ordersSorted
+        int[] ready = new int[nOrders];
+        int nReady = 0;
+
+        for (int r = 0; r < ordersSorted.length; r++) {
+            int o = ordersSorted[r];
+            rank[o] = r;
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                if (instance.orderQuantity(k) > 0) missing[o]++;
+            if (missing[o] == 0) ready[nReady++] = r;
+        }
+
         int curElements = 0; double bestRatio = aLowerBound;
 
         // Guardo todas las ordenes elegidas en orden, y un indice que me dice donde termina la mejor
         // encontrada hasta el momento (que debe ser un prefijo de las totales elegidas)
-        List<Integer> ordersChosen = new ArrayList<>();
+        int[] ordersChosen = new int[nOrders];
+        int nChosen = 0;
         int indexOrderSolution = 0, indexAisleSolution = 0;
 
-        for (int curAisleIndex = 0; curAisleIndex < aislesSortedByNumElements.size(); curAisleIndex++) {
-            
+        for (int curAisleIndex = 0; curAisleIndex < aislesSorted.length; curAisleIndex++) {
+
             // Load elements from aisle
-            for (Map.Entry<Integer, Integer> entry : this.aisles.get(aislesSortedByNumElements.get(curAisleIndex)).entrySet())
-                elementsPerType[entry.getKey()] += entry.getValue();
-
-            // Iterate reminaing orders
-            Iterator<Integer> orderIndexIterator = ordersSortedByNumElements.iterator();
-            while (orderIndexIterator.hasNext()) {
-
-                int o = orderIndexIterator.next();
-                boolean fail = false;
-                
-                int elementsInOrder = 0;
-                for (Map.Entry<Integer, Integer> entry : this.orders.get(o).entrySet()) {
-                    elementsInOrder += entry.getValue();
-                    if (elementsPerType[entry.getKey()] < entry.getValue()) {
-                        fail = true;
-                        break;
-                    }
+            int aisle = aislesSorted[curAisleIndex];
+            for (int k = instance.aisleStart(aisle); k < instance.aisleEnd(aisle); k++) {
+                int item = instance.aisleItem(k);
+                int before = elementsPerType[item];
+                elementsPerType[item] += instance.aisleQuantity(k);
+
+                // Entradas con before < cantidad <= stock nuevo dejan de faltar
+                for (int e = firstEntryAbove(item, before); e < itemEntryOffsets[item + 1] && entryQuantities[e] <= elementsPerType[item]; e++) {
+                    int o = entryOrders[e];
+                    if (--missing[o] == 0 && !done[o]) ready[nReady++] = rank[o];
                 }
+            }
+
+            // Mismo orden que el recorrido completo de las pendientes
+            Arrays.sort(ready, 0, nReady);
+
+            for (int p = 0; p < nReady; p++) {
+                int o = ordersSorted[ready[p]];
+                if (done[o] || missing[o] > 0) continue; // Otra orden de este paso le saco stock
 
-                if (fail) continue;
-                
+                int elementsInOrder = instance.orderUnits(o);
                 if (elementsInOrder + curElements <= this.waveSizeUB) {
 
-                    for (Map.Entry<Integer, Integer> entry : this.orders.get(o).entrySet()) {
-                        elementsPerType[entry.getKey()] -= entry.getValue();
+                    for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++) {
+                        int item = instance.orderItem(k);
+                        int before = elementsPerType[item];
+                        elementsPerType[item] -= instance.orderQuantity(k);
+
+                        // Entradas con stock nuevo < cantidad <= before pasan a faltar
+                        for (int e = firstEntryAbove(item, elementsPerType[item]); e < itemEntryOffsets[item + 1] && entryQuantities[e] <= before; e++)
+                            missing[entryOrders[e]]++;
                     }
                     curElements += elementsInOrder;
 
-                    ordersChosen.add(o);
+                    ordersChosen[nChosen++] = o;
                 }
-                
-                orderIndexIterator.remove();
+
+                done[o] = true;
                 if (this.waveSizeLB <= curElements && bestRatio < (double) curElements / (curAisleIndex + 1)) {
                     bestRatio = (double) curElements / (curAisleIndex + 1);
-                    indexOrderSolution = ordersChosen.size();
+                    indexOrderSolution = nChosen;
                     indexAisleSolution = curAisleIndex + 1;
                 }
             }
+
+            nReady = 0;
         }
 
         if (bestRatio > aLowerBound) { // Se encontro alguna solucion
             ordersToSave.clear();
             aislesToSave.clear();
 
-            for (int o=0; o<indexOrderSolution; o++) ordersToSave.add(ordersChosen.get(o));
-            for (int a=0; a<indexAisleSolution; a++) aislesToSave.add(aislesSortedByNumElements.get(a));  
+            for (int o=0; o<indexOrderSolution; o++) ordersToSave.add(ordersChosen[o]);
+            for (int a=0; a<indexAisleSolution; a++) aislesToSave.add(aislesSorted[a]);
         }
 
         return bestRatio;
     }
 
-    private List<Integer> getMapIndicesSortedByMapSumOfValues(List<Map<Integer, Integer>> mapWithvalues) {
-        List<Map.Entry<Integer, Integer>> indicesAndSum = new ArrayList<>();
-
-        for (int i = 0; i < mapWithvalues.size(); i++) {
-            int sum = mapWithvalues.get(i).values().stream().mapToInt(Integer::intValue).sum();
-            indicesAndSum.add(new AbstractMap.SimpleEntry<>(i, sum));
+    // Primera entrada del item con cantidad > stock (busqueda binaria)
+    private int firstEntryAbove(int item, int stock) {
+        int lo = itemEntryOffsets[item], hi = itemEntryOffsets[item + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entryQuantities[mid] <= stock) lo = mid + 1;
+            else hi = mid;
         }
-
-        indicesAndSum.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
-
-        return indicesAndSum.stream()
-                            .map(a -> a.getKey())
-                            .collect(Collectors.toList());
+        return lo;
     }
 
-    private List<Integer> getMapIndicesSortedByNumDistinct(List<Map<Integer, Integer>> mapWithValues) {
-        List<Map.Entry<Integer, Integer>> indicesAndSum = new ArrayList<>();
+    // Indices 0..n-1 ordenados de mayor a menor segun key (estable ante empates)
+    private int[] getIndicesSortedByDescending(int n, IntToDoubleFunction key) {
+        List<Integer> indices = new ArrayList<>(n);
 
-        for (int i = 0; i < mapWithValues.size(); i++) {
-            int sum = mapWithValues.get(i).keySet().size();
-            indicesAndSum.add(new AbstractMap.SimpleEntry<>(i, sum));
-        }
+        for (int i = 0; i < n; i++)
+            indices.add(i);
 
-        indicesAndSum.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        indices.sort((a, b) -> Double.compare(key.applyAsDouble(b), key.applyAsDouble(a)));
 
-        return indicesAndSum.stream()
-                            .map(a -> a.getKey())
-                            .collect(Collectors.toList());
+        return indices.stream().mapToInt(Integer::intValue).toArray();
     }
-}
\ No newline at end of file
+}
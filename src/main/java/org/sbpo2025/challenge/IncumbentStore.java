@@ -0,0 +1,90 @@
+package org.sbpo2025.challenge;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/*
+ * Mejor solucion conocida, compartida entre el portafolio de golosos, la busqueda local y el
+ * subproblema (incluidos los callbacks de CPLEX, que corren en sus propios threads).
+ *
+ * Guarda una foto inmutable (Incumbent) en un AtomicReference: offer la reemplaza con compareAndSet
+ * solo si el cociente mejora, asi que nunca bloquea y ningun lector ve una solucion a medio copiar.
+ * El cociente lo calcula el store a partir de la instancia, no lo pasa quien ofrece. La factibilidad
+ * si es responsabilidad de quien ofrece.
+ *
+ * Cada reemplazo incrementa version, para que los consumidores sepan si hay algo nuevo sin comparar
+ * soluciones. Un listener opcional se entera de cada mejora en el thread de quien la ofrecio (puede ser
+ * un callback de CPLEX), asi que no debe bloquear.
+ */
+public final class IncumbentStore {
+
+    // Los arreglos no se modifican despues de crear el Incumbent
+    public record Incumbent(double ratio, int[] orders, int[] aisles, long version, String source) {
+    }
+
+    private static final Incumbent EMPTY = new Incumbent(0, new int[0], new int[0], 0, "");
+
+    private final Instance instance;
+    private final AtomicReference<Incumbent> best = new AtomicReference<>(EMPTY);
+    private volatile Consumer<Incumbent> improvementListener;
+
+    public IncumbentStore(Instance instance) {
+        this.instance = instance;
+    }
+
+    public void setImprovementListener(Consumer<Incumbent> improvementListener) {
+        this.improvementListener = improvementListener;
+    }
+
+    public Incumbent get() {
+        return best.get();
+    }
+
+    public double ratio() {
+        return best.get().ratio();
+    }
+
+    public long version() {
+        return best.get().version();
+    }
+
+    public boolean offer(List<Integer> orders, List<Integer> aisles, String source) {
+        return offer(orders.stream().mapToInt(Integer::intValue).toArray(),
+                     aisles.stream().mapToInt(Integer::intValue).toArray(), source);
+    }
+
+    // Los arreglos pasan a ser del store: quien ofrece no los tiene que tocar despues
+    public boolean offer(int[] orders, int[] aisles, String source) {
+        if (aisles.length == 0) return false;
+
+        long units = 0;
+        for (int o : orders) units += instance.orderUnits(o);
+        double ratio = (double) units / aisles.length;
+
+        while (true) {
+            Incumbent current = best.get();
+            if (ratio <= current.ratio()) return false;
+
+            Incumbent candidate = new Incumbent(ratio, orders, aisles, current.version() + 1, source);
+            if (best.compareAndSet(current, candidate)) {
+                Consumer<Incumbent> listener = improvementListener;
+                if (listener != null) listener.accept(candidate);
+                return true;
+            }
+        }
+    }
+
+    // Copia la mejor solucion a las listas si su cociente supera threshold. Devuelve el cociente o -1.
+    public double copyIfBetter(List<Integer> orders, List<Integer> aisles, double threshold) {
+        Incumbent current = best.get();
+        if (current.ratio() <= threshold) return -1;
+
+        orders.clear();
+        aisles.clear();
+        for (int o : current.orders()) orders.add(o);
+        for (int a : current.aisles()) aisles.add(a);
+
+        return current.ratio();
+    }
+}
@@ -0,0 +1,142 @@
+package org.sbpo2025.challenge;
+
+/*
+ * Instancia inmutable en formato CSR (compressed sparse row).
+ *
+ * Los items de la orden o son orderItems[orderStart(o) .. orderEnd(o)) con sus cantidades
+ * en orderQuantities, lo mismo para los pasillos. Ademas se guardan los indices transpuestos
+ * item -> ordenes e item -> pasillos, para recorrer solo lo que toca a un item.
+ */
+public final class Instance {
+
+    private final int nOrders;
+    private final int nAisles;
+    private final int nItems;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+
+    // Ordenes
+    private final int[] orderOffsets;
+    private final int[] orderItems;
+    private final int[] orderQuantities;
+    private final int[] orderUnits;
+
+    // Pasillos
+    private final int[] aisleOffsets;
+    private final int[] aisleItems;
+    private final int[] aisleQuantities;
+    private final int[] aisleUnits;
+
+    // Transpuestos: item -> ordenes / pasillos
+    private final int[] itemOrderOffsets;
+    private final int[] itemOrders;
+    private final int[] itemAisleOffsets;
+    private final int[] itemAisles;
+
+    // Total disponible de cada item sumando todos los pasillos
+    private final int[] itemStock;
+
+    public Instance(int nItems,
+                    int[] orderOffsets, int[] orderItems, int[] orderQuantities,
+                    int[] aisleOffsets, int[] aisleItems, int[] aisleQuantities,
+                    int waveSizeLB, int waveSizeUB) {
+        this.nOrders         = orderOffsets.length - 1;
+        this.nAisles         = aisleOffsets.length - 1;
+        this.nItems          = nItems;
+        this.waveSizeLB      = waveSizeLB;
+        this.waveSizeUB      = waveSizeUB;
+
+        this.orderOffsets    = orderOffsets;
+        this.orderItems      = orderItems;
+        this.orderQuantities = orderQuantities;
+        this.orderUnits      = rowSums(orderOffsets, orderQuantities);
+
+        this.aisleOffsets    = aisleOffsets;
+        this.aisleItems      = aisleItems;
+        this.aisleQuantities = aisleQuantities;
+        this.aisleUnits      = rowSums(aisleOffsets, aisleQuantities);
+
+        this.itemOrderOffsets = new int[nItems + 1];
+        this.itemOrders       = transpose(orderOffsets, orderItems, nItems, itemOrderOffsets);
+        this.itemAisleOffsets = new int[nItems + 1];
+        this.itemAisles       = transpose(aisleOffsets, aisleItems, nItems, itemAisleOffsets);
+
+        this.itemStock = new int[nItems];
+        for (int k = 0; k < aisleItems.length; k++)
+            this.itemStock[aisleItems[k]] += aisleQuantities[k];
+    }
+
+    private static int[] rowSums(int[] offsets, int[] values) {
+        int[] sums = new int[offsets.length - 1];
+
+        for (int r = 0; r < sums.length; r++)
+            for (int k = offsets[r]; k < offsets[r + 1]; k++)
+                sums[r] += values[k];
+
+        return sums;
+    }
+
+    // Counting sort de las entradas por item, las filas quedan ordenadas dentro de cada item
+    private static int[] transpose(int[] offsets, int[] columns, int nColumns, int[] transposedOffsets) {
+        for (int col : columns)
+            transposedOffsets[col + 1]++;
+
+        for (int c = 0; c < nColumns; c++)
+            transposedOffsets[c + 1] += transposedOffsets[c];
+
+        int[] rows = new int[columns.length];
+        int[] next = new int[nColumns];
+        System.arraycopy(transposedOffsets, 0, next, 0, nColumns);
+
+        for (int r = 0; r < offsets.length - 1; r++)
+            for (int k = offsets[r]; k < offsets[r + 1]; k++)
+                rows[next[columns[k]]++] = r;
+
+        return rows;
+    }
+
+    public int nOrders()    { return nOrders; }
+    public int nAisles()    { return nAisles; }
+    public int nItems()     { return nItems; }
+    public int waveSizeLB() { return waveSizeLB; }
+    public int waveSizeUB() { return waveSizeUB; }
+
+    // Ordenes
+    public int orderStart(int o)     { return orderOffsets[o]; }
+    public int orderEnd(int o)       { return orderOffsets[o + 1]; }
+    public int orderItem(int k)      { return orderItems[k]; }
+    public int orderQuantity(int k)  { return orderQuantities[k]; }
+    public int orderUnits(int o)     { return orderUnits[o]; }
+    public int orderDistinct(int o)  { return orderOffsets[o + 1] - orderOffsets[o]; }
+    public int orderNonZeros()       { return orderItems.length; }
+
+    // Pasillos
+    public int aisleStart(int a)     { return aisleOffsets[a]; }
+    public int aisleEnd(int a)       { return aisleOffsets[a + 1]; }
+    public int aisleItem(int k)      { return aisleItems[k]; }
+    public int aisleQuantity(int k)  { return aisleQuantities[k]; }
+    public int aisleUnits(int a)     { return aisleUnits[a]; }
+    public int aisleDistinct(int a)  { return aisleOffsets[a + 1] - aisleOffsets[a]; }
+    public int aisleNonZeros()       { return aisleItems.length; }
+
+    // Item -> ordenes
+    public int itemOrdersStart(int i) { return itemOrderOffsets[i]; }
+    public int itemOrdersEnd(int i)   { return itemOrderOffsets[i + 1]; }
+    public int itemOrder(int k)       { return itemOrders[k]; }
+
+    // Item -> pasillos
+    public int itemAislesStart(int i) { return itemAisleOffsets[i]; }
+    public int itemAislesEnd(int i)   { return itemAisleOffsets[i + 1]; }
+    public int itemAisle(int k)       { return itemAisles[k]; }
+
+    public int itemStock(int i)       { return itemStock[i]; }
+
+    public int totalOrderUnits(Iterable<Integer> ordersToSum) {
+        int sum = 0;
+
+        for (int o : ordersToSum)
+            sum += orderUnits[o];
+
+        return sum;
+    }
+}
@@ -0,0 +1,263 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/*
+ * Cache binario de instancias parseadas.
+ *
+ * El bloque de ordenes y el bloque de pasillos del archivo de texto se guardan como secciones
+ * independientes, cada una en su propio archivo y con clave el SHA-256 de su texto:
+ *
+ *     <cacheDir>/orders-<hash>.bin
+ *     <cacheDir>/aisles-<hash>.bin
+ *
+ * Asi, si cambia solo el pool de ordenes, la seccion de pasillos se reutiliza y solo se parsea
+ * el texto de las ordenes. Para encontrar los bloques solo se leen los 3 enteros del encabezado
+ * y se cuentan fines de linea, sin parsear numeros.
+ *
+ * Formato de una seccion (little-endian, enteros de 32 bits alineados a 4 bytes):
+ *
+ *     int magic      'SBPO'
+ *     int version    FORMAT_VERSION
+ *     int kind       0 = ordenes, 1 = pasillos
+ *     int nItems
+ *     int rows
+ *     int nonZeros
+ *     int reserved   0
+ *     int reserved   0
+ *     int offsets[rows + 1]
+ *     int items[nonZeros]
+ *     int quantities[nonZeros]
+ *
+ * Una seccion con otra version o con otro nItems se trata como ausente y se vuelve a escribir.
+ */
+public final class InstanceCache {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC        = 0x4F504253; // "SBPO" en little-endian
+    private static final int HEADER_INTS  = 8;
+    private static final int KIND_ORDERS  = 0;
+    private static final int KIND_AISLES  = 1;
+
+    private final Path cacheDir;
+
+    private int hits;
+    private int misses;
+
+    public InstanceCache(Path cacheDir) throws IOException {
+        this.cacheDir = cacheDir;
+        Files.createDirectories(cacheDir);
+    }
+
+    public record Section(int rows, int[] offsets, int[] items, int[] quantities) {
+    }
+
+    public Instance load(String inputFilePath) throws IOException {
+        return load(Path.of(inputFilePath));
+    }
+
+    public Instance load(Path inputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = MappedInstanceParser.map(channel);
+            MappedInstanceParser parser = new MappedInstanceParser(buffer);
+
+            int nOrders = parser.nextInt();
+            int nItems  = parser.nextInt();
+            int nAisles = parser.nextInt();
+            parser.skipLine();
+
+            int ordersStart = parser.position();
+            parser.skipLines(nOrders);
+            int aislesStart = parser.position();
+            parser.skipLines(nAisles);
+            int aislesEnd = parser.position();
+
+            int waveSizeLB = parser.nextInt();
+            int waveSizeUB = parser.nextInt();
+
+            Section orders = loadSection(parser, KIND_ORDERS, nItems, nOrders, ordersStart, aislesStart);
+            Section aisles = loadSection(parser, KIND_AISLES, nItems, nAisles, aislesStart, aislesEnd);
+
+            return new Instance(nItems,
+                    orders.offsets(), orders.items(), orders.quantities(),
+                    aisles.offsets(), aisles.items(), aisles.quantities(),
+                    waveSizeLB, waveSizeUB);
+        }
+    }
+
+    // Guarda secciones ya armadas con el SHA-256 (hex) del texto de su bloque, sin pasar por el parser.
+    // Lo usa InstanceGenerator, que calcula el hash mientras escribe el texto
+    public void store(int nItems, String ordersHash, Section orders, String aislesHash, Section aisles) throws IOException {
+        writeSection(cacheDir.resolve(sectionName(KIND_ORDERS) + "-" + ordersHash + ".bin"), KIND_ORDERS, nItems, orders);
+        writeSection(cacheDir.resolve(sectionName(KIND_AISLES) + "-" + aislesHash + ".bin"), KIND_AISLES, nItems, aisles);
+    }
+
+    // Secciones encontradas en el cache / parseadas desde texto desde que se creo
+    public int hits()   { return hits; }
+    public int misses() { return misses; }
+
+    private Section loadSection(MappedInstanceParser parser, int kind, int nItems, int rows, int from, int to) throws IOException {
+        Path sectionFile = cacheDir.resolve(sectionName(kind) + "-" + sha256(parser.slice(from, to)) + ".bin");
+
+        if (Files.exists(sectionFile)) {
+            Section cached = readSection(sectionFile, kind, nItems, rows);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+        }
+
+        misses++;
+        parser.seek(from);
+        int[] offsets = new int[rows + 1];
+        int[][] entries = parser.readItemQuantityPairs(rows, offsets, MappedInstanceParser.estimateNonZeros(to - from));
+        Section parsed = new Section(rows, offsets, entries[0], entries[1]);
+
+        writeSection(sectionFile, kind, nItems, parsed);
+
+        return parsed;
+    }
+
+    // Escritura atomica: se escribe a un temporal en el mismo directorio y se renombra
+    private static void writeSection(Path sectionFile, int kind, int nItems, Section section) throws IOException {
+        int nonZeros = section.items().length;
+        long bytes = 4L * (HEADER_INTS + section.rows() + 1 + 2L * nonZeros);
+
+        Path dir = sectionFile.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, sectionFile.getFileName().toString(), ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            IntBuffer ints = out.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+
+            ints.put(MAGIC).put(FORMAT_VERSION).put(kind).put(nItems)
+                .put(section.rows()).put(nonZeros).put(0).put(0);
+            ints.put(section.offsets(), 0, section.rows() + 1);
+            ints.put(section.items(), 0, nonZeros);
+            ints.put(section.quantities(), 0, nonZeros);
+
+            out.force();
+        }
+
+        Files.move(tmp, sectionFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Devuelve null si el archivo no corresponde (version, tipo o tamanio distintos)
+    private static Section readSection(Path sectionFile, int kind, int nItems, int rows) throws IOException {
+        try (FileChannel channel = FileChannel.open(sectionFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 4L * HEADER_INTS) return null;
+
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            IntBuffer ints = in.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+
+            if (ints.get() != MAGIC || ints.get() != FORMAT_VERSION || ints.get() != kind || ints.get() != nItems)
+                return null;
+
+            int storedRows = ints.get();
+            int nonZeros   = ints.get();
+            ints.position(HEADER_INTS);
+
+            if (storedRows != rows || size != 4L * (HEADER_INTS + rows + 1 + 2L * nonZeros))
+                return null;
+
+            int[] offsets    = new int[rows + 1];
+            int[] items      = new int[nonZeros];
+            int[] quantities = new int[nonZeros];
+
+            ints.get(offsets).get(items).get(quantities);
+
+            return new Section(rows, offsets, items, quantities);
+        }
+    }
+
+    public static void write(Instance instance, Path ordersFile, Path aislesFile) throws IOException {
+        writeSection(ordersFile, KIND_ORDERS, instance.nItems(), ordersOf(instance));
+        writeSection(aislesFile, KIND_AISLES, instance.nItems(), aislesOf(instance));
+    }
+
+    // Arma una instancia con las ordenes de una seccion y los pasillos de otra
+    public static Instance combine(int nItems, Section orders, Section aisles, int waveSizeLB, int waveSizeUB) {
+        return new Instance(nItems,
+                orders.offsets(), orders.items(), orders.quantities(),
+                aisles.offsets(), aisles.items(), aisles.quantities(),
+                waveSizeLB, waveSizeUB);
+    }
+
+    public static Section readOrders(Path ordersFile, int nItems, int nOrders) throws IOException {
+        return readSection(ordersFile, KIND_ORDERS, nItems, nOrders);
+    }
+
+    public static Section readAisles(Path aislesFile, int nItems, int nAisles) throws IOException {
+        return readSection(aislesFile, KIND_AISLES, nItems, nAisles);
+    }
+
+    private static Section ordersOf(Instance instance) {
+        int rows = instance.nOrders();
+        int[] offsets = new int[rows + 1];
+        int[] items = new int[instance.orderNonZeros()];
+        int[] quantities = new int[items.length];
+
+        for (int o = 0; o < rows; o++) {
+            offsets[o + 1] = instance.orderEnd(o);
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++) {
+                items[k] = instance.orderItem(k);
+                quantities[k] = instance.orderQuantity(k);
+            }
+        }
+
+        return new Section(rows, offsets, items, quantities);
+    }
+
+    private static Section aislesOf(Instance instance) {
+        int rows = instance.nAisles();
+        int[] offsets = new int[rows + 1];
+        int[] items = new int[instance.aisleNonZeros()];
+        int[] quantities = new int[items.length];
+
+        for (int a = 0; a < rows; a++) {
+            offsets[a + 1] = instance.aisleEnd(a);
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++) {
+                items[k] = instance.aisleItem(k);
+                quantities[k] = instance.aisleQuantity(k);
+            }
+        }
+
+        return new Section(rows, offsets, items, quantities);
+    }
+
+    private static String sectionName(int kind) {
+        return kind == KIND_ORDERS ? "orders" : "aisles";
+    }
+
+    private static String sha256(ByteBuffer bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes);
+
+            return hex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String hex(byte[] digest) {
+        StringBuilder hex = new StringBuilder(2 * digest.length);
+        for (byte b : digest)
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+
+        return hex.toString();
+    }
+}
@@ -0,0 +1,299 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/*
+ * Generador de instancias sinteticas grandes para pruebas de escala (tests/random_instance_creator.py
+ * solo arma instancias de a lo sumo 10 ordenes).
+ *
+ *   - Popularidad de los items Zipf: el item de rango r se pide con probabilidad proporcional a
+ *     1 / r^itemSkew. Los rangos se asignan a ids al azar.
+ *   - Cada orden tiene 1 + Geom items distintos con media orderLines y cantidades con media quantity.
+ *   - Cada pasillo tiene 1 + Geom items distintos con media aisleLines, elegidos con probabilidad
+ *     1 / r^(itemSkew * stockSkew): con stockSkew 0 el stock es uniforme y con 1 sigue a la demanda.
+ *     El stock de cada item tiene media stock.
+ *   - UB = waveFraction * unidades pedidas en total y LB = tightness * UB.
+ *
+ * Las filas se escriben a medida que se generan, sin armar la instancia en memoria. Con cacheDir se
+ * guardan ademas las secciones binarias de InstanceCache con el hash del texto de cada bloque, asi
+ * que la primera lectura con --cache ya no parsea.
+ */
+public class InstanceGenerator {
+
+    private static final String USAGE = "Usage: java -jar target/ChallengeSBPO2025-1.0.jar --generate <outputFile>"
+            + " [--orders <n>] [--aisles <n>] [--items <n>] [--item-skew <s>] [--stock-skew <s>] [--order-lines <mean>]"
+            + " [--quantity <mean>] [--aisle-lines <mean>] [--stock <mean>] [--wave-fraction <f>] [--tightness <t>]"
+            + " [--seed <n>] [--cache <cacheDir>]";
+
+    public record Spec(int nOrders, int nAisles, int nItems, double itemSkew, double stockSkew,
+                       double orderLines, double quantity, double aisleLines, double stock,
+                       double waveFraction, double tightness, long seed) {
+
+        // Valores parecidos a los de datasets/b, escalados al tamanio pedido
+        public static Spec of(int nOrders, int nAisles, int nItems) {
+            return new Spec(nOrders, nAisles, nItems, 1.0, 0.5, 3, 1.5, 20, 5, 0.02, 0.5, 0);
+        }
+
+        public Spec withSeed(long seed) {
+            return new Spec(nOrders, nAisles, nItems, itemSkew, stockSkew, orderLines, quantity,
+                    aisleLines, stock, waveFraction, tightness, seed);
+        }
+    }
+
+    public record Stats(long orderUnits, int orderNonZeros, int aisleNonZeros, int waveSizeLB, int waveSizeUB,
+                        long bytes, long millis) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "unidades %d, no ceros %d ordenes / %d pasillos, LB %d UB %d, %.1f MB, %d ms",
+                    orderUnits, orderNonZeros, aisleNonZeros, waveSizeLB, waveSizeUB, bytes / 1e6, millis);
+        }
+    }
+
+    private final Spec spec;
+    private final SplittableRandom random;
+
+    private final int[] itemOfRank;
+    private final double[] demandCdf;
+    private final double[] stockCdf;
+
+    // Marca de la ultima fila que uso cada item, para no repetir items dentro de una fila
+    private final int[] lastRow;
+    private int row;
+
+    public InstanceGenerator(Spec spec) {
+        this.spec   = spec;
+        this.random = new SplittableRandom(spec.seed());
+
+        int nItems = spec.nItems();
+        this.itemOfRank = new int[nItems];
+        Arrays.setAll(itemOfRank, i -> i);
+        for (int i = nItems - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = itemOfRank[i];
+            itemOfRank[i] = itemOfRank[j];
+            itemOfRank[j] = tmp;
+        }
+
+        this.demandCdf = zipfCdf(nItems, spec.itemSkew());
+        this.stockCdf  = zipfCdf(nItems, spec.itemSkew() * spec.stockSkew());
+
+        this.lastRow = new int[nItems];
+        Arrays.fill(lastRow, -1);
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int r = 0; r < n; r++) {
+            total += 1.0 / Math.pow(r + 1, exponent);
+            cdf[r] = total;
+        }
+        return cdf;
+    }
+
+    private int sampleItem(double[] cdf) {
+        int rank = Arrays.binarySearch(cdf, random.nextDouble() * cdf[cdf.length - 1]);
+        if (rank < 0) rank = -rank - 1;
+        return itemOfRank[Math.min(rank, cdf.length - 1)];
+    }
+
+    // 1 + Geometrica, con media mean (>= 1)
+    private int sampleCount(double mean) {
+        if (mean <= 1) return 1;
+        double p = 1 / mean;
+        return 1 + (int) Math.min(Integer.MAX_VALUE - 1, Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p)));
+    }
+
+    public Stats generate(Path outputFile) throws IOException {
+        return generate(outputFile, null);
+    }
+
+    public Stats generate(Path outputFile, Path cacheDir) throws IOException {
+        long start = System.nanoTime();
+
+        MessageDigest ordersDigest = sha256();
+        MessageDigest aislesDigest = sha256();
+
+        Rows orders = cacheDir != null ? new Rows(spec.nOrders()) : null;
+        Rows aisles = cacheDir != null ? new Rows(spec.nAisles()) : null;
+
+        int[] items = new int[spec.nItems()];
+        int[] quantities = new int[spec.nItems()];
+        StringBuilder line = new StringBuilder();
+
+        long orderUnits = 0;
+        int orderNonZeros = 0, aisleNonZeros = 0;
+        int waveSizeLB, waveSizeUB;
+
+        try (DigestOutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(outputFile), 1 << 16), ordersDigest)) {
+            out.on(false);
+            line.append(spec.nOrders()).append(' ').append(spec.nItems()).append(' ').append(spec.nAisles()).append('\n');
+            write(out, line);
+
+            // El hash de cada bloque es el mismo que calcula InstanceCache sobre el texto
+            out.on(true);
+            for (int o = 0; o < spec.nOrders(); o++) {
+                int n = sampleRow(items, quantities, demandCdf, spec.orderLines(), spec.quantity());
+                for (int k = 0; k < n; k++) orderUnits += quantities[k];
+                orderNonZeros += n;
+
+                writeRow(out, line, items, quantities, n);
+                if (orders != null) orders.add(items, quantities, n);
+            }
+
+            out.setMessageDigest(aislesDigest);
+            for (int a = 0; a < spec.nAisles(); a++) {
+                int n = sampleRow(items, quantities, stockCdf, spec.aisleLines(), spec.stock());
+                aisleNonZeros += n;
+
+                writeRow(out, line, items, quantities, n);
+                if (aisles != null) aisles.add(items, quantities, n);
+            }
+
+            out.on(false);
+            waveSizeUB = (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(spec.waveFraction() * orderUnits)));
+            waveSizeLB = (int) Math.round(spec.tightness() * waveSizeUB);
+            line.append(waveSizeLB).append(' ').append(waveSizeUB).append('\n');
+            write(out, line);
+        }
+
+        if (cacheDir != null)
+            new InstanceCache(cacheDir).store(spec.nItems(),
+                    InstanceCache.hex(ordersDigest.digest()), orders.section(),
+                    InstanceCache.hex(aislesDigest.digest()), aisles.section());
+
+        return new Stats(orderUnits, orderNonZeros, aisleNonZeros, waveSizeLB, waveSizeUB,
+                Files.size(outputFile), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Items distintos de una fila con sus cantidades; devuelve cuantos son
+    private int sampleRow(int[] items, int[] quantities, double[] cdf, double meanLines, double meanQuantity) {
+        int lines = Math.min(sampleCount(meanLines), spec.nItems());
+        int n = 0;
+        row++;
+
+        // Con items muy populares puede costar encontrar distintos: se corta despues de varios intentos
+        for (int attempt = 0; n < lines && attempt < 10 * lines; attempt++) {
+            int item = sampleItem(cdf);
+            if (lastRow[item] == row) continue;
+
+            lastRow[item] = row;
+            items[n] = item;
+            quantities[n++] = sampleCount(meanQuantity);
+        }
+
+        return n;
+    }
+
+    private static void writeRow(DigestOutputStream out, StringBuilder line, int[] items, int[] quantities, int n) throws IOException {
+        line.append(n);
+        for (int k = 0; k < n; k++) line.append(' ').append(items[k]).append(' ').append(quantities[k]);
+        line.append('\n');
+        write(out, line);
+    }
+
+    private static void write(DigestOutputStream out, StringBuilder line) throws IOException {
+        out.write(line.toString().getBytes(StandardCharsets.US_ASCII));
+        line.setLength(0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Filas en CSR que crecen a medida que se generan (solo con cacheDir)
+    private static final class Rows {
+        private final int[] offsets;
+        private int[] items = new int[1024];
+        private int[] quantities = new int[1024];
+        private int rows;
+
+        Rows(int capacity) {
+            this.offsets = new int[capacity + 1];
+        }
+
+        void add(int[] rowItems, int[] rowQuantities, int n) {
+            int end = offsets[rows];
+            if (end + n > items.length) {
+                int size = Math.max(2 * items.length, end + n);
+                items = Arrays.copyOf(items, size);
+                quantities = Arrays.copyOf(quantities, size);
+            }
+
+            System.arraycopy(rowItems, 0, items, end, n);
+            System.arraycopy(rowQuantities, 0, quantities, end, n);
+            offsets[++rows] = end + n;
+        }
+
+        InstanceCache.Section section() {
+            int nonZeros = offsets[rows];
+            return new InstanceCache.Section(rows, offsets, Arrays.copyOf(items, nonZeros), Arrays.copyOf(quantities, nonZeros));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args[0].startsWith("--")) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        Path outputFile = Path.of(args[0]);
+        Path cacheDir = null;
+
+        int nOrders = 10000, nAisles = 1000, nItems = 10000;
+        Spec defaults = Spec.of(nOrders, nAisles, nItems);
+        double itemSkew = defaults.itemSkew(), stockSkew = defaults.stockSkew();
+        double orderLines = defaults.orderLines(), quantity = defaults.quantity();
+        double aisleLines = defaults.aisleLines(), stock = defaults.stock();
+        double waveFraction = defaults.waveFraction(), tightness = defaults.tightness();
+        long seed = defaults.seed();
+
+        for (int i = 1; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            switch (args[i]) {
+                case "--orders"        -> nOrders      = Integer.parseInt(args[++i]);
+                case "--aisles"        -> nAisles      = Integer.parseInt(args[++i]);
+                case "--items"         -> nItems       = Integer.parseInt(args[++i]);
+                case "--item-skew"     -> itemSkew     = Double.parseDouble(args[++i]);
+                case "--stock-skew"    -> stockSkew    = Double.parseDouble(args[++i]);
+                case "--order-lines"   -> orderLines   = Double.parseDouble(args[++i]);
+                case "--quantity"      -> quantity     = Double.parseDouble(args[++i]);
+                case "--aisle-lines"   -> aisleLines   = Double.parseDouble(args[++i]);
+                case "--stock"         -> stock        = Double.parseDouble(args[++i]);
+                case "--wave-fraction" -> waveFraction = Double.parseDouble(args[++i]);
+                case "--tightness"     -> tightness    = Double.parseDouble(args[++i]);
+                case "--seed"          -> seed         = Long.parseLong(args[++i]);
+                case "--cache"         -> cacheDir     = Path.of(args[++i]);
+                default -> {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+
+        Spec spec = new Spec(nOrders, nAisles, nItems, itemSkew, stockSkew, orderLines, quantity,
+                aisleLines, stock, waveFraction, tightness, seed);
+
+        Stats stats = new InstanceGenerator(spec).generate(outputFile, cacheDir);
+        System.out.println(outputFile + ": " + stats);
+    }
+}
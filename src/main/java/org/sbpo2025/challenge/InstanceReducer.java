@@ -0,0 +1,288 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Reduccion de la instancia antes de armar el modelo. Reglas, en este orden:
+ *   1. ordenes infactibles: mas unidades que UB, o mas de un item que el stock de todos los pasillos,
+ *   2. items que ninguna orden restante pide (se sacan de los pasillos),
+ *   3. pasillos vacios (sin items pedidos),
+ *   4. pasillos dominados: a es dominado por b si para cada item de a, b tiene por lo menos la
+ *      demanda total del item. Con b abierto a no aporta nada, y si b esta cerrado se puede cambiar
+ *      a por b sin perder factibilidad, asi que siempre hay un optimo sin a.
+ *
+ * La dominancia es contra la demanda total y no contra el stock de a: con "b tiene mas de cada item
+ * que a" no alcanza, porque un optimo puede necesitar a y b abiertos a la vez.
+ *
+ * Ninguna regla cambia el optimo. La instancia reducida se renumera de forma compacta y Reduction
+ * traduce las soluciones a los ids originales.
+ */
+public class InstanceReducer {
+
+    public record Stats(int overUBOrders, int noStockOrders, int unneededItems, int emptyAisles,
+                        int dominatedAisles, long millis) {
+
+        public int removedOrders() {
+            return overUBOrders + noStockOrders;
+        }
+
+        public int removedAisles() {
+            return emptyAisles + dominatedAisles;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "ordenes: %d sobre UB, %d sin stock | items: %d sin demanda | pasillos: %d vacios, %d dominados | %d ms",
+                    overUBOrders, noStockOrders, unneededItems, emptyAisles, dominatedAisles, millis);
+        }
+    }
+
+    // Instancia reducida y, para cada id nuevo, el id original
+    public record Reduction(Instance instance, int[] orderIds, int[] aisleIds, int[] itemIds, Stats stats) {
+
+        public List<Integer> originalOrders(List<Integer> orders) {
+            return mapBack(orders, orderIds);
+        }
+
+        public List<Integer> originalAisles(List<Integer> aisles) {
+            return mapBack(aisles, aisleIds);
+        }
+
+        private static List<Integer> mapBack(List<Integer> ids, int[] originalIds) {
+            List<Integer> mapped = new ArrayList<>(ids.size());
+            for (int id : ids) mapped.add(originalIds[id]);
+            return mapped;
+        }
+    }
+
+    private final Instance instance;
+    private final int nOrders;
+    private final int nAisles;
+    private final int nItems;
+
+    public InstanceReducer(Instance instance) {
+        this.instance = instance;
+        this.nOrders  = instance.nOrders();
+        this.nAisles  = instance.nAisles();
+        this.nItems   = instance.nItems();
+    }
+
+    public Reduction reduce() {
+        return reduce(true);
+    }
+
+    // Sin la regla 4. WavePlanner la saca porque al descontar stock entre olas un pasillo deja de
+    // dominar a otro; las otras reglas siguen valiendo con menos ordenes y menos stock
+    public Reduction reduce(boolean removeDominated) {
+        long start = System.nanoTime();
+
+        int[] overUB  = new int[1];
+        int[] noStock = new int[1];
+        boolean[] keepOrder = feasibleOrders(overUB, noStock);
+
+        // Demanda total de cada item sumando las ordenes que quedan
+        long[] demand = new long[nItems];
+        for (int o = 0; o < nOrders; o++) {
+            if (!keepOrder[o]) continue;
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                demand[instance.orderItem(k)] += instance.orderQuantity(k);
+        }
+
+        int unneeded = 0;
+        for (int i = 0; i < nItems; i++) if (demand[i] == 0) unneeded++;
+
+        int[] empty = new int[1];
+        boolean[] keepAisle = undominatedAisles(demand, empty, removeDominated);
+
+        int dominated = 0;
+        for (int a = 0; a < nAisles; a++) if (!keepAisle[a]) dominated++;
+        dominated -= empty[0];
+
+        int[] orderIds = indicesOf(keepOrder);
+        int[] aisleIds = indicesOf(keepAisle);
+
+        boolean[] keepItem = new boolean[nItems];
+        for (int i = 0; i < nItems; i++) keepItem[i] = demand[i] > 0;
+        int[] itemIds = indicesOf(keepItem);
+
+        // Sin ordenes o sin pasillos no hay nada que resolver: se deja la instancia como esta
+        if (orderIds.length == 0 || aisleIds.length == 0)
+            return identity(System.nanoTime() - start);
+
+        Instance reduced = build(orderIds, aisleIds, itemIds);
+        Stats stats = new Stats(overUB[0], noStock[0], unneeded, empty[0], dominated, (System.nanoTime() - start) / 1_000_000);
+
+        return new Reduction(reduced, orderIds, aisleIds, itemIds, stats);
+    }
+
+    private Reduction identity(long nanos) {
+        int[] orderIds = new int[nOrders];
+        int[] aisleIds = new int[nAisles];
+        int[] itemIds  = new int[nItems];
+        Arrays.setAll(orderIds, o -> o);
+        Arrays.setAll(aisleIds, a -> a);
+        Arrays.setAll(itemIds, i -> i);
+
+        return new Reduction(instance, orderIds, aisleIds, itemIds, new Stats(0, 0, 0, 0, 0, nanos / 1_000_000));
+    }
+
+    private boolean[] feasibleOrders(int[] overUB, int[] noStock) {
+        boolean[] keep = new boolean[nOrders];
+        long[] needed = new long[nItems]; // por si una orden repite item
+
+        for (int o = 0; o < nOrders; o++) {
+            if (instance.orderUnits(o) > instance.waveSizeUB()) {
+                overUB[0]++;
+                continue;
+            }
+
+            boolean fits = true;
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                if ((needed[instance.orderItem(k)] += instance.orderQuantity(k)) > instance.itemStock(instance.orderItem(k)))
+                    fits = false;
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                needed[instance.orderItem(k)] = 0;
+
+            if (fits) keep[o] = true;
+            else noStock[0]++;
+        }
+
+        return keep;
+    }
+
+    private boolean[] undominatedAisles(long[] demand, int[] empty, boolean removeDominated) {
+        boolean[] keep = new boolean[nAisles];
+
+        // Items pedidos de cada pasillo y los que satura (stock del pasillo >= demanda total)
+        int[][] neededItems    = new int[nAisles][];
+        int[][] saturatedItems = new int[nAisles][];
+        int[] saturatingCount  = new int[nItems];
+        long[] stock = new long[nItems]; // por si un pasillo repite item
+
+        for (int a = 0; a < nAisles; a++) {
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+                stock[instance.aisleItem(k)] += instance.aisleQuantity(k);
+
+            int[] needed = new int[instance.aisleDistinct(a)];
+            int[] saturated = new int[needed.length];
+            int nNeeded = 0, nSaturated = 0;
+
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++) {
+                int item = instance.aisleItem(k);
+                if (stock[item] == 0) continue; // sin stock o ya contado
+
+                if (demand[item] > 0) {
+                    needed[nNeeded++] = item;
+                    if (stock[item] >= demand[item]) {
+                        saturated[nSaturated++] = item;
+                        saturatingCount[item]++;
+                    }
+                }
+                stock[item] = 0;
+            }
+
+            neededItems[a]    = Arrays.copyOf(needed, nNeeded);
+            saturatedItems[a] = Arrays.copyOf(saturated, nSaturated);
+
+            keep[a] = nNeeded > 0;
+            if (!keep[a]) empty[0]++;
+        }
+
+        if (!removeDominated) return keep;
+
+        // item -> pasillos que lo saturan (CSR)
+        int[] saturatingOffsets = new int[nItems + 1];
+        for (int i = 0; i < nItems; i++) saturatingOffsets[i + 1] = saturatingOffsets[i] + saturatingCount[i];
+        int[] saturating = new int[saturatingOffsets[nItems]];
+        int[] next = Arrays.copyOf(saturatingOffsets, nItems);
+        for (int a = 0; a < nAisles; a++)
+            for (int item : saturatedItems[a]) saturating[next[item]++] = a;
+
+        // Los candidatos a dominar a a son los que saturan su item con menos pasillos que lo saturan.
+        // Se compara solo contra pasillos que siguen en pie: si b saco a a y despues c saca a b, c
+        // tambien domina a a, asi que dos pasillos nunca se sacan mutuamente.
+        int[] mark = new int[nItems];
+        Arrays.fill(mark, -1);
+
+        for (int a = 0; a < nAisles; a++) {
+            if (!keep[a]) continue;
+
+            int rarest = neededItems[a][0];
+            for (int item : neededItems[a])
+                if (saturatingCount[item] < saturatingCount[rarest]) rarest = item;
+            if (saturatingCount[rarest] == 0) continue;
+
+            for (int item : neededItems[a]) mark[item] = a;
+
+            for (int p = saturatingOffsets[rarest]; p < saturatingOffsets[rarest + 1]; p++) {
+                int b = saturating[p];
+                if (b == a || !keep[b] || saturatedItems[b].length < neededItems[a].length) continue;
+
+                int covered = 0;
+                for (int item : saturatedItems[b]) if (mark[item] == a) covered++;
+
+                if (covered == neededItems[a].length) {
+                    keep[a] = false;
+                    break;
+                }
+            }
+        }
+
+        return keep;
+    }
+
+    private static int[] indicesOf(boolean[] keep) {
+        int[] indices = new int[keep.length];
+        int n = 0;
+        for (int i = 0; i < keep.length; i++) if (keep[i]) indices[n++] = i;
+        return Arrays.copyOf(indices, n);
+    }
+
+    // Instancia compacta con los ids nuevos; las entradas de items sacados se descartan
+    private Instance build(int[] orderIds, int[] aisleIds, int[] itemIds) {
+        int[] newItem = new int[nItems];
+        Arrays.fill(newItem, -1);
+        for (int i = 0; i < itemIds.length; i++) newItem[itemIds[i]] = i;
+
+        int[] orderOffsets = new int[orderIds.length + 1];
+        int[][] orderEntries = compact(orderIds, orderOffsets, newItem, true);
+
+        int[] aisleOffsets = new int[aisleIds.length + 1];
+        int[][] aisleEntries = compact(aisleIds, aisleOffsets, newItem, false);
+
+        return new Instance(itemIds.length,
+                orderOffsets, orderEntries[0], orderEntries[1],
+                aisleOffsets, aisleEntries[0], aisleEntries[1],
+                instance.waveSizeLB(), instance.waveSizeUB());
+    }
+
+    // Devuelve {items, cantidades} en formato CSR de las filas dadas y completa offsets
+    private int[][] compact(int[] rows, int[] offsets, int[] newItem, boolean orders) {
+        int nonZeros = 0;
+        for (int r : rows)
+            nonZeros += orders ? instance.orderDistinct(r) : instance.aisleDistinct(r);
+
+        int[] items = new int[nonZeros];
+        int[] quantities = new int[nonZeros];
+        int n = 0;
+
+        for (int r = 0; r < rows.length; r++) {
+            int start = orders ? instance.orderStart(rows[r]) : instance.aisleStart(rows[r]);
+            int end   = orders ? instance.orderEnd(rows[r]) : instance.aisleEnd(rows[r]);
+
+            for (int k = start; k < end; k++) {
+                int item = newItem[orders ? instance.orderItem(k) : instance.aisleItem(k)];
+                if (item < 0) continue;
+
+                items[n] = item;
+                quantities[n++] = orders ? instance.orderQuantity(k) : instance.aisleQuantity(k);
+            }
+            offsets[r + 1] = n;
+        }
+
+        return new int[][] { Arrays.copyOf(items, n), Arrays.copyOf(quantities, n) };
+    }
+}
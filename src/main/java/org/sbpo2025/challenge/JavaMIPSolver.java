@@ -0,0 +1,745 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/*
+ * Subproblema parametrico resuelto en Java puro, sin CPLEX:
+ *
+ *     max  sum(u_o X_o) - lambda sum(Y_a)
+ *     s.a. sum_o q_oi X_o - sum_a s_ai Y_a <= 0      para cada item i   (filas perezosas)
+ *          X_o - sum_{a con i} Y_a <= 0               orden o, item i    (cortes perezosos)
+ *          LB <= sum(u_o X_o) <= UB
+ *          sum(Y_a) >= 1
+ *          sum(u_o X_o) - k sum(Y_a) >= 0           (corte, k = updateCutConstraint)
+ *          vecindario de pasillos                    (solo en busqueda local)
+ *          X, Y binarias
+ *
+ * La relajacion lineal se resuelve con BoundedDualSimplex. Las filas de cobertura por item se
+ * agregan solo cuando la solucion de la relajacion las viola, y se mantienen entre iteraciones de
+ * Dinkelbach. En las filas de cobertura el stock de un pasillo se recorta a la demanda total del
+ * item, y los cortes de enlace orden-item se separan igual que las filas; las dos cosas solo
+ * ajustan la relajacion, no cambian las soluciones enteras. El branch and bound explora por mejor cota con buceo, ramifica primero en pasillos y
+ * reoptimiza con el simplex dual desde la base del nodo anterior. En cada nodo se redondea la relajacion y se empaquetan
+ * ordenes de forma golosa para conseguir incumbentes.
+ *
+ * Replica la semantica de MIPSolver: gap relativo, corte por cota < -PRECISION ("Frenó por eps")
+ * y el aborto por el limite de la iteracion (TimeBudget).
+ */
+public class JavaMIPSolver implements SubproblemSolver {
+
+    private static final double INTEGRALITY_TOL = 1e-6;
+    private static final double COVERAGE_TOL    = 1e-6;
+    private static final double LINK_TOL        = 1e-3;
+    private static final int    ROWS_PER_ROUND  = 256;
+    private static final int    MAX_ACTIVE_ROWS = 3000; // inversa densa de ~70MB
+    private static final long   MAX_LP_ITERATIONS = 1_000_000;
+
+    private Instance instance; // Cambia entre olas (updateInstance)
+    private int nOrders;
+    private final int nAisles;
+
+    private double PRECISION = 1e-4;
+
+    private double currentBest;
+    private double cutValue;
+    private boolean solutionInfeasible = false;
+    private double upperBound = Double.POSITIVE_INFINITY;
+
+    // Soluciones externas pendientes de probar como incumbente en el proximo solve
+    private final List<MIPStart> mipStarts = new ArrayList<>();
+
+    private IncumbentStore incumbentStore;
+    private long injectedVersion;
+
+    private IterationTiming lastIterationTiming = new IterationTiming(0, 0, 0);
+    private boolean abortedEarly;
+
+    private record MIPStart(List<Integer> orders, List<Integer> aisles) {
+    }
+
+    // Filas de cobertura activas, persisten entre resoluciones
+    private final boolean[] activeItem;
+    private final List<Integer> activeItems = new ArrayList<>();
+    private final Set<Long> activeLinks = new HashSet<>();
+    private final List<long[]> links = new ArrayList<>(); // {orden, item}
+    private final int[] itemDemand;
+
+    // Estado del solve actual
+    private BoundedDualSimplex lp;
+    private double lambda;
+    private boolean[] neighbourhood; // pasillos de la solucion previa si hay busqueda local
+    private long neighbourhoodSize;
+    private boolean rowLimitReached;
+    private boolean infeasibilityProven;
+
+    private boolean[] incumbentX;
+    private boolean[] incumbentY;
+    private double incumbentObj;
+
+    private long nodes;
+    private long lpIterations;
+
+    // Buffers
+    private final double[] itemBalance;
+    private int[] rowIndices;
+    private double[] rowValues;
+
+    public JavaMIPSolver(Instance instance) {
+        this.instance = instance;
+        this.nOrders  = instance.nOrders();
+        this.nAisles  = instance.nAisles();
+
+        this.activeItem  = new boolean[instance.nItems()];
+        this.itemBalance = new double[instance.nItems()];
+        this.itemDemand  = new int[instance.nItems()];
+        computeItemDemand();
+        this.rowIndices  = new int[nOrders + nAisles];
+        this.rowValues   = new double[nOrders + nAisles];
+    }
+
+    private void computeItemDemand() {
+        Arrays.fill(itemDemand, 0);
+        for (int o = 0; o < nOrders; o++)
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                itemDemand[instance.orderItem(k)] += instance.orderQuantity(k);
+    }
+
+    // Siguiente ola o cambio del pool: la relajacion se rearma en cada solve desde la instancia, asi que
+    // alcanza con cambiarla (y agrandar los buffers si llegaron ordenes). Las filas y cortes activos
+    // siguen valiendo (no dependen de que ordenes quedan)
+    @Override
+    public void updateInstance(Instance residual) {
+        this.instance = residual;
+        if (residual.nOrders() != nOrders) {
+            this.nOrders    = residual.nOrders();
+            this.rowIndices = new int[nOrders + nAisles];
+            this.rowValues  = new double[nOrders + nAisles];
+        }
+        computeItemDemand();
+        mipStarts.clear();
+    }
+
+    @Override
+    public void startFromGreedySolution(double greedySolutionValue) {
+        this.currentBest = greedySolutionValue;
+    }
+
+    @Override
+    public double getCurrentBest() {
+        return currentBest;
+    }
+
+    @Override
+    public void generateModel(List<Integer> used_orders, List<Integer> used_aisles) {
+        this.cutValue = currentBest;
+
+        // Arranca con las filas de los items que usa la solucion inicial
+        for (int o : used_orders)
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                activate(instance.orderItem(k));
+    }
+
+    @Override
+    public void updateCutConstraint(double k) {
+        this.cutValue = k;
+    }
+
+    @Override
+    public void addMIPStart(List<Integer> orders, List<Integer> aisles, double ratio) {
+        if (ratio > this.currentBest) this.currentBest = ratio;
+        this.mipStarts.add(new MIPStart(new ArrayList<>(orders), new ArrayList<>(aisles)));
+    }
+
+    @Override
+    public void setIncumbentStore(IncumbentStore incumbentStore) {
+        this.incumbentStore = incumbentStore;
+    }
+
+    @Override
+    public boolean wasAbortedEarly() {
+        return abortedEarly;
+    }
+
+    @Override
+    public IterationTiming getLastIterationTiming() {
+        return lastIterationTiming;
+    }
+
+    @Override
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    @Override
+    public boolean isSolutionInfeasible() {
+        return solutionInfeasible;
+    }
+
+    @Override
+    public boolean isInfeasibilityProven() {
+        return infeasibilityProven;
+    }
+
+    @Override
+    public double getPrecision() {
+        return PRECISION;
+    }
+
+    @Override
+    public void end() {
+        this.lp = null;
+    }
+
+    public long getNodeCount()    { return nodes; }
+    public long getLPIterations() { return lpIterations; }
+
+    @Override
+    public double solveWith(double q, List<Integer> used_orders, List<Integer> used_aisles,
+                            double gapTolerance, TimeBudget budget,
+                            boolean localSearch, long neighbourhoodSize) {
+        if (localSearch) {
+            gapTolerance = gapTolerance / 2;
+            PRECISION = 10;
+        }
+
+        long startTime = System.nanoTime();
+        long deadline  = budget.deadlineNanos();
+
+        this.lambda = q;
+        this.neighbourhoodSize = neighbourhoodSize;
+        this.neighbourhood = null;
+        if (localSearch) {
+            this.neighbourhood = new boolean[nAisles];
+            for (int a : used_aisles) this.neighbourhood[a] = true;
+        }
+
+        this.rowLimitReached = false;
+        this.solutionInfeasible = false;
+        this.infeasibilityProven = false;
+        this.abortedEarly = false;
+        this.incumbentX = null;
+        this.incumbentY = null;
+        this.incumbentObj = Double.NEGATIVE_INFINITY;
+
+        // El modelo se rearma en cada solve: es la parte de actualizacion
+        buildRelaxation();
+        tryIncumbent(used_orders, used_aisles);
+        for (MIPStart start : mipStarts) tryIncumbent(start.orders(), start.aisles());
+        mipStarts.clear();
+
+        this.injectedVersion = -1;
+        injectFromStore();
+
+        long solveStart = System.nanoTime();
+        boolean infeasible = branchAndBound(Math.max(0, gapTolerance), budget, deadline);
+        this.lastIterationTiming = new IterationTiming(q, solveStart - startTime, System.nanoTime() - solveStart);
+
+        double res = -1;
+        if (incumbentX != null) {
+            extractSolutionTo(used_orders, used_aisles);
+            res = incumbentObj;
+        } else {
+            solutionInfeasible = infeasible;
+        }
+
+        if (localSearch) PRECISION = 1e-4;
+
+        return res;
+    }
+
+    private void buildRelaxation() {
+        lp = new BoundedDualSimplex(nOrders + nAisles);
+
+        // Las ordenes sin items son las que ya salieron en otra ola
+        for (int o = 0; o < nOrders; o++) {
+            lp.setBounds(o, 0, instance.orderDistinct(o) > 0 ? 1 : 0);
+            lp.setCost(o, instance.orderUnits(o));
+        }
+        for (int a = 0; a < nAisles; a++) {
+            lp.setBounds(nOrders + a, 0, 1);
+            lp.setCost(nOrders + a, -lambda);
+        }
+
+        int len = 0;
+
+        // sum(u X) <= UB y -sum(u X) <= -LB
+        for (int o = 0; o < nOrders; o++) { rowIndices[len] = o; rowValues[len++] = instance.orderUnits(o); }
+        lp.addRow(rowIndices, rowValues, len, instance.waveSizeUB());
+        for (int k = 0; k < len; k++) rowValues[k] = -rowValues[k];
+        lp.addRow(rowIndices, rowValues, len, -instance.waveSizeLB());
+
+        // -sum(Y) <= -1
+        len = 0;
+        for (int a = 0; a < nAisles; a++) { rowIndices[len] = nOrders + a; rowValues[len++] = -1; }
+        lp.addRow(rowIndices, rowValues, len, -1);
+
+        // -sum(u X) + k sum(Y) <= 0
+        len = 0;
+        for (int o = 0; o < nOrders; o++) { rowIndices[len] = o; rowValues[len++] = -instance.orderUnits(o); }
+        for (int a = 0; a < nAisles; a++) { rowIndices[len] = nOrders + a; rowValues[len++] = cutValue; }
+        lp.addRow(rowIndices, rowValues, len, 0);
+
+        // Vecindario: sum_{usados} Y - sum_{resto} Y >= |usados| - N
+        if (neighbourhood != null) {
+            len = 0;
+            int used = 0;
+            for (int a = 0; a < nAisles; a++) {
+                rowIndices[len] = nOrders + a;
+                rowValues[len++] = neighbourhood[a] ? -1 : 1;
+                if (neighbourhood[a]) used++;
+            }
+            lp.addRow(rowIndices, rowValues, len, neighbourhoodSize - used);
+        }
+
+        for (int i : activeItems) addItemRow(i);
+        for (long[] link : links) addLinkRow((int) link[0], (int) link[1]);
+    }
+
+    private void activate(int item) {
+        if (activeItem[item]) return;
+        activeItem[item] = true;
+        activeItems.add(item);
+    }
+
+    private void addItemRow(int item) {
+        int len = 0;
+
+        for (int k = instance.itemOrdersStart(item); k < instance.itemOrdersEnd(item); k++) {
+            int o = instance.itemOrder(k);
+            rowIndices[len] = o;
+            rowValues[len++] = quantityOf(o, item, true);
+        }
+        for (int k = instance.itemAislesStart(item); k < instance.itemAislesEnd(item); k++) {
+            int a = instance.itemAisle(k);
+            rowIndices[len] = nOrders + a;
+            rowValues[len++] = -Math.min(quantityOf(a, item, false), itemDemand[item]);
+        }
+
+        lp.addRow(rowIndices, rowValues, len, 0);
+    }
+
+    private void addLinkRow(int order, int item) {
+        int len = 0;
+
+        rowIndices[len] = order;
+        rowValues[len++] = 1;
+        for (int k = instance.itemAislesStart(item); k < instance.itemAislesEnd(item); k++) {
+            rowIndices[len] = nOrders + instance.itemAisle(k);
+            rowValues[len++] = -1;
+        }
+
+        lp.addRow(rowIndices, rowValues, len, 0);
+    }
+
+    private int quantityOf(int row, int item, boolean isOrder) {
+        int start = isOrder ? instance.orderStart(row) : instance.aisleStart(row);
+        int end   = isOrder ? instance.orderEnd(row)   : instance.aisleEnd(row);
+
+        for (int k = start; k < end; k++) {
+            int i = isOrder ? instance.orderItem(k) : instance.aisleItem(k);
+            if (i == item) return isOrder ? instance.orderQuantity(k) : instance.aisleQuantity(k);
+        }
+        return 0;
+    }
+
+    // Agrega las filas de cobertura violadas por la relajacion actual. Devuelve cuantas agrego.
+    private int separateItemRows() {
+        Arrays.fill(itemBalance, 0);
+
+        for (int o = 0; o < nOrders; o++) {
+            double v = lp.value(o);
+            if (v <= 0) continue;
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                itemBalance[instance.orderItem(k)] += v * instance.orderQuantity(k);
+        }
+        for (int a = 0; a < nAisles; a++) {
+            double v = lp.value(nOrders + a);
+            if (v <= 0) continue;
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+                itemBalance[instance.aisleItem(k)] -= v * instance.aisleQuantity(k);
+        }
+
+        List<Integer> violated = new ArrayList<>();
+        for (int i = 0; i < itemBalance.length; i++)
+            if (!activeItem[i] && itemBalance[i] > COVERAGE_TOL) violated.add(i);
+
+        violated.sort((i, j) -> Double.compare(itemBalance[j], itemBalance[i]));
+
+        int added = 0;
+        for (int i : violated) {
+            if (added == ROWS_PER_ROUND || lp.nRows() >= MAX_ACTIVE_ROWS) break;
+            activate(i);
+            addItemRow(i);
+            added++;
+        }
+
+        if (added < violated.size() && lp.nRows() >= MAX_ACTIVE_ROWS) rowLimitReached = true;
+
+        // Los cortes de enlace solo ajustan la cota: si no entran no se marca el limite
+        if (added == 0) added = separateLinkRows();
+
+        return added;
+    }
+
+    private int separateLinkRows() {
+        int added = 0;
+
+        for (int o = 0; o < nOrders && added < ROWS_PER_ROUND; o++) {
+            double v = lp.value(o);
+            if (v <= LINK_TOL) continue;
+
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o) && added < ROWS_PER_ROUND; k++) {
+                int item = instance.orderItem(k);
+
+                double cover = 0;
+                for (int p = instance.itemAislesStart(item); p < instance.itemAislesEnd(item) && cover < v; p++)
+                    cover += lp.value(nOrders + instance.itemAisle(p));
+
+                if (v - cover <= LINK_TOL || lp.nRows() >= MAX_ACTIVE_ROWS) continue;
+                if (!activeLinks.add((long) o * instance.nItems() + item)) continue;
+
+                links.add(new long[] {o, item});
+                addLinkRow(o, item);
+                added++;
+            }
+        }
+
+        return added;
+    }
+
+    private BoundedDualSimplex.Status solveRelaxation(long deadline) {
+        while (true) {
+            long before = lp.iterations();
+            BoundedDualSimplex.Status status = lp.solve(deadline, MAX_LP_ITERATIONS);
+            lpIterations += lp.iterations() - before;
+
+            if (status != BoundedDualSimplex.Status.OPTIMAL) return status;
+            if (separateItemRows() == 0) return rowLimitReached ? BoundedDualSimplex.Status.LIMIT : status;
+        }
+    }
+
+    // Nodo del arbol: la variable que fija respecto del padre y la cota de la relajacion del padre
+    private record Node(Node parent, int var, double value, double parentBound, int depth) {
+    }
+
+    // Mejor cota primero, con buceo: despues de ramificar se sigue por la rama que abre el pasillo
+    // y la otra queda abierta. Devuelve true si se probo que no hay solucion entera.
+    private boolean branchAndBound(double gapTolerance, TimeBudget budget, long deadline) {
+        PriorityQueue<Node> open = new PriorityQueue<>((n1, n2) -> {
+            int byBound = Double.compare(n2.parentBound(), n1.parentBound());
+            return byBound != 0 ? byBound : Integer.compare(n2.depth(), n1.depth());
+        });
+        List<Integer> fixed = new ArrayList<>();
+        Node applied = null;
+        Node next = new Node(null, -1, 0, Double.POSITIVE_INFINITY, 0);
+        boolean exhausted = true;
+        boolean rootInfeasible = false;
+
+        upperBound = Double.POSITIVE_INFINITY;
+
+        while (next != null || !open.isEmpty()) {
+            Node node = next != null ? next : open.poll();
+            next = null;
+
+            if (node.parentBound() <= incumbentObj + pruneTolerance()) continue;
+
+            if (System.nanoTime() > deadline) {
+                open.add(node);
+                exhausted = false;
+                break;
+            }
+
+            applyFixings(node, applied, fixed);
+            applied = node;
+
+            BoundedDualSimplex.Status status = solveRelaxation(deadline);
+            nodes++;
+
+            injectFromStore();
+
+            if (status == BoundedDualSimplex.Status.LIMIT) {
+                // Sin relajacion confiable (tiempo o limite de filas): se redondea lo que haya y se corta
+                roundAndPack();
+                open.add(node);
+                updateUpperBound(open, null);
+                exhausted = false;
+                break;
+            }
+
+            if (status == BoundedDualSimplex.Status.INFEASIBLE) {
+                if (node.var() < 0) rootInfeasible = true;
+            } else {
+                double bound = lp.objective();
+                roundAndPack();
+
+                if (bound > incumbentObj + pruneTolerance()) {
+                    int branchVar = chooseBranchingVariable();
+
+                    if (branchVar < 0) {
+                        // Relajacion entera y con todas las coberturas satisfechas
+                        acceptIntegerSolution(bound);
+                    } else {
+                        open.add(new Node(node, branchVar, 0, bound, node.depth() + 1));
+                        next = new Node(node, branchVar, 1, bound, node.depth() + 1);
+                    }
+                }
+            }
+
+            updateUpperBound(open, next);
+
+            // Criterios de corte equivalentes a los de MIPSolver
+            if (incumbentX != null && relativeGap() <= gapTolerance) { exhausted = false; break; }
+            if (upperBound < -PRECISION) { exhausted = false; break; }
+
+            if (budget.iterationLimitReached()) {
+                if (incumbentObj > PRECISION) { exhausted = false; abortedEarly = true; break; }
+                if (!budget.extendIteration()) { exhausted = false; break; }
+            }
+        }
+
+        for (int var : fixed) lp.setBounds(var, 0, 1);
+
+        if (exhausted) upperBound = incumbentX != null ? incumbentObj : Double.NEGATIVE_INFINITY;
+
+        // Con el limite de filas no se probo nada: solo deja de buscar
+        infeasibilityProven = rootInfeasible || (exhausted && incumbentX == null);
+        return rootInfeasible || (exhausted && incumbentX == null) || (rowLimitReached && incumbentX == null);
+    }
+
+    // Deja en la relajacion las cotas del nodo. Si es hijo del ultimo nodo resuelto (buceo) alcanza
+    // con fijar una variable mas, si no se liberan todas y se recorre el camino hasta la raiz.
+    private void applyFixings(Node node, Node applied, List<Integer> fixed) {
+        if (node.var() < 0) return;
+
+        if (node.parent() != applied) {
+            for (int var : fixed) lp.setBounds(var, 0, 1);
+            fixed.clear();
+            for (Node n = node.parent(); n.var() >= 0; n = n.parent()) {
+                lp.setBounds(n.var(), n.value(), n.value());
+                fixed.add(n.var());
+            }
+        }
+
+        lp.setBounds(node.var(), node.value(), node.value());
+        fixed.add(node.var());
+    }
+
+    // Sin incumbente (incumbentObj = -inf) no hay tolerancia: -inf + inf daria NaN y se perderia el nodo
+    private double pruneTolerance() {
+        return incumbentX == null ? 0 : 1e-9 * Math.max(1, Math.abs(incumbentObj));
+    }
+
+    private double relativeGap() {
+        return Math.abs(upperBound - incumbentObj) / (1e-10 + Math.abs(incumbentObj));
+    }
+
+    private void updateUpperBound(PriorityQueue<Node> open, Node next) {
+        double bound = incumbentObj;
+        if (!open.isEmpty()) bound = Math.max(bound, open.peek().parentBound());
+        if (next != null)    bound = Math.max(bound, next.parentBound());
+        upperBound = bound;
+    }
+
+    // Pasillos primero (el mas fraccional), despues ordenes
+    private int chooseBranchingVariable() {
+        int best = -1;
+        double bestScore = INTEGRALITY_TOL;
+
+        for (int a = 0; a < nAisles; a++) {
+            double v = lp.value(nOrders + a);
+            double score = Math.min(v - Math.floor(v), Math.ceil(v) - v);
+            if (score > bestScore) { bestScore = score; best = nOrders + a; }
+        }
+        if (best >= 0) return best;
+
+        for (int o = 0; o < nOrders; o++) {
+            double v = lp.value(o);
+            double score = Math.min(v - Math.floor(v), Math.ceil(v) - v);
+            if (score > bestScore) { bestScore = score; best = o; }
+        }
+        return best;
+    }
+
+    private void acceptIntegerSolution(double objective) {
+        if (objective <= incumbentObj) return;
+
+        boolean[] xs = new boolean[nOrders];
+        boolean[] ys = new boolean[nAisles];
+        for (int o = 0; o < nOrders; o++) xs[o] = lp.value(o) > 0.5;
+        for (int a = 0; a < nAisles; a++) ys[a] = lp.value(nOrders + a) > 0.5;
+
+        if (isFeasible(xs, ys)) setIncumbent(xs, ys);
+    }
+
+    // Redondea pasillos hacia arriba y empaqueta ordenes en orden de X decreciente
+    private void roundAndPack() {
+        boolean[] ys = new boolean[nAisles];
+        int[] stock = new int[instance.nItems()];
+
+        for (int a = 0; a < nAisles; a++) {
+            int var = nOrders + a;
+            if (lp.upperBound(var) < 0.5) continue;
+            if (lp.value(var) > INTEGRALITY_TOL || lp.lowerBound(var) > 0.5) {
+                ys[a] = true;
+                for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+                    stock[instance.aisleItem(k)] += instance.aisleQuantity(k);
+            }
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int o = 0; o < nOrders; o++)
+            if (lp.upperBound(o) > 0.5 && (lp.value(o) > INTEGRALITY_TOL || lp.lowerBound(o) > 0.5)) candidates.add(o);
+
+        candidates.sort((o1, o2) -> {
+            int fixed = Boolean.compare(lp.lowerBound(o2) > 0.5, lp.lowerBound(o1) > 0.5);
+            if (fixed != 0) return fixed;
+            int byValue = Double.compare(lp.value(o2), lp.value(o1));
+            return byValue != 0 ? byValue : Integer.compare(instance.orderUnits(o2), instance.orderUnits(o1));
+        });
+
+        boolean[] xs = new boolean[nOrders];
+        int units = 0;
+
+        for (int o : candidates) {
+            if (units + instance.orderUnits(o) > instance.waveSizeUB()) {
+                if (lp.lowerBound(o) > 0.5) return;
+                continue;
+            }
+
+            boolean fits = true;
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o) && fits; k++)
+                fits = stock[instance.orderItem(k)] >= instance.orderQuantity(k);
+
+            if (!fits) {
+                if (lp.lowerBound(o) > 0.5) return;
+                continue;
+            }
+
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                stock[instance.orderItem(k)] -= instance.orderQuantity(k);
+            units += instance.orderUnits(o);
+            xs[o] = true;
+        }
+
+        // Saca pasillos que no aportan ningun item de las ordenes elegidas
+        boolean[] needed = new boolean[instance.nItems()];
+        for (int o = 0; o < nOrders; o++)
+            if (xs[o])
+                for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                    needed[instance.orderItem(k)] = true;
+
+        for (int a = 0; a < nAisles; a++) {
+            if (!ys[a] || lp.lowerBound(nOrders + a) > 0.5) continue;
+            boolean useful = false;
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a) && !useful; k++)
+                useful = needed[instance.aisleItem(k)];
+            ys[a] = useful;
+        }
+
+        if (isFeasible(xs, ys)) setIncumbent(xs, ys);
+    }
+
+    private void tryIncumbent(List<Integer> used_orders, List<Integer> used_aisles) {
+        if (used_orders.isEmpty() && used_aisles.isEmpty()) return;
+
+        boolean[] xs = new boolean[nOrders];
+        boolean[] ys = new boolean[nAisles];
+        for (int o : used_orders) xs[o] = true;
+        for (int a : used_aisles) ys[a] = true;
+
+        if (isFeasible(xs, ys)) setIncumbent(xs, ys);
+    }
+
+    // Prueba la solucion del store si cambio desde la ultima vez (equivalente al callback de MIPSolver)
+    private void injectFromStore() {
+        if (incumbentStore == null || incumbentStore.version() == injectedVersion) return;
+
+        IncumbentStore.Incumbent best = incumbentStore.get();
+        injectedVersion = best.version();
+
+        boolean[] xs = new boolean[nOrders];
+        boolean[] ys = new boolean[nAisles];
+        for (int o : best.orders()) xs[o] = true;
+        for (int a : best.aisles()) ys[a] = true;
+
+        if (isFeasible(xs, ys)) setIncumbent(xs, ys);
+    }
+
+    // Chequea todas las restricciones del modelo, incluidas las filas de cobertura no activas
+    private boolean isFeasible(boolean[] xs, boolean[] ys) {
+        long units = 0;
+        int aisles = 0, kept = 0;
+        int[] slack = new int[instance.nItems()];
+
+        for (int a = 0; a < nAisles; a++) {
+            if (!ys[a]) continue;
+            aisles++;
+            if (neighbourhood != null && neighbourhood[a]) kept++;
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+                slack[instance.aisleItem(k)] += instance.aisleQuantity(k);
+        }
+
+        for (int o = 0; o < nOrders; o++) {
+            if (!xs[o]) continue;
+            units += instance.orderUnits(o);
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                if ((slack[instance.orderItem(k)] -= instance.orderQuantity(k)) < 0) return false;
+        }
+
+        if (units < instance.waveSizeLB() || units > instance.waveSizeUB() || aisles < 1) return false;
+        if (units - cutValue * aisles < -1e-9) return false;
+
+        if (neighbourhood != null) {
+            int used = 0;
+            for (boolean inNeighbourhood : neighbourhood) if (inNeighbourhood) used++;
+            int added = aisles - kept;
+            if (kept - added < used - neighbourhoodSize) return false;
+        }
+
+        return true;
+    }
+
+    private void setIncumbent(boolean[] xs, boolean[] ys) {
+        double units = 0, aisles = 0;
+        for (int o = 0; o < nOrders; o++) if (xs[o]) units += instance.orderUnits(o);
+        for (int a = 0; a < nAisles; a++) if (ys[a]) aisles++;
+
+        double objective = units - lambda * aisles;
+        if (objective <= incumbentObj) return;
+
+        incumbentObj = objective;
+        incumbentX = xs;
+        incumbentY = ys;
+
+        if (incumbentStore != null) publishIncumbent();
+    }
+
+    private void publishIncumbent() {
+        int[] orders = IntStream.range(0, nOrders).filter(o -> incumbentX[o]).toArray();
+        int[] aisles = IntStream.range(0, nAisles).filter(a -> incumbentY[a]).toArray();
+
+        if (incumbentStore.offer(orders, aisles, "java-mip")) injectedVersion = incumbentStore.version();
+    }
+
+    // Igual que MIPSolver.extractSolutionFrom: solo reemplaza si mejora el cociente
+    private void extractSolutionTo(List<Integer> used_orders, List<Integer> used_aisles) {
+        double units = 0, aisles = 0;
+        for (int o = 0; o < nOrders; o++) if (incumbentX[o]) units += instance.orderUnits(o);
+        for (int a = 0; a < nAisles; a++) if (incumbentY[a]) aisles++;
+
+        double ratio = units / aisles;
+        if (ratio <= currentBest) return;
+
+        currentBest = ratio;
+        used_orders.clear();
+        used_aisles.clear();
+        for (int o = 0; o < nOrders; o++) if (incumbentX[o]) used_orders.add(o);
+        for (int a = 0; a < nAisles; a++) if (incumbentY[a]) used_aisles.add(a);
+    }
+}
@@ -0,0 +1,102 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Escribe los eventos de SolverListener como JSON lines (un objeto por linea) en un archivo, para
+ * analizarlos despues en lugar de armar CSVs a mano. Cada linea lleva la instancia, el tipo de evento
+ * y el momento en ms desde que se abrio el archivo; los tiempos de fases e iteraciones van en ms.
+ *
+ *   {"instance":"instance_0001.txt","event":"phase","t_ms":12.3,"phase":"parse","ms":8.1}
+ *   {"instance":"instance_0001.txt","event":"model","t_ms":40.7,"kind":"coverage","ms":3.2,"non_zeros":5120,...}
+ *   {"instance":"instance_0001.txt","event":"iteration","t_ms":950.2,"it":0,"lambda":12.5,...}
+ *
+ * Un mismo archivo se comparte entre instancias (modo batch): la escritura esta sincronizada y se
+ * hace flush por linea, asi un solve cortado no pierde lo anterior.
+ */
+public final class JsonLinesTelemetry implements Closeable {
+
+    private final BufferedWriter writer;
+    private final long openedAt = System.nanoTime();
+
+    public JsonLinesTelemetry(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    public SolverListener forInstance(String instance) {
+        String prefix = "{\"instance\":\"" + escape(instance) + "\"";
+
+        return new SolverListener() {
+            @Override
+            public void onPhase(String phase, long nanos) {
+                write(prefix, "phase", String.format(Locale.ROOT, "\"phase\":\"%s\",\"ms\":%.3f", escape(phase), nanos / 1e6));
+            }
+
+            @Override
+            public void onModel(String kind, long nanos, Map<String, Long> counts) {
+                StringBuilder fields = new StringBuilder(String.format(Locale.ROOT, "\"kind\":\"%s\",\"ms\":%.3f", escape(kind), nanos / 1e6));
+                new TreeMap<>(counts).forEach((name, value) -> fields.append(",\"").append(escape(name)).append("\":").append(value));
+                write(prefix, "model", fields.toString());
+            }
+
+            @Override
+            public void onIteration(IterationEvent e) {
+                write(prefix, "iteration", String.format(Locale.ROOT,
+                        "\"it\":%d,\"lambda\":%s,\"objective\":%s,\"upper_bound\":%s,\"gap_tolerance\":%s,"
+                        + "\"local_search\":%b,\"neighbourhood\":%d,\"iteration_limit_ms\":%.3f,\"predicted_steps\":%d,\"aborted\":%b,"
+                        + "\"wall_ms\":%.3f,\"model_update_ms\":%.3f,\"solve_ms\":%.3f,\"best_ratio\":%s",
+                        e.iteration(), number(e.lambda()), number(e.objective()), number(e.upperBound()), number(e.gapTolerance()),
+                        e.localSearch(), e.neighbourhoodSize(), e.iterationLimitNanos() / 1e6, e.predictedSteps(), e.abortedEarly(),
+                        e.wallNanos() / 1e6, e.modelUpdateNanos() / 1e6, e.solveNanos() / 1e6, number(e.bestRatio())));
+            }
+
+            @Override
+            public void onBound(BoundEvent e) {
+                write(prefix, "bound", String.format(Locale.ROOT,
+                        "\"bound\":%s,\"source\":\"%s\",\"lagrangian_bound\":%s,\"lagrangian_iterations\":%d,\"best_ratio\":%s,\"gap_stop\":%b",
+                        number(e.bound()), escape(e.source()), number(e.lagrangianBound()), e.lagrangianIterations(),
+                        number(e.bestRatio()), e.gapStop()));
+            }
+
+            @Override
+            public void onFinish(int iterations, double bestRatio) {
+                write(prefix, "finish", String.format(Locale.ROOT, "\"iterations\":%d,\"best_ratio\":%s", iterations, number(bestRatio)));
+            }
+        };
+    }
+
+    private synchronized void write(String prefix, String event, String fields) {
+        try {
+            writer.write(prefix);
+            writer.write(String.format(Locale.ROOT, ",\"event\":\"%s\",\"t_ms\":%.3f,", event, (System.nanoTime() - openedAt) / 1e6));
+            writer.write(fields);
+            writer.write('}');
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing telemetry: " + e.getMessage());
+        }
+    }
+
+    // JSON no admite NaN ni infinitos
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.6f", value) : "null";
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
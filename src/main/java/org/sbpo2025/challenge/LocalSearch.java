@@ -0,0 +1,327 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * Busqueda local sobre una solucion (ordenes, pasillos), sin CPLEX.
+ *
+ * Movimientos, evaluados con deltas de unidades y pasillos:
+ *   - agregar un pasillo y empaquetar las ordenes que ahora entran (hasta UB),
+ *   - sacar un pasillo, sacar las ordenes que se quedan sin stock (las mas chicas primero) y
+ *     volver a empaquetar con el stock liberado,
+ *   - intercambiar un pasillo abierto por uno cerrado (sacar + agregar).
+ *
+ * Se acepta el primer movimiento que mejora el cociente. Cada cambio se anota en un log para poder
+ * deshacer los movimientos que no mejoran sin recalcular nada. No es thread-safe: la usa un solo
+ * LocalSearchWorker (salvo cancel).
+ */
+public class LocalSearch {
+
+    private static final double EPS = 1e-9;
+
+    private static final int OPEN_AISLE  = 0;
+    private static final int CLOSE_AISLE = 1;
+    private static final int TAKE_ORDER  = 2;
+    private static final int DROP_ORDER  = 3;
+
+    private final Instance instance;
+    private final int nOrders;
+    private final int nAisles;
+
+    // Solucion actual: la holgura de cada item es el stock abierto menos lo que usan las ordenes elegidas
+    private final SolutionValidator solution;
+
+    // Log de cambios para deshacer
+    private int[] logOp = new int[64];
+    private int[] logIndex = new int[64];
+    private int logSize;
+
+    // Buffers
+    private final int[] stamp;
+    private int currentStamp;
+    private final List<Integer> candidates = new ArrayList<>();
+    private final List<Integer> touchedItems = new ArrayList<>();
+
+    private long moves;
+    private volatile boolean cancelled;
+
+    public LocalSearch(Instance instance) {
+        this.instance = instance;
+        this.nOrders  = instance.nOrders();
+        this.nAisles  = instance.nAisles();
+
+        this.solution = new SolutionValidator(instance);
+        this.stamp    = new int[nOrders];
+    }
+
+    // Carga una solucion. Devuelve false si no es factible (y no se puede mejorar desde ahi).
+    public boolean load(List<Integer> orders, List<Integer> aisles) {
+        return load(orders.stream().mapToInt(Integer::intValue).toArray(),
+                    aisles.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public boolean load(int[] orders, int[] aisles) {
+        solution.clear();
+
+        for (int a : aisles) openAisle(a);
+        for (int o : orders) takeOrder(o);
+        logSize = 0;
+
+        return solution.isFeasible();
+    }
+
+    public boolean isFeasible() {
+        return solution.isFeasible();
+    }
+
+    public double ratio() {
+        return solution.objective();
+    }
+
+    // Corta el descenso en curso lo antes posible (se puede llamar desde otro thread)
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private boolean timeUp(long deadlineNanos) {
+        return cancelled || System.nanoTime() > deadlineNanos;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public int[] chosenOrders() {
+        int[] orders = new int[nOrders];
+        int n = 0;
+        for (int o = 0; o < nOrders; o++) if (solution.isOrderChosen(o)) orders[n++] = o;
+        return Arrays.copyOf(orders, n);
+    }
+
+    public int[] openAisles() {
+        int[] aisles = new int[solution.nAisles()];
+        int n = 0;
+        for (int a = 0; a < nAisles; a++) if (solution.isAisleOpen(a)) aisles[n++] = a;
+        return aisles;
+    }
+
+    // Descenso hasta optimo local (o hasta el deadline). Devuelve true si mejoro algo.
+    public boolean descend(long deadlineNanos) {
+        boolean improvedAny = false;
+
+        while (!timeUp(deadlineNanos)) {
+            boolean improved = tryAdd(deadlineNanos) || tryDrop(deadlineNanos) || trySwap(deadlineNanos);
+            if (!improved) break;
+            improvedAny = true;
+        }
+
+        return improvedAny;
+    }
+
+    // Patea la solucion: cambia k pasillos abiertos al azar por cerrados al azar
+    public void perturb(SplittableRandom random, int k) {
+        for (int s = 0; s < k && solution.nAisles() > 0 && solution.nAisles() < nAisles; s++) {
+            int a = randomAisle(random, true);
+            int b = randomAisle(random, false);
+
+            dropAisle(a);
+            addAisle(b);
+
+            // Si quedo por debajo de LB se completa con otro pasillo
+            if (solution.units() < instance.waveSizeLB()) addAisle(randomAisle(random, false));
+        }
+        logSize = 0;
+    }
+
+    private int randomAisle(SplittableRandom random, boolean open) {
+        int count = open ? solution.nAisles() : nAisles - solution.nAisles();
+        int target = random.nextInt(count);
+        for (int a = 0; a < nAisles; a++)
+            if (solution.isAisleOpen(a) == open && target-- == 0) return a;
+        return -1;
+    }
+
+    private boolean tryAdd(long deadlineNanos) {
+        double current = ratio();
+
+        for (int b = 0; b < nAisles; b++) {
+            if (solution.isAisleOpen(b)) continue;
+            if ((b & 63) == 0 && timeUp(deadlineNanos)) return false;
+
+            int mark = logSize;
+            addAisle(b);
+            if (accept(current)) return true;
+            undo(mark);
+        }
+        return false;
+    }
+
+    private boolean tryDrop(long deadlineNanos) {
+        if (solution.nAisles() <= 1) return false;
+        double current = ratio();
+
+        for (int a = 0; a < nAisles; a++) {
+            if (!solution.isAisleOpen(a)) continue;
+            if ((a & 63) == 0 && timeUp(deadlineNanos)) return false;
+
+            int mark = logSize;
+            dropAisle(a);
+            if (accept(current)) return true;
+            undo(mark);
+        }
+        return false;
+    }
+
+    private boolean trySwap(long deadlineNanos) {
+        double current = ratio();
+
+        for (int a = 0; a < nAisles; a++) {
+            if (!solution.isAisleOpen(a)) continue;
+
+            int mark = logSize;
+            dropAisle(a);
+            int afterDrop = logSize;
+
+            for (int b = 0; b < nAisles; b++) {
+                if (solution.isAisleOpen(b) || b == a) continue;
+                if ((b & 63) == 0 && timeUp(deadlineNanos)) {
+                    undo(mark);
+                    return false;
+                }
+
+                addAisle(b);
+                if (accept(current)) return true;
+                undo(afterDrop);
+            }
+
+            undo(mark);
+        }
+        return false;
+    }
+
+    private boolean accept(double previousRatio) {
+        if (solution.units() < instance.waveSizeLB() || solution.nAisles() == 0) return false;
+        if (ratio() <= previousRatio + EPS) return false;
+
+        logSize = 0;
+        moves++;
+        return true;
+    }
+
+    // Abre el pasillo y empaqueta las ordenes que usan alguno de sus items
+    private void addAisle(int b) {
+        openAisle(b);
+
+        touchedItems.clear();
+        for (int k = instance.aisleStart(b); k < instance.aisleEnd(b); k++)
+            touchedItems.add(instance.aisleItem(k));
+
+        pack(touchedItems);
+    }
+
+    // Cierra el pasillo, saca ordenes hasta que no falte stock y reempaqueta con lo liberado
+    private void dropAisle(int a) {
+        closeAisle(a);
+
+        touchedItems.clear();
+        for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++) {
+            int item = instance.aisleItem(k);
+
+            while (solution.slack(item) < 0) {
+                int victim = smallestChosenOrderWith(item);
+                dropOrder(victim);
+                for (int p = instance.orderStart(victim); p < instance.orderEnd(victim); p++)
+                    touchedItems.add(instance.orderItem(p));
+            }
+        }
+
+        if (!touchedItems.isEmpty()) pack(touchedItems);
+    }
+
+    private int smallestChosenOrderWith(int item) {
+        int best = -1;
+        for (int k = instance.itemOrdersStart(item); k < instance.itemOrdersEnd(item); k++) {
+            int o = instance.itemOrder(k);
+            if (solution.isOrderChosen(o) && (best < 0 || instance.orderUnits(o) < instance.orderUnits(best))) best = o;
+        }
+        return best;
+    }
+
+    // Toma, de mayor a menor cantidad de unidades, las ordenes no elegidas con algun item tocado que entran
+    private void pack(List<Integer> items) {
+        currentStamp++;
+        candidates.clear();
+
+        for (int item : items) {
+            if (solution.slack(item) <= 0) continue;
+            for (int k = instance.itemOrdersStart(item); k < instance.itemOrdersEnd(item); k++) {
+                int o = instance.itemOrder(k);
+                if (solution.isOrderChosen(o) || stamp[o] == currentStamp) continue;
+                stamp[o] = currentStamp;
+                candidates.add(o);
+            }
+        }
+
+        candidates.sort((o1, o2) -> {
+            int byUnits = Integer.compare(instance.orderUnits(o2), instance.orderUnits(o1));
+            return byUnits != 0 ? byUnits : Integer.compare(o1, o2);
+        });
+
+        for (int o : candidates)
+            if (solution.units() + instance.orderUnits(o) <= instance.waveSizeUB() && solution.fits(o))
+                takeOrder(o);
+    }
+
+    // Cambios elementales, todos anotados en el log
+
+    private void openAisle(int a) {
+        solution.addAisle(a);
+        log(OPEN_AISLE, a);
+    }
+
+    private void closeAisle(int a) {
+        solution.removeAisle(a);
+        log(CLOSE_AISLE, a);
+    }
+
+    private void takeOrder(int o) {
+        solution.addOrder(o);
+        log(TAKE_ORDER, o);
+    }
+
+    private void dropOrder(int o) {
+        solution.removeOrder(o);
+        log(DROP_ORDER, o);
+    }
+
+    private void log(int op, int index) {
+        if (logSize == logOp.length) {
+            logOp = Arrays.copyOf(logOp, logSize * 2);
+            logIndex = Arrays.copyOf(logIndex, logSize * 2);
+        }
+        logOp[logSize] = op;
+        logIndex[logSize++] = index;
+    }
+
+    // Deshace los cambios hasta dejar el log en mark
+    private void undo(int mark) {
+        while (logSize > mark) {
+            int size = --logSize;
+            int index = logIndex[size];
+
+            switch (logOp[size]) {
+                case OPEN_AISLE  -> closeAisle(index);
+                case CLOSE_AISLE -> openAisle(index);
+                case TAKE_ORDER  -> dropOrder(index);
+                case DROP_ORDER  -> takeOrder(index);
+                default -> throw new IllegalStateException();
+            }
+
+            // La operacion inversa tambien se anoto: se descarta
+            logSize = size;
+        }
+    }
+}
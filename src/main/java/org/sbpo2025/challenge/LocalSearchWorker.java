@@ -0,0 +1,83 @@
+package org.sbpo2025.challenge;
+
+import java.util.SplittableRandom;
+
+/*
+ * Corre LocalSearch en un thread aparte mientras el subproblema trabaja.
+ *
+ * Toma siempre como punto de partida la mejor solucion del IncumbentStore (la de cualquier
+ * productor) y publica ahi lo que mejora. Cuando ya bajo desde la mejor solucion sin mejorarla, la
+ * patea y vuelve a bajar (busqueda local iterada).
+ */
+public class LocalSearchWorker implements Runnable {
+
+    private static final int KICK_SIZE = 2;
+
+    private final LocalSearch localSearch;
+    private final IncumbentStore incumbentStore;
+    private final long deadlineNanos;
+    private final SplittableRandom random = new SplittableRandom(0);
+
+    private Thread thread;
+    private volatile boolean running;
+
+    public LocalSearchWorker(Instance instance, IncumbentStore incumbentStore, long deadlineNanos) {
+        this.localSearch = new LocalSearch(instance);
+        this.incumbentStore = incumbentStore;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this, "local-search");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        localSearch.cancel();
+        if (thread == null) return;
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getMoves() {
+        return localSearch.getMoves();
+    }
+
+    @Override
+    public void run() {
+        long lastStart = -1;
+
+        while (running && System.nanoTime() < deadlineNanos) {
+            IncumbentStore.Incumbent best = incumbentStore.get();
+
+            if (!localSearch.load(best.orders(), best.aisles())) {
+                sleepBriefly();
+                continue;
+            }
+
+            // Ya se bajo desde esta solucion: se patea
+            if (best.version() == lastStart) localSearch.perturb(random, KICK_SIZE);
+            lastStart = best.version();
+
+            localSearch.descend(deadlineNanos);
+
+            if (localSearch.isFeasible() && localSearch.ratio() > best.ratio())
+                incumbentStore.offer(localSearch.chosenOrders(), localSearch.openAisles(), "local-search");
+        }
+    }
+
+    private void sleepBriefly() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+}
@@ -1,48 +1,97 @@
 package org.sbpo2025.challenge;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
+import ilog.concert.IloConversion;
 import ilog.concert.IloException;
 import ilog.concert.IloIntVar;
+import ilog.concert.IloLPMatrix;
 import ilog.concert.IloLinearIntExpr;
 import ilog.concert.IloLinearNumExpr;
+import ilog.concert.IloNumVarType;
 import ilog.concert.IloObjective;
 import ilog.concert.IloRange;
 import ilog.cplex.IloCplex;
 
-public abstract class MIPSolver extends CPLEXSolver {
+public class MIPSolver extends CPLEXSolver implements SubproblemSolver {
+
+    // Generacion de columnas: tamaño del conjunto inicial de pasillos y columnas por ronda de pricing
+    private static final int    CG_MIN_AISLES        = 10;
+    private static final double CG_INITIAL_FRACTION  = 0.05;
+    private static final int    CG_COLUMNS_PER_ROUND = 10;
+    private static final int    CG_MAX_ROUNDS        = 20;
 
     // CPLEX
     private IloObjective objective;
-    protected final IloIntVar[] X; // La orden o está completa
+    protected IloIntVar[] X; // La orden o está completa
     protected final IloIntVar[] Y; // El pasillo a fue recorrido
     protected IloRange aisleConstraintRange; // Rango de la pasillos
 
-    protected final int[] orderItemSum;
-
     private IloRange cutConstraint;
+    private IloRange lbConstraint;
+    private IloRange ubConstraint;
+
+    // Filas de cobertura (una por item pedido) y el item de cada fila. Las columnas de Y van despues
+    // de las X del modelo original; las ordenes que se agregan despues (updateInstance) quedan al final
+    protected IloLPMatrix coverage;
+    protected int[] coverageItems;
+    protected int aisleColumn;
 
     protected double currentBest;
 
-    private long itStartingTime;
-    private TimeListener itTimeListener;
+    private TimeBudget itBudget;
 
-    public MIPSolver(List<Map<Integer, Integer>> orders, List<Map<Integer, Integer>> aisles, int nItems, int waveSizeLB, int waveSizeUB) {
-        super(orders, aisles, nItems, waveSizeLB, waveSizeUB);
+    // Coeficientes de Y en el objetivo y el corte, se actualizan todos juntos con setLinearCoefs
+    private final double[] aisleCoefs;
 
-        this.currentBest = 0;
+    // Pasillos con Y_a habilitado (UB 1) en modo generacion de columnas; null si estan todos
+    private boolean[] aisleEnabled;
+    private int enabledAisles;
 
-        X = new IloIntVar[this.orders.size()];
-        Y = new IloIntVar[this.aisles.size()];
+    // Con el maestro restringido los MIP starts de afuera se cargan en el proximo solve, despues del
+    // pricing: la conversion a LP puede descartar los que ya estan cargados
+    private final List<MIPStart> pendingStarts = new ArrayList<>();
 
-        this.orderItemSum = new int[orders.size()];
-        
-        for(int o = 0; o < this.orders.size(); o++)
-            this.orderItemSum[o] = this.orders.get(o).values().stream().mapToInt(Integer::intValue).sum();
+    private record MIPStart(List<Integer> orders, List<Integer> aisles) {
+    }
+
+    private long modelUpdateNanos;
+    private IterationTiming lastIterationTiming = new IterationTiming(0, 0, 0);
+
+    // Incumbentes compartidos con la busqueda local (los callbacks corren en los threads de CPLEX)
+    private IncumbentStore incumbentStore;
+    private boolean infeasibilityProven;
+    private SolverListener listener = SolverListener.NONE;
+    private final AtomicLong injectedVersion = new AtomicLong();
+    private IloIntVar[] allVars;
+    private volatile double currentLambda;
+
+    // Para comparar los dos tipos de callbacks: nodos de todos los solves y, por solve, cuando aparece
+    // el primer incumbente de CPLEX
+    private long nodes;
+    private volatile long solveStartNanos;
+    private final AtomicLong firstIncumbentNanos = new AtomicLong(-1);
+    private long incumbentNanos;
+    private int solvesWithIncumbent;
+
+    public MIPSolver(Instance instance) {
+        this(instance, SolverConfig.defaults());
+    }
+
+    public MIPSolver(Instance instance, SolverConfig config) {
+        super(instance, config);
+
+        this.currentBest = 0;
 
+        X = new IloIntVar[instance.nOrders()];
+        Y = new IloIntVar[instance.nAisles()];
+
+        aisleCoefs = new double[instance.nAisles()];
     }
 
 
@@ -51,27 +100,107 @@ public abstract class MIPSolver extends CPLEXSolver {
         void run(IloCplex cplex, IloIntVar[] X, IloIntVar[] Y) throws IloException;
     }
 
+    @Override
     public void startFromGreedySolution(double greedySolutionValue) {
         this.currentBest = greedySolutionValue;
     }
 
+    @Override
+    public double getCurrentBest() {
+        return this.currentBest;
+    }
+
+    @Override
+    public void generateModel(List<Integer> used_orders, List<Integer> used_aisles) {
+        generateMIP(used_orders, used_aisles, null);
+    }
+
+    @Override
+    public double solveWith(double q, List<Integer> used_orders, List<Integer> used_aisles,
+                            double gapTolerance, TimeBudget budget,
+                            boolean localSearch, long neighbourhoodSize) {
+        return solveMIPWith(q, used_orders, used_aisles, gapTolerance, budget, localSearch, neighbourhoodSize);
+    }
+
+    @Override
+    public void addMIPStart(List<Integer> orders, List<Integer> aisles, double ratio) {
+        if (ratio > this.currentBest) this.currentBest = ratio;
+
+        if (this.aisleEnabled != null) {
+            this.pendingStarts.add(new MIPStart(new ArrayList<>(orders), new ArrayList<>(aisles)));
+            return;
+        }
+
+        try {
+            usePreviousSolution(orders, aisles);
+        } catch (IloException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setIncumbentStore(IncumbentStore incumbentStore) {
+        this.incumbentStore = incumbentStore;
+    }
+
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean wasAbortedEarly() {
+        return this.abortedEarly;
+    }
+
+    @Override
+    public IterationTiming getLastIterationTiming() {
+        return lastIterationTiming;
+    }
+
+    @Override
+    public double getUpperBound() {
+        return getCplexUpperBound();
+    }
+
+    @Override
+    public boolean isSolutionInfeasible() {
+        return this.solutionInfeasible;
+    }
+
+    @Override
+    public boolean isInfeasibilityProven() {
+        return this.infeasibilityProven;
+    }
+
+    @Override
+    public double getPrecision() {
+        return PRECISION;
+    }
+
+    @Override
+    public void end() {
+        endCplex();
+    }
+
     protected double getCplexUpperBound() {
         try {
             return this.cplex.getBestObjValue();
         } catch (IloException e) {
             System.out.println(e.getMessage());
         }
-        return 0;
+        // Sin cota de CPLEX no se puede acotar nada (RatioBound la usa como cota)
+        return Double.POSITIVE_INFINITY;
     }
 
     protected double solveMIPWith(double q, List<Integer> used_orders, List<Integer> used_aisles, 
-                        double gapTolerance, TimeListener timeListener, long remainingTime) {
-        return solveMIPWith(q, used_orders, used_aisles, gapTolerance, timeListener, remainingTime, false, -1);
+                        double gapTolerance, TimeBudget budget) {
+        return solveMIPWith(q, used_orders, used_aisles, gapTolerance, budget, false, -1);
     }
 
     // Resovlemos acutalizando la función objetivo
     protected double solveMIPWith(double q, List<Integer> used_orders, List<Integer> used_aisles, 
-                        double gapTolerance, TimeListener timeListener, long remainingTime,
+                        double gapTolerance, TimeBudget budget,
                         boolean localSearch, long neighbourhoodSize) {
         
         IloRange neigbourhoodConstraint = null;
@@ -84,23 +213,57 @@ public abstract class MIPSolver extends CPLEXSolver {
             }
 
             this.cplex.setParam(IloCplex.Param.MIP.Tolerances.MIPGap, Math.max(0, gapTolerance));
-            this.cplex.setParam(IloCplex.Param.TimeLimit, Math.max(0, remainingTime));
+            this.cplex.setParam(IloCplex.Param.TimeLimit, budget.remainingNanos() / 1e9);
+
+            this.itBudget = budget;
+            this.currentLambda = q;
+            this.injectedVersion.set(0);
+            this.abortedEarly = false;
 
-            this.itTimeListener = timeListener;
-            this.itStartingTime = System.nanoTime();
+            long updateStart = System.nanoTime();
 
             setObjectiveFunction(q);
 
+            // Los MIP starts y la mejor solucion del store tienen que poder entrar en el maestro restringido.
+            // El pricing va antes de cargar los starts; con vecindario el solve es heuristico y alcanza con
+            // los pasillos que ya estan
+            if (this.aisleEnabled != null) {
+                enableAisles(used_aisles);
+                for (MIPStart start : this.pendingStarts) enableAisles(start.aisles());
+                if (this.incumbentStore != null) enableAisles(Arrays.stream(this.incumbentStore.get().aisles()).boxed().toList());
+                if (!localSearch && this.aisleEnabled != null) priceAisles(budget);
+            }
+
+            for (MIPStart start : this.pendingStarts) usePreviousSolution(start.orders(), start.aisles());
+            this.pendingStarts.clear();
             usePreviousSolution(used_orders, used_aisles);
 
             if (localSearch)
                 neigbourhoodConstraint = addConstraintOfChangingFewAisles(used_aisles, neighbourhoodSize);
 
-            if (this.cplex.solve())  {
+            long solveStart = System.nanoTime();
+            this.modelUpdateNanos += solveStart - updateStart;
+            this.solveStartNanos = solveStart;
+            this.firstIncumbentNanos.set(-1);
+
+            this.solutionInfeasible = false;
+            this.infeasibilityProven = false;
+            boolean solved = this.cplex.solve();
+            this.lastIterationTiming = new IterationTiming(q, this.modelUpdateNanos, System.nanoTime() - solveStart);
+            this.modelUpdateNanos = 0;
+
+            this.nodes += this.cplex.getNnodes64();
+            if (this.firstIncumbentNanos.get() >= 0) {
+                this.incumbentNanos += this.firstIncumbentNanos.get();
+                this.solvesWithIncumbent++;
+            }
+
+            if (solved)  {
                 extractSolutionFrom(used_orders, used_aisles);
                 res = this.cplex.getObjValue();
             } else {
                 solutionInfeasible = cplex.getStatus() == IloCplex.Status.Infeasible;
+                this.infeasibilityProven = solutionInfeasible;
             }
         } catch (IloException e) {
             System.out.println(e.getMessage());
@@ -118,6 +281,117 @@ public abstract class MIPSolver extends CPLEXSolver {
         return res;
     }
 
+    /*
+     * Price-and-branch: el maestro restringido tiene Y_a con UB 0 para los pasillos que no estan en el
+     * conjunto. Arranca con los de la solucion golosa y los que mas demanda cubren.
+     */
+    private void restrictAisles(List<Integer> used_aisles) throws IloException {
+        long start = System.nanoTime();
+        int nAisles = this.instance.nAisles();
+        int size = Math.max(CG_MIN_AISLES, (int) Math.ceil(nAisles * CG_INITIAL_FRACTION));
+        if (size + used_aisles.size() >= nAisles) return;
+
+        long[] demand = new long[nItems];
+        for (int k = 0; k < this.instance.orderNonZeros(); k++) demand[this.instance.orderItem(k)] += this.instance.orderQuantity(k);
+
+        long[] covered = new long[nAisles];
+        for (int a = 0; a < nAisles; a++)
+            for (int k = this.instance.aisleStart(a); k < this.instance.aisleEnd(a); k++)
+                covered[a] += Math.min(this.instance.aisleQuantity(k), demand[this.instance.aisleItem(k)]);
+
+        Integer[] byCoverage = new Integer[nAisles];
+        for (int a = 0; a < nAisles; a++) byCoverage[a] = a;
+        Arrays.sort(byCoverage, (p, r) -> Long.compare(covered[r], covered[p]));
+
+        this.aisleEnabled = new boolean[nAisles];
+        this.enabledAisles = 0;
+        for (int a : used_aisles) markEnabled(a);
+        for (int j = 0; j < size; j++) markEnabled(byCoverage[j]);
+
+        for (int a = 0; a < nAisles; a++)
+            if (!this.aisleEnabled[a]) this.Y[a].setUB(0);
+
+        this.listener.onModel("restrict", System.nanoTime() - start,
+                Map.of("enabled_aisles", (long) this.enabledAisles, "aisles", (long) nAisles));
+    }
+
+    private boolean markEnabled(int a) {
+        if (this.aisleEnabled[a]) return false;
+        this.aisleEnabled[a] = true;
+        this.enabledAisles++;
+        return true;
+    }
+
+    private void enableAisles(List<Integer> aisles) throws IloException {
+        if (this.aisleEnabled == null) return;
+
+        for (int a : aisles)
+            if (markEnabled(a)) this.Y[a].setUB(1);
+
+        if (this.enabledAisles == this.instance.nAisles()) this.aisleEnabled = null;
+    }
+
+    /*
+     * Pricing sobre la relajacion lineal del maestro restringido. El costo reducido de un pasillo fuera
+     * del maestro es d_a = -lambda - y^T A_a, con y los duales de las filas donde aparece Y_a: cobertura
+     * (-s_ai), corte (-lambda) y al menos un pasillo (1). Se agregan los de mayor d_a > 0, hasta que no
+     * quede ninguno o CG_MAX_ROUNDS rondas.
+     *
+     * Con B el valor de la ultima relajacion, toda solucion cumple F <= B + sum_{a fuera} d_a Y_a. Con
+     * B' = B + sum max(0, d_a), un pasillo con d_a <= -B' - PRECISION no esta en ninguna solucion con
+     * F > -PRECISION (fijacion por costo reducido), asi que se habilitan todos los demas y el MIP
+     * restringido decide lo mismo que el completo: su cota e infactibilidad siguen valiendo para
+     * Dinkelbach y RatioBound. Si la relajacion no se resuelve se habilitan todos.
+     */
+    private void priceAisles(TimeBudget budget) throws IloException {
+        long start = System.nanoTime();
+        int nAisles = this.instance.nAisles();
+        int startEnabled = this.enabledAisles;
+        int rounds = 0;
+
+        IloConversion relaxation = this.cplex.conversion(allVariables(), IloNumVarType.Float);
+        this.cplex.add(relaxation);
+
+        try {
+            while (this.aisleEnabled != null) {
+                rounds++;
+                if (!this.cplex.solve()) {
+                    enableAisles(IntStream.range(0, nAisles).boxed().toList());
+                    break;
+                }
+
+                double bound = this.cplex.getObjValue();
+                double[] reduced = this.cplex.getReducedCosts(this.Y);
+
+                List<Integer> priced = new ArrayList<>();
+                double positive = 0;
+                for (int a = 0; a < nAisles; a++) {
+                    if (this.aisleEnabled[a] || reduced[a] <= PRECISION) continue;
+                    priced.add(a);
+                    positive += reduced[a];
+                }
+
+                if (priced.isEmpty() || rounds >= CG_MAX_ROUNDS || budget.expired()) {
+                    double limit = -(bound + positive) - PRECISION;
+                    List<Integer> kept = new ArrayList<>();
+                    for (int a = 0; a < nAisles; a++)
+                        if (!this.aisleEnabled[a] && reduced[a] > limit) kept.add(a);
+                    enableAisles(kept);
+                    break;
+                }
+
+                priced.sort((p, r) -> Double.compare(reduced[r], reduced[p]));
+                enableAisles(priced.subList(0, Math.min(CG_COLUMNS_PER_ROUND, priced.size())));
+            }
+        } finally {
+            this.cplex.remove(relaxation);
+        }
+
+        this.listener.onModel("pricing", System.nanoTime() - start, Map.of("rounds", (long) rounds,
+                "enabled_before", (long) startEnabled, "enabled_after", (long) (this.aisleEnabled == null ? nAisles : this.enabledAisles),
+                "aisles", (long) nAisles));
+    }
+
     // Generamos el modelo una única vez por instancia
     protected void generateMIP(List<Integer> used_orders, List<Integer> used_aisles, RunnableCode extraCode) {
         try {
@@ -139,32 +413,192 @@ public abstract class MIPSolver extends CPLEXSolver {
             // Agrega restricciones de corte
             setConstraint(this.currentBest);
 
+            // La funcion objetivo se crea una sola vez, en cada iteracion solo cambian los coeficientes de Y
+            setObjectiveFunction(this.currentBest);
+
             if (extraCode != null) extraCode.run(this.cplex, this.X, this.Y);            
+
+            if (this.config.columnGeneration()) restrictAisles(used_aisles);
             
             // Inicializamos con el valor anterior
             usePreviousSolution(used_orders, used_aisles);
 
-            this.cplex.use(new IloCplex.MIPInfoCallback() {
-                public void main() throws IloException {
-                    long currTime = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - itStartingTime);
-                    if (itTimeListener.isLessOrEqualThan(currTime)) {   
-                        if (getIncumbentObjValue() > PRECISION) abort();
-                        itTimeListener.doubleTimeLimit();         
-                    }
-                }
-            });
-        
+            if (this.config.legacyCallbacks()) useLegacyCallbacks();
+            else useGenericCallback();
+
         } catch (IloException e) {
             System.out.println(e.getMessage());
         }
         
     }
+    /*
+     * Un solo callback generico para todo lo que antes hacian los callbacks viejos, que obligan a CPLEX a
+     * dejar la busqueda dinamica por branch and cut tradicional y serializan parte del trabajo:
+     *
+     *   GlobalProgress  corte por cota global < -PRECISION ("Frenó por eps") y limite de la iteracion
+     *   LocalProgress   limite de la iteracion, desde cada thread (extendIteration es thread-safe)
+     *   Candidate       publica en el store cada solucion entera nueva (no hay restricciones perezosas,
+     *                   asi que todo candidato es factible)
+     *   Relaxation      inyecta la mejor solucion del store si mejora F(lambda) del incumbente de CPLEX
+     *
+     * Cada contexto corta con context.abort(), que CPLEX atiende desde cualquier thread.
+     */
+    private void useGenericCallback() throws IloException {
+        long contexts = IloCplex.Callback.Context.Id.GlobalProgress | IloCplex.Callback.Context.Id.LocalProgress
+                      | IloCplex.Callback.Context.Id.Candidate;
+        if (this.incumbentStore != null) {
+            contexts |= IloCplex.Callback.Context.Id.Relaxation;
+            this.allVars = allVariables();
+        }
+
+        this.cplex.use(this::invokeCallback, contexts);
+    }
+
+    private void invokeCallback(IloCplex.Callback.Context context) throws IloException {
+        if (context.inCandidate()) {
+            if (!context.isCandidatePoint()) return;
+            firstIncumbentNanos.compareAndSet(-1, System.nanoTime() - solveStartNanos);
+            if (incumbentStore != null)
+                incumbentStore.offer(selected(context.getCandidatePoint(X)), selected(context.getCandidatePoint(Y)), "cplex");
+            return;
+        }
+
+        if (context.inRelaxation()) {
+            boolean feasible = context.getIntInfo(IloCplex.Callback.Context.Info.Feasible) != 0;
+            double[] values = storedSolutionToInject(feasible ? context.getIncumbentObjective() : Double.NEGATIVE_INFINITY);
+            if (values != null) context.postHeuristicSolution(allVars, values, storedSolutionValue(values),
+                    IloCplex.Callback.Context.SolutionStrategy.CheckFeasible);
+            return;
+        }
+
+        if (context.inGlobalProgress() && stopOnNegativeBound(context)) return;
+
+        if (itBudget.iterationLimitReached()) {
+            boolean feasible = context.getIntInfo(IloCplex.Callback.Context.Info.Feasible) != 0;
+            if (feasible && context.getIncumbentObjective() > PRECISION) {
+                abortedEarly = true;
+                context.abort();
+            } else if (!itBudget.extendIteration()) {
+                context.abort();
+            }
+        }
+    }
+
+    /*
+     * Callbacks viejos, equivalentes al generico (CallbackComparison los compara). CPLEX guarda un
+     * solo callback viejo por tipo, asi que el corte por cota negativa va en el mismo MIPInfoCallback.
+     */
+    private void useLegacyCallbacks() throws IloException {
+        this.cplex.use(new IloCplex.MIPInfoCallback() {
+            public void main() throws IloException {
+                if (getBestObjValue() < -PRECISION) {
+                    abortedEarly = true;
+                    abort();
+                    return;
+                }
+
+                if (itBudget.iterationLimitReached()) {   
+                    if (getIncumbentObjValue() > PRECISION) {
+                        abortedEarly = true;
+                        abort();
+                    } else if (!itBudget.extendIteration()) {
+                        abort();
+                    }
+                }
+            }
+        });
+
+        this.cplex.use(new IloCplex.IncumbentCallback() {
+            @Override
+            protected void main() throws IloException {
+                firstIncumbentNanos.compareAndSet(-1, System.nanoTime() - solveStartNanos);
+                if (incumbentStore != null) incumbentStore.offer(selected(getValues(X)), selected(getValues(Y)), "cplex");
+            }
+        });
+
+        if (this.incumbentStore == null) return;
+
+        this.allVars = allVariables();
+        this.cplex.use(new IloCplex.HeuristicCallback() {
+            @Override
+            protected void main() throws IloException {
+                double[] values = storedSolutionToInject(getIncumbentObjValue());
+                if (values != null) setSolution(allVars, values);
+            }
+        });
+    }
+
+    private IloIntVar[] allVariables() {
+        int nOrders = this.instance.nOrders();
+        IloIntVar[] vars = new IloIntVar[nOrders + this.instance.nAisles()];
+        System.arraycopy(this.X, 0, vars, 0, nOrders);
+        System.arraycopy(this.Y, 0, vars, nOrders, this.instance.nAisles());
+        return vars;
+    }
+
+    /*
+     * Valores de X e Y de la mejor solucion del store, si es nueva y mejora F(lambda) del incumbente de CPLEX.
+     * Con generacion de columnas, si usa pasillos fuera del maestro restringido CPLEX la rechazaria: queda sin
+     * marcar como inyectada y entra en el proximo solve, que habilita los pasillos de la mejor del store.
+     */
+    private double[] storedSolutionToInject(double incumbentValue) {
+        IncumbentStore.Incumbent best = incumbentStore.get();
+        long seen = injectedVersion.get();
+        if (best.version() <= seen || !inRestrictedMaster(best.aisles())) return null;
+        if (!injectedVersion.compareAndSet(seen, best.version())) return null;
+
+        double value = best.ratio() * best.aisles().length - currentLambda * best.aisles().length;
+        if (value <= incumbentValue + PRECISION) return null;
+
+        int nOrders = this.instance.nOrders();
+        double[] values = new double[nOrders + this.instance.nAisles()];
+        for (int o : best.orders()) values[o] = 1;
+        for (int a : best.aisles()) values[nOrders + a] = 1;
+        return values;
+    }
+
+    // Los bounds solo cambian entre solves, asi que los callbacks pueden leer aisleEnabled sin sincronizar
+    private boolean inRestrictedMaster(int[] aisles) {
+        boolean[] enabled = this.aisleEnabled;
+        if (enabled == null) return true;
+
+        for (int a : aisles)
+            if (!enabled[a]) return false;
+        return true;
+    }
+
+    // F(lambda) de una solucion armada por storedSolutionToInject
+    private double storedSolutionValue(double[] values) {
+        int nOrders = this.instance.nOrders();
+        double value = 0;
+        for (int o = 0; o < nOrders; o++) value += values[o] * this.instance.orderUnits(o);
+        for (int a = 0; a < this.instance.nAisles(); a++) value -= values[nOrders + a] * currentLambda;
+        return value;
+    }
+
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    // Suma, sobre los solves que encontraron incumbente, del tiempo hasta el primero
+    public long getTimeToIncumbentNanos() {
+        return incumbentNanos;
+    }
+
+    public int getSolvesWithIncumbent() {
+        return solvesWithIncumbent;
+    }
+
+    private int[] selected(double[] values) {
+        return IntStream.range(0, values.length).filter(i -> values[i] > TOLERANCE).toArray();
+    }
+
     // Variables
     protected void initializeVariables() throws IloException {
-        for(int o = 0; o < this.orders.size(); o++) 
+        for(int o = 0; o < this.instance.nOrders(); o++) 
             this.X[o] = this.cplex.intVar(0, 1, "X_" + o);
 
-        for (int a = 0; a < this.aisles.size(); a++) 
+        for (int a = 0; a < this.instance.nAisles(); a++) 
             this.Y[a] = this.cplex.intVar(0, 1, "Y_" + a);
     }
 
@@ -173,45 +607,91 @@ public abstract class MIPSolver extends CPLEXSolver {
         IloLinearIntExpr exprLB = this.cplex.linearIntExpr();
         IloLinearIntExpr exprUB = this.cplex.linearIntExpr();
 
-        for(int o = 0; o < this.orders.size(); o++) {                
-            exprLB.addTerm(this.orderItemSum[o], this.X[o]);
-            exprUB.addTerm(this.orderItemSum[o], this.X[o]);
+        for(int o = 0; o < this.instance.nOrders(); o++) {                
+            exprLB.addTerm(this.instance.orderUnits(o), this.X[o]);
+            exprUB.addTerm(this.instance.orderUnits(o), this.X[o]);
         }
         
-        this.cplex.addGe(exprLB, this.waveSizeLB);
-        this.cplex.addLe(exprUB, this.waveSizeUB);
+        this.lbConstraint = this.cplex.addGe(exprLB, this.waveSizeLB);
+        this.ubConstraint = this.cplex.addLe(exprUB, this.waveSizeUB);
     }
 
+    // Cobertura de cada item: sum_o q_oi X_o - sum_a s_ai Y_a <= 0, una fila por item pedido.
+    // Las filas se arman en bloque desde los transpuestos y se cargan con un solo addRows; los items
+    // que ninguna orden pide no llevan fila (quedaria 0 <= stock).
     protected void setOrderSelectionConstraints() throws IloException {
-        IloLinearIntExpr[] exprsY = new IloLinearIntExpr[nItems];
-        IloLinearIntExpr[] exprsX = new IloLinearIntExpr[nItems];
-
-        for(int i = 0; i < nItems; i++) {
-            exprsX[i] = this.cplex.linearIntExpr();
-            exprsY[i] = this.cplex.linearIntExpr();
+        long start = System.nanoTime();
+        int nOrders = this.instance.nOrders();
+
+        // Columnas: X_o en o, Y_a en nOrders + a
+        this.coverage = this.cplex.addLPMatrix();
+        this.coverage.addCols(this.X);
+        this.coverage.addCols(this.Y);
+        this.aisleColumn = nOrders;
+
+        int[] rowOf = new int[nItems];
+        int nRows = 0;
+        for (int i = 0; i < nItems; i++)
+            rowOf[i] = this.instance.itemOrdersEnd(i) > this.instance.itemOrdersStart(i) ? nRows++ : -1;
+
+        this.coverageItems = new int[nRows];
+        int[][] ind = new int[nRows][];
+        double[][] val = new double[nRows][];
+        for (int i = 0; i < nItems; i++) {
+            if (rowOf[i] < 0) continue;
+            this.coverageItems[rowOf[i]] = i;
+            int size = this.instance.itemOrdersEnd(i) - this.instance.itemOrdersStart(i)
+                     + this.instance.itemAislesEnd(i) - this.instance.itemAislesStart(i);
+            ind[rowOf[i]] = new int[size];
+            val[rowOf[i]] = new double[size];
         }
 
-        for(int o = 0; o < this.orders.size(); o++) {
-            for (Map.Entry<Integer, Integer> entry : this.orders.get(o).entrySet()) {
-                exprsX[entry.getKey()].addTerm(entry.getValue(), this.X[o]);
+        // Se recorren las filas en orden, asi que una orden o pasillo que repite item queda al final de la fila
+        int[] length = new int[nRows];
+        for (int o = 0; o < nOrders; o++)
+            for (int k = this.instance.orderStart(o); k < this.instance.orderEnd(o); k++)
+                addCoverageTerm(ind, val, length, rowOf[this.instance.orderItem(k)], o, this.instance.orderQuantity(k));
+
+        for (int a = 0; a < this.instance.nAisles(); a++)
+            for (int k = this.instance.aisleStart(a); k < this.instance.aisleEnd(a); k++) {
+                int row = rowOf[this.instance.aisleItem(k)];
+                if (row >= 0) addCoverageTerm(ind, val, length, row, nOrders + a, -this.instance.aisleQuantity(k));
             }
-        }
 
-        for(int a = 0; a < this.aisles.size(); a++) {
-            for (Map.Entry<Integer, Integer> entry : this.aisles.get(a).entrySet()) {
-                exprsY[entry.getKey()].addTerm(entry.getValue(), this.Y[a]);
+        long nonZeros = 0;
+        for (int r = 0; r < nRows; r++) {
+            if (length[r] < ind[r].length) {
+                ind[r] = Arrays.copyOf(ind[r], length[r]);
+                val[r] = Arrays.copyOf(val[r], length[r]);
             }
+            nonZeros += length[r];
         }
 
-        for(int i = 0; i < nItems; i++)
-            this.cplex.addLe(exprsX[i], exprsY[i]);
+        double[] lb = new double[nRows];
+        double[] ub = new double[nRows];
+        Arrays.fill(lb, -Double.MAX_VALUE);
+
+        this.coverage.addRows(lb, ub, ind, val);
 
+        this.listener.onModel("coverage", System.nanoTime() - start,
+                Map.of("rows", (long) nRows, "items_without_demand", (long) (nItems - nRows), "non_zeros", nonZeros));
+    }
+
+    private static void addCoverageTerm(int[][] ind, double[][] val, int[] length, int row, int col, double coef) {
+        int n = length[row];
+        if (n > 0 && ind[row][n - 1] == col) {
+            val[row][n - 1] += coef;
+            return;
+        }
+        ind[row][n] = col;
+        val[row][n] = coef;
+        length[row]++;
     }
     
     protected void setAtLeastOneAisleConstraint() throws IloException {
         IloLinearIntExpr exprY = this.cplex.linearIntExpr();
             
-        for(int a = 0; a < this.aisles.size(); a++) 
+        for(int a = 0; a < this.instance.nAisles(); a++) 
             exprY.addTerm(1, this.Y[a]);
 
         this.cplex.addGe(exprY, 1);
@@ -221,39 +701,190 @@ public abstract class MIPSolver extends CPLEXSolver {
         // Sum order item >=  k|A|
         IloLinearNumExpr exprX  = this.cplex.linearNumExpr();
 
-        for(int o = 0; o < this.orders.size(); o++) 
-            exprX.addTerm(this.orderItemSum[o], X[o]);
+        for(int o = 0; o < this.instance.nOrders(); o++) 
+            exprX.addTerm(this.instance.orderUnits(o), X[o]);
         
-        for(int a = 0; a < this.aisles.size(); a++) 
+        for(int a = 0; a < this.instance.nAisles(); a++) 
             exprX.addTerm(-k, Y[a]);
         
         this.cutConstraint = this.cplex.addGe(exprX, 0);
     }
 
-    protected void updateCutConstraint(double k) {
+    @Override
+    public void updateCutConstraint(double k) {
+        long start = System.nanoTime();
+
         try {
-            for (int a = 0; a < this.aisles.size(); a++)
-                this.cplex.setLinearCoef(this.cutConstraint, this.Y[a], -k);
+            // Una sola llamada para todos los pasillos en lugar de un setLinearCoef por pasillo
+            Arrays.fill(this.aisleCoefs, -k);
+            this.cplex.setLinearCoefs(this.cutConstraint, this.aisleCoefs, this.Y);
             
         } catch (IloException e) {
             System.out.println(e.getMessage());
         }
         
+        this.modelUpdateNanos += System.nanoTime() - start;
+    }
+
+    // Siguiente ola o cambio del pool: las ordenes que quedaron sin items se fijan en 0, en las filas de
+    // cobertura se cambia el stock de cada pasillo que lo tenga distinto y las ordenes nuevas (al final
+    // de residual) se agregan como columnas. Las ordenes que siguen mantienen sus unidades, asi que sus
+    // coeficientes no cambian. Los MIP starts viejos pueden no ser factibles
+    @Override
+    public void updateInstance(Instance residual) {
+        long start = System.nanoTime();
+        int nOrders = this.instance.nOrders();
+        int removed = 0, changed = 0, added = residual.nOrders() - nOrders;
+
+        try {
+            for (int o = 0; o < nOrders; o++) {
+                if (residual.orderDistinct(o) == 0 && this.instance.orderDistinct(o) > 0) {
+                    this.X[o].setUB(0);
+                    removed++;
+                }
+            }
+
+            int[] rowOf = new int[nItems];
+            Arrays.fill(rowOf, -1);
+            for (int r = 0; r < this.coverageItems.length; r++) rowOf[this.coverageItems[r]] = r;
+
+            // Stock viejo y nuevo de cada item del pasillo (un pasillo puede repetir item)
+            long[] oldStock = new long[nItems];
+            long[] newStock = new long[nItems];
+            for (int a = 0; a < this.instance.nAisles(); a++) {
+                for (int k = this.instance.aisleStart(a); k < this.instance.aisleEnd(a); k++)
+                    oldStock[this.instance.aisleItem(k)] += this.instance.aisleQuantity(k);
+                for (int k = residual.aisleStart(a); k < residual.aisleEnd(a); k++)
+                    newStock[residual.aisleItem(k)] += residual.aisleQuantity(k);
+
+                for (Instance rows : new Instance[] {this.instance, residual}) {
+                    for (int k = rows.aisleStart(a); k < rows.aisleEnd(a); k++) {
+                        int item = rows.aisleItem(k);
+                        if (oldStock[item] != newStock[item] && rowOf[item] >= 0) {
+                            this.coverage.setNZ(rowOf[item], this.aisleColumn + a, -newStock[item]);
+                            changed++;
+                        }
+                        oldStock[item] = 0;
+                        newStock[item] = 0;
+                    }
+                }
+            }
+
+            if (added > 0) addOrders(residual, nOrders, rowOf);
+
+            this.cplex.deleteMIPStarts(0, this.cplex.getNMIPStarts());
+            this.pendingStarts.clear();
+        } catch (IloException e) {
+            System.out.println(e.getMessage());
+        }
+
+        this.instance = residual;
+        this.modelUpdateNanos += System.nanoTime() - start;
+
+        this.listener.onModel("update", System.nanoTime() - start,
+                Map.of("removed_orders", (long) removed, "added_orders", (long) Math.max(0, added), "changed_stocks", (long) changed));
     }
 
-    // Objective function
+    // Columnas para las ordenes from..residual.nOrders()-1: objetivo, LB/UB, corte y cobertura. Los items
+    // que hasta ahora nadie pedia necesitan fila nueva, con el stock de residual
+    private void addOrders(Instance residual, int from, int[] rowOf) throws IloException {
+        int n = residual.nOrders() - from;
+        IloIntVar[] vars = new IloIntVar[n];
+        double[] units = new double[n];
+        for (int j = 0; j < n; j++) {
+            vars[j] = this.cplex.intVar(0, 1, "X_" + (from + j));
+            units[j] = residual.orderUnits(from + j);
+        }
+
+        this.X = Arrays.copyOf(this.X, residual.nOrders());
+        System.arraycopy(vars, 0, this.X, from, n);
+
+        this.cplex.setLinearCoefs(this.objective, units, vars);
+        this.cplex.setLinearCoefs(this.lbConstraint, units, vars);
+        this.cplex.setLinearCoefs(this.ubConstraint, units, vars);
+        this.cplex.setLinearCoefs(this.cutConstraint, units, vars);
+
+        int column = this.coverage.addCols(vars);
+
+        // Terminos en filas que ya existen; los de items nuevos se juntan por item
+        int nRows = this.coverageItems.length;
+        List<Integer> newItems = new ArrayList<>();
+        List<int[]> nz = new ArrayList<>();
+        for (int j = 0; j < n; j++) {
+            for (int k = residual.orderStart(from + j); k < residual.orderEnd(from + j); k++) {
+                int item = residual.orderItem(k);
+                if (rowOf[item] < 0) {
+                    rowOf[item] = nRows + newItems.size();
+                    newItems.add(item);
+                }
+                nz.add(new int[] {rowOf[item], column + j, residual.orderQuantity(k)});
+            }
+        }
+
+        if (!newItems.isEmpty()) {
+            int[][] ind = new int[newItems.size()][];
+            double[][] val = new double[newItems.size()][];
+            int[] length = new int[ind.length];
+            for (int r = 0; r < ind.length; r++) {
+                int item = newItems.get(r);
+                ind[r] = new int[residual.itemAislesEnd(item) - residual.itemAislesStart(item)];
+                val[r] = new double[ind[r].length];
+            }
+
+            for (int a = 0; a < residual.nAisles(); a++)
+                for (int k = residual.aisleStart(a); k < residual.aisleEnd(a); k++) {
+                    int row = rowOf[residual.aisleItem(k)] - nRows;
+                    if (row >= 0) addCoverageTerm(ind, val, length, row, this.aisleColumn + a, -residual.aisleQuantity(k));
+                }
+
+            for (int r = 0; r < ind.length; r++) {
+                ind[r] = Arrays.copyOf(ind[r], length[r]);
+                val[r] = Arrays.copyOf(val[r], length[r]);
+            }
+
+            double[] lb = new double[ind.length];
+            double[] ub = new double[ind.length];
+            Arrays.fill(lb, -Double.MAX_VALUE);
+            this.coverage.addRows(lb, ub, ind, val);
+
+            this.coverageItems = Arrays.copyOf(this.coverageItems, nRows + newItems.size());
+            for (int r = 0; r < newItems.size(); r++) this.coverageItems[nRows + r] = newItems.get(r);
+        }
+
+        // Una orden puede repetir item: se suman antes de cargar
+        nz.sort((p, q) -> p[0] != q[0] ? Integer.compare(p[0], q[0]) : Integer.compare(p[1], q[1]));
+        int[] rows = new int[nz.size()], cols = new int[nz.size()];
+        double[] vals = new double[nz.size()];
+        int m = 0;
+        for (int[] t : nz) {
+            if (m > 0 && rows[m - 1] == t[0] && cols[m - 1] == t[1]) {
+                vals[m - 1] += t[2];
+                continue;
+            }
+            rows[m] = t[0];
+            cols[m] = t[1];
+            vals[m++] = t[2];
+        }
+        this.coverage.setNZs(Arrays.copyOf(rows, m), Arrays.copyOf(cols, m), Arrays.copyOf(vals, m));
+
+        if (this.allVars != null) this.allVars = allVariables();
+    }
+
+    // Objective function: se arma la primera vez y despues solo se actualizan los coeficientes de Y
     protected void setObjectiveFunction(double alpha) throws IloException {
-        IloLinearNumExpr obj = this.cplex.linearNumExpr();
+        Arrays.fill(this.aisleCoefs, -alpha);
 
-        for(int o = 0; o < this.orders.size(); o++) 
-            obj.addTerm(this.orderItemSum[o], this.X[o]);    
-        
-        for(int a = 0; a < this.aisles.size(); a++) 
-            obj.addTerm(-alpha, this.Y[a]);
+        if (this.objective != null) {
+            this.cplex.setLinearCoefs(this.objective, this.aisleCoefs, this.Y);
+            return;
+        }
+
+        IloLinearNumExpr obj = this.cplex.linearNumExpr();
 
-        if (this.objective != null) 
-            this.cplex.delete(this.objective);
+        for(int o = 0; o < this.instance.nOrders(); o++) 
+            obj.addTerm(this.instance.orderUnits(o), this.X[o]);    
         
+        obj.addTerms(this.aisleCoefs, this.Y);
 
         this.objective = this.cplex.addMaximize(obj);
     }
@@ -298,8 +929,8 @@ public abstract class MIPSolver extends CPLEXSolver {
             used_orders.clear();
             used_aisles.clear();      
             
-            fillSolutionList(this.X, used_orders, this.orders.size());
-            fillSolutionList(this.Y, used_aisles, this.aisles.size());    
+            fillSolutionList(this.X, used_orders, this.instance.nOrders());
+            fillSolutionList(this.Y, used_aisles, this.instance.nAisles());    
         }
     }
 
@@ -313,11 +944,11 @@ public abstract class MIPSolver extends CPLEXSolver {
         double pickedObjects = 0, usedColumns = 0;
         
         try {
-            for (int o=0; o < this.orders.size(); o++)
+            for (int o=0; o < this.instance.nOrders(); o++)
                 if (this.cplex.getValue(this.X[o]) > TOLERANCE)
-                    pickedObjects += this.orderItemSum[o];
+                    pickedObjects += this.instance.orderUnits(o);
         
-            for (int a=0; a < this.aisles.size(); a++)
+            for (int a=0; a < this.instance.nAisles(); a++)
                 if (this.cplex.getValue(this.Y[a]) > TOLERANCE)
                     usedColumns++;
         
@@ -329,19 +960,13 @@ public abstract class MIPSolver extends CPLEXSolver {
     }
 
     protected int ordersItemSum(List<Integer> ordersToSum) {
-        int sum = 0;
-        
-        for(int order: ordersToSum) 
-            for (Map.Entry<Integer, Integer> entry : this.orders.get(order).entrySet()) 
-                sum += entry.getValue();
-
-        return sum;
+        return this.instance.totalOrderUnits(ordersToSum);
     }
 
     private IloRange addConstraintOfChangingFewAisles(List<Integer> used_aisles, long neighbourhoodSize) throws IloException {        
         IloLinearIntExpr expr = this.cplex.linearIntExpr();
 
-        for (int a=0; a<this.aisles.size(); a++) {
+        for (int a=0; a<this.instance.nAisles(); a++) {
             if (used_aisles.contains(a))
                 expr.addTerm(1, this.Y[a]);
             else
@@ -0,0 +1,155 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+ * Parser de instancias que mapea el archivo en memoria y lee los enteros directo de los bytes,
+ * sin crear Strings ni mapas por linea. Las unicas asignaciones son los arreglos CSR finales
+ * (y algun crecimiento amortizado si la estimacion inicial de no-ceros se queda corta).
+ *
+ * El archivo tiene que entrar en un unico MappedByteBuffer (< 2GB). parse(ByteBuffer) lee lo mismo
+ * de bytes que ya estan en memoria (SolverDaemon).
+ */
+public final class MappedInstanceParser {
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    MappedInstanceParser(ByteBuffer buffer) {
+        this.buffer   = buffer;
+        this.limit    = buffer.limit();
+        this.position = 0;
+    }
+
+    public static Instance parse(String inputFilePath) throws IOException {
+        return parse(Path.of(inputFilePath));
+    }
+
+    public static Instance parse(Path inputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = map(channel);
+            return new MappedInstanceParser(buffer).readInstance(buffer.limit());
+        }
+    }
+
+    public static Instance parse(ByteBuffer buffer) throws IOException {
+        return new MappedInstanceParser(buffer).readInstance(buffer.limit());
+    }
+
+    static MappedByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Input too large to map (" + size + " bytes)");
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    private Instance readInstance(long size) throws IOException {
+        int nOrders = nextInt();
+        int nItems  = nextInt();
+        int nAisles = nextInt();
+
+        int estimatedNonZeros = estimateNonZeros(size);
+
+        int[] orderOffsets = new int[nOrders + 1];
+        int[][] orderEntries = readItemQuantityPairs(nOrders, orderOffsets, estimatedNonZeros);
+
+        int[] aisleOffsets = new int[nAisles + 1];
+        int[][] aisleEntries = readItemQuantityPairs(nAisles, aisleOffsets, estimatedNonZeros);
+
+        int waveSizeLB = nextInt();
+        int waveSizeUB = nextInt();
+
+        return new Instance(nItems,
+                orderOffsets, orderEntries[0], orderEntries[1],
+                aisleOffsets, aisleEntries[0], aisleEntries[1],
+                waveSizeLB, waveSizeUB);
+    }
+
+    // Cada par "item cantidad " ocupa al menos 4 bytes
+    static int estimateNonZeros(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE - 8, bytes / 4 / 2 + 16);
+    }
+
+    int position() {
+        return position;
+    }
+
+    void seek(int position) {
+        this.position = position;
+    }
+
+    // Vista de solo lectura de los bytes [from, to) del archivo
+    ByteBuffer slice(int from, int to) {
+        return buffer.duplicate().position(from).limit(to);
+    }
+
+    // Avanza hasta despues del proximo fin de linea (o el final del archivo)
+    void skipLine() {
+        while (position < limit && buffer.get(position) != '\n') position++;
+        if (position < limit) position++;
+    }
+
+    void skipLines(int nLines) {
+        for (int line = 0; line < nLines; line++) skipLine();
+    }
+
+    int[][] readItemQuantityPairs(int nLines, int[] offsets, int estimatedNonZeros) throws IOException {
+        int[] items = new int[Math.max(16, Math.min(estimatedNonZeros, nLines * 8))];
+        int[] quantities = new int[items.length];
+        int nonZeros = 0;
+
+        for (int line = 0; line < nLines; line++) {
+            int nLineItems = nextInt();
+
+            if (nonZeros + nLineItems > items.length) {
+                int newLength = Math.max(items.length * 2, nonZeros + nLineItems);
+                items = Arrays.copyOf(items, newLength);
+                quantities = Arrays.copyOf(quantities, newLength);
+            }
+
+            for (int k = 0; k < nLineItems; k++) {
+                items[nonZeros]      = nextInt();
+                quantities[nonZeros] = nextInt();
+                nonZeros++;
+            }
+            offsets[line + 1] = nonZeros;
+        }
+
+        return new int[][] { Arrays.copyOf(items, nonZeros), Arrays.copyOf(quantities, nonZeros) };
+    }
+
+    int nextInt() throws IOException {
+        byte b = skipWhitespace();
+
+        if (b < '0' || b > '9')
+            throw new IOException("Expected a digit at byte " + position + " but found '" + (char) b + "'");
+
+        int value = 0;
+        while (position < limit) {
+            b = buffer.get(position);
+            if (b < '0' || b > '9') break;
+            value = value * 10 + (b - '0');
+            position++;
+        }
+
+        return value;
+    }
+
+    private byte skipWhitespace() throws IOException {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') return b;
+            position++;
+        }
+
+        throw new IOException("Unexpected end of input at byte " + position);
+    }
+}
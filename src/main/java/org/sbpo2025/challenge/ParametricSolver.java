@@ -1,76 +1,387 @@
 package org.sbpo2025.challenge;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.apache.commons.lang3.time.StopWatch;
 
+public class ParametricSolver {
 
-public class ParametricSolver extends MIPSolver {
+    // Primera ronda del modo paralelo, sin cota todavia: los lambdas optimistas llegan hasta lo * (1 + INITIAL_SPREAD)
+    private static final double INITIAL_SPREAD = 0.2;
 
-    private final GreedySolver greedySolver;
-    private final TimeListener timeListener;
+    private final SubproblemSolver subproblemSolver;
+    private final GreedyPortfolio greedyPortfolio;
+    private final Instance instance;
+    private final IncumbentStore incumbentStore;
+    private final SolverListener listener;
+    private final SolverConfig config;
+    private final double gapThreshold;
 
-    public ParametricSolver(List<Map<Integer, Integer>> orders, List<Map<Integer, Integer>> aisles, int nItems, int waveSizeLB, int waveSizeUB) {
-        super(orders, aisles, nItems, waveSizeLB, waveSizeUB);
-        greedySolver = new GreedySolver(orders, aisles, nItems, waveSizeLB, waveSizeUB);
-        timeListener = new TimeListener(TIME_LIMIT_SEC_IT);
+    // Ola siguiente de WavePlanner: el modelo viene armado del solve anterior
+    private final boolean warmStart;
+
+    // Cota superior del cociente (lagrangiana y de los solves de Dinkelbach), corta el solve por gap
+    private RatioBound ratioBound;
+    private SolverListener.BoundEvent lastBound;
+
+    // Modo paralelo: solvers que resuelven a la vez en lambdas optimistas (vacio = Dinkelbach secuencial)
+    private final List<SubproblemSolver> optimisticSolvers = new ArrayList<>();
+
+    // Tiempo de actualizar el modelo contra tiempo de solve, por iteracion
+    private final List<SubproblemSolver.IterationTiming> iterationTimings = new ArrayList<>();
+
+    public ParametricSolver(Instance instance) {
+        this(instance, SolverConfig.defaults());
+    }
+
+    public ParametricSolver(Instance instance, SolverConfig config) {
+        this(instance, config, SolverListener.NONE);
+    }
+
+    public ParametricSolver(Instance instance, SolverConfig config, SolverListener listener) {
+        this.listener = listener;
+        this.config = config;
+        this.gapThreshold = config.gapThreshold();
+        this.instance = instance;
+        this.incumbentStore = new IncumbentStore(instance);
+        this.warmStart = false;
+
+        // Los threads de CPLEX se reparten entre los solvers del modo paralelo
+        int nSolvers = Math.max(1, config.parallelLambdas());
+        SolverConfig solverConfig = config.withThreads(config.threads() / nSolvers);
+        subproblemSolver = createSubproblemSolver(instance, solverConfig);
+        subproblemSolver.setListener(listener);
+
+        // Todos con el mismo motor que el primero (AUTO ya se resolvio)
+        if (subproblemSolver instanceof JavaMIPSolver) solverConfig = solverConfig.withBackend(SolverConfig.Backend.JAVA);
+        for (int j = 1; j < nSolvers; j++) {
+            SubproblemSolver solver = createSubproblemSolver(instance, solverConfig);
+            solver.setListener(listener);
+            optimisticSolvers.add(solver);
+        }
+
+        greedyPortfolio = new GreedyPortfolio(instance, config.threads());
+    }
+
+    // Siguiente ola de WavePlanner: mismos solvers que previous, pasados a la instancia residual (mismos
+    // ids) en lugar de rearmar los modelos. El store y los golosos son nuevos, y el mejor cociente
+    // arranca de 0 porque el de la ola anterior ya no es alcanzable
+    public ParametricSolver(Instance residual, ParametricSolver previous) {
+        this.listener = previous.listener;
+        this.config = previous.config;
+        this.gapThreshold = previous.gapThreshold;
+        this.instance = residual;
+        this.incumbentStore = new IncumbentStore(residual);
+        this.warmStart = true;
+
+        this.subproblemSolver = previous.subproblemSolver;
+        this.optimisticSolvers.addAll(previous.optimisticSolvers);
+        this.subproblemSolver.updateInstance(residual);
+        this.subproblemSolver.startFromGreedySolution(0);
+        for (SubproblemSolver solver : optimisticSolvers) {
+            solver.updateInstance(residual);
+            solver.startFromGreedySolution(0);
+        }
+
+        greedyPortfolio = new GreedyPortfolio(residual, config.threads());
     }
 
-    public int solveMILFP(List<Integer> used_orders, List<Integer> used_aisles, double gapTolerance, StopWatch stopWatch) {
+    private static SubproblemSolver createSubproblemSolver(Instance instance, SolverConfig config) {
+        if (config.backend() == SolverConfig.Backend.JAVA)
+            return new JavaMIPSolver(instance);
+
+        if (config.backend() == SolverConfig.Backend.CPLEX)
+            return new MIPSolver(instance, config);
+
+        // AUTO: sin libreria nativa o sin licencia se sigue con el motor en Java (Challenge.main lo avisa)
         try {
-            this.currentBest = greedySolver.solve_with_both_greedies(used_orders, used_aisles, this.currentBest);
+            MIPSolver mipSolver = new MIPSolver(instance, config);
+            if (mipSolver.cplex != null) return mipSolver;
+        } catch (LinkageError e) {
+            // Sigue con JavaMIPSolver
+        }
+
+        return new JavaMIPSolver(instance);
+    }
+
+    public SubproblemSolver getSubproblemSolver() {
+        return subproblemSolver;
+    }
+
+    public int solveMILFP(List<Integer> used_orders, List<Integer> used_aisles, double gapTolerance, TimeBudget budget) {
+        long phaseStart = System.nanoTime();
+        double greedyValue = 0;
+
+        ratioBound = new RatioBound(instance, incumbentStore, budget, gapThreshold, subproblemSolver.getPrecision());
+        ratioBound.start();
+
+        try {
+            // El mejor cociente del portafolio es el arranque del modelo y el lambda inicial
+            greedyValue = greedyPortfolio.solve(used_orders, used_aisles, subproblemSolver.getCurrentBest());
+            subproblemSolver.startFromGreedySolution(greedyValue);
+            incumbentStore.offer(used_orders, used_aisles, "greedy");
         } catch (Exception e) {
-            this.currentBest = 0;
+            greedyValue = 0;
+            subproblemSolver.startFromGreedySolution(0);
             used_orders.clear();
             used_aisles.clear();
         }
 
-        double objValue = -1, lambda = this.currentBest;
+        listener.onPhase("greedy", System.nanoTime() - phaseStart);
+
+        phaseStart = System.nanoTime();
+        subproblemSolver.setIncumbentStore(incumbentStore);
+        if (warmStart) subproblemSolver.addMIPStart(used_orders, used_aisles, greedyValue);
+        else subproblemSolver.generateModel(used_orders, used_aisles);
+        for (SubproblemSolver solver : optimisticSolvers) {
+            solver.startFromGreedySolution(greedyValue);
+            solver.setIncumbentStore(incumbentStore);
+            if (warmStart) solver.addMIPStart(new ArrayList<>(used_orders), new ArrayList<>(used_aisles), greedyValue);
+            else solver.generateModel(new ArrayList<>(used_orders), new ArrayList<>(used_aisles));
+        }
+        listener.onPhase("model", System.nanoTime() - phaseStart);
+
+        // Busqueda local en paralelo con el subproblema, hasta el mismo deadline que el loop
+        LocalSearchWorker localSearch = new LocalSearchWorker(instance, incumbentStore, budget.deadlineNanos());
+        localSearch.start();
+
+        int it = optimisticSolvers.isEmpty()
+                ? dinkelbach(used_orders, used_aisles, gapTolerance, budget)
+                : parallelDinkelbach(used_orders, used_aisles, gapTolerance, budget);
+
+        localSearch.stop();
+        ratioBound.stop();
+        reportBound();
+        useStoredIncumbent(used_orders, used_aisles);
+        listener.onFinish(it, Math.max(incumbentStore.ratio(), subproblemSolver.getCurrentBest()));
+
+        return it;
+    }
+
+    // Libera los modelos (CPLEX). No se llama entre olas de WavePlanner, que los reusa
+    public void end() {
+        subproblemSolver.end();
+        for (SubproblemSolver solver : optimisticSolvers) solver.end();
+    }
+
+    private int dinkelbach(List<Integer> used_orders, List<Integer> used_aisles, double gapTolerance, TimeBudget budget) {
+        double objValue = -1, lambda = subproblemSolver.getCurrentBest();
         int it = 0;
         int startLocalSearch = 1;
         int neighbourhoodSize = 4;
 
-        generateMIP(used_orders, used_aisles, null);
-        
-        while (stopWatch.getDuration().getSeconds() < TIME_LIMIT_SEC - 5) {
-            updateCutConstraint(lambda);
+        while (!budget.expired()) {
+            // Lo que hayan encontrado la busqueda local o los callbacks ajusta lambda
+            lambda = Math.max(lambda, useStoredIncumbent(used_orders, used_aisles));
 
-            long remainingTime = Math.max(TIME_LIMIT_SEC - stopWatch.getDuration().getSeconds() - 5, 0);
+            subproblemSolver.updateCutConstraint(lambda);
 
-            long startOfIteration = stopWatch.getDuration().getSeconds();
+            long iterationLimit = budget.startIteration();
+            boolean useNeighbourhood = it >= startLocalSearch && it%2==1;
 
-            if (it >= startLocalSearch && it%2==1)
-                objValue = solveMIPWith(lambda, used_orders, used_aisles, gapTolerance, 
-                            timeListener, remainingTime, true, neighbourhoodSize);
+            if (useNeighbourhood)
+                objValue = subproblemSolver.solveWith(lambda, used_orders, used_aisles, gapTolerance,
+                            budget, true, neighbourhoodSize);
             else
-                objValue = solveMIPWith(lambda, used_orders, used_aisles, gapTolerance, timeListener, remainingTime);
+                objValue = subproblemSolver.solveWith(lambda, used_orders, used_aisles, gapTolerance, budget, false, -1);
+
+            long iterationDuration = budget.iterationElapsedNanos();
+            budget.endIteration(objValue);
+
+            SubproblemSolver.IterationTiming timing = subproblemSolver.getLastIterationTiming();
+            iterationTimings.add(timing);
+            incumbentStore.offer(used_orders, used_aisles, "subproblem");
 
-            long endOfIteration = stopWatch.getDuration().getSeconds();
+            // Con vecindario el solve no dice nada del resto de las soluciones
+            if (!useNeighbourhood) ratioBound.offer(dinkelbachBound(subproblemSolver, lambda, objValue, gapTolerance), "dinkelbach");
 
-            long iterationDuration = endOfIteration - startOfIteration;
-            if (timeListener.isGreaterThan(iterationDuration)) timeListener.updateTimeLimitTo(iterationDuration);
+            listener.onIteration(new SolverListener.IterationEvent(it, lambda, objValue, subproblemSolver.getUpperBound(),
+                    gapTolerance, useNeighbourhood, useNeighbourhood ? neighbourhoodSize : -1, iterationLimit,
+                    budget.predictedSteps(), subproblemSolver.wasAbortedEarly(), iterationDuration,
+                    timing.modelUpdateNanos(), timing.solveNanos(), Math.max(incumbentStore.ratio(), subproblemSolver.getCurrentBest())));
+
+            if (subproblemSolver.isSolutionInfeasible()) break;
 
-            if (solutionInfeasible) break;
-            
             // Newton -> Qn+1 = Qn - F(Qn) / F'(Qn), F'(Qn) ≈ D(x^*)
             // Qn+1 = Qn - F(Qn) / -D(x^*) = N(x^*) / D(x^*)
-            lambda += objValue / used_aisles.size(); 
+            lambda += objValue / used_aisles.size();
 
-            boolean isAGoodSolution = Math.abs(objValue + objValue * gapTolerance) <= PRECISION;
+            boolean isAGoodSolution = Math.abs(objValue + objValue * gapTolerance) <= subproblemSolver.getPrecision();
 
             if (objValue <= 0 || isAGoodSolution ) {
-                if (timeListener.fastIteration(iterationDuration) || isAGoodSolution) 
+                if (budget.fastIteration(iterationDuration) || isAGoodSolution)
                     gapTolerance /= 2;
             }
-            
+
             it++;
         }
 
-        endCplex();
-
         return it;
     }
 
-    
+    /*
+     * Dinkelbach con varios lambdas por ronda. subproblemSolver hace el paso de Newton desde el mejor
+     * cociente conocido (lo) y los solvers optimistas prueban a la vez lambdas repartidos entre lo y
+     * una estimacion sacada de la cota U de F(lo) del ultimo solve: todo x cumple N(x) - lo D(x) <= U,
+     * o sea cociente <= lo + U / D(x). Con D(x) >= 1 eso es una cota superior hi del optimo (agrandada
+     * por el gap con el que corto el solve), y con D(x) = pasillos de la mejor solucion es la
+     * estimacion optimista.
+     *
+     * Por el corte sum(u X) >= lambda sum(Y), un entero encontrado en lambda_j tiene cociente >= lambda_j
+     * (sube lo), y si el solve prueba que no hay ninguno (infactible o cota < 0) lambda_j pasa a ser hi.
+     * Los solves optimistas no extienden el limite de la iteracion, asi que la ronda no los espera mas
+     * que al de lo. Todos comparten el IncumbentStore: lo que encuentra uno entra en los demas.
+     */
+    private int parallelDinkelbach(List<Integer> used_orders, List<Integer> used_aisles, double gapTolerance, TimeBudget budget) {
+        int nOptimistic = optimisticSolvers.size();
+        double precision = subproblemSolver.getPrecision();
+        double hi = Double.POSITIVE_INFINITY, estimate = -1;
+        int round = 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(nOptimistic, runnable -> {
+            Thread thread = new Thread(runnable, "optimistic-lambda");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            while (!budget.expired()) {
+                double lo = Math.max(subproblemSolver.getCurrentBest(), useStoredIncumbent(used_orders, used_aisles));
+                if (hi - lo <= precision) break;
+
+                double top = Math.min(estimate > lo ? estimate : lo * (1 + INITIAL_SPREAD), hi - precision);
+
+                subproblemSolver.updateCutConstraint(lo);
+                long iterationLimit = budget.startIteration();
+                TimeBudget optimisticBudget = budget.fixedIteration();
+
+                double[] lambdas = new double[nOptimistic];
+                List<List<Integer>> orders = new ArrayList<>(nOptimistic);
+                List<List<Integer>> aisles = new ArrayList<>(nOptimistic);
+                List<Future<Double>> results = new ArrayList<>(nOptimistic);
+
+                for (int j = 0; j < nOptimistic && top > lo + precision; j++) {
+                    double lambda = lo + (top - lo) * (j + 1) / nOptimistic;
+                    double gap = gapTolerance;
+                    SubproblemSolver solver = optimisticSolvers.get(j);
+                    List<Integer> jOrders = new ArrayList<>(used_orders);
+                    List<Integer> jAisles = new ArrayList<>(used_aisles);
+
+                    lambdas[j] = lambda;
+                    orders.add(jOrders);
+                    aisles.add(jAisles);
+                    solver.updateCutConstraint(lambda);
+                    results.add(pool.submit(() -> solver.solveWith(lambda, jOrders, jAisles, gap, optimisticBudget, false, -1)));
+                }
+
+                double objValue = subproblemSolver.solveWith(lo, used_orders, used_aisles, gapTolerance, budget, false, -1);
+                long iterationDuration = budget.iterationElapsedNanos();
+                budget.endIteration(objValue);
+
+                SubproblemSolver.IterationTiming timing = subproblemSolver.getLastIterationTiming();
+                iterationTimings.add(timing);
+                incumbentStore.offer(used_orders, used_aisles, "subproblem");
+
+                double upperBound = subproblemSolver.getUpperBound();
+                hi = Math.min(hi, dinkelbachBound(subproblemSolver, lo, objValue, gapTolerance));
+                if (objValue >= 0 && upperBound < Double.POSITIVE_INFINITY)
+                    estimate = lo + Math.max(0, upperBound) / Math.max(1, used_aisles.size());
+
+                listener.onIteration(new SolverListener.IterationEvent(round, lo, objValue, upperBound,
+                        gapTolerance, false, -1, iterationLimit, budget.predictedSteps(), subproblemSolver.wasAbortedEarly(),
+                        iterationDuration, timing.modelUpdateNanos(), timing.solveNanos(),
+                        Math.max(incumbentStore.ratio(), subproblemSolver.getCurrentBest())));
+
+                for (int j = 0; j < results.size(); j++) {
+                    SubproblemSolver solver = optimisticSolvers.get(j);
+                    double value;
+
+                    try {
+                        value = results.get(j).get();
+                    } catch (ExecutionException e) {
+                        // Un solver optimista que falla deja su modelo en un estado desconocido: se corta el solve
+                        throw new IllegalStateException("Solver optimista en lambda " + lambdas[j], e.getCause());
+                    }
+
+                    if (value >= 0) incumbentStore.offer(orders.get(j), aisles.get(j), "optimistic");
+                    else hi = Math.min(hi, dinkelbachBound(solver, lambdas[j], value, gapTolerance));
+
+                    SubproblemSolver.IterationTiming optimisticTiming = solver.getLastIterationTiming();
+                    iterationTimings.add(optimisticTiming);
+
+                    listener.onIteration(new SolverListener.IterationEvent(round, lambdas[j], value, solver.getUpperBound(),
+                            gapTolerance, false, -1, iterationLimit, budget.predictedSteps(), solver.wasAbortedEarly(),
+                            optimisticTiming.modelUpdateNanos() + optimisticTiming.solveNanos(),
+                            optimisticTiming.modelUpdateNanos(), optimisticTiming.solveNanos(),
+                            Math.max(incumbentStore.ratio(), subproblemSolver.getCurrentBest())));
+                }
+
+                ratioBound.offer(hi, "dinkelbach");
+                if (subproblemSolver.isSolutionInfeasible()) break;
+
+                boolean isAGoodSolution = Math.abs(objValue + objValue * gapTolerance) <= precision;
+                if ((objValue <= 0 || isAGoodSolution) && (budget.fastIteration(iterationDuration) || isAGoodSolution))
+                    gapTolerance /= 2;
+
+                round++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return round;
+    }
+
+    /*
+     * Cota del cociente que deja un solve en lambda sin vecindario. Con el corte sum(u X) >= lambda sum(Y)
+     * el modelo solo tiene las x de cociente >= lambda, y todas cumplen N(x) - lambda D(x) <= U, o sea
+     * cociente <= lambda + U (D(x) >= 1). Con gap relativo el solver puede cortar con U hasta (1 + gap)
+     * veces por debajo de F(lambda). Si prueba que no hay ninguna (infactible o U < 0) la cota es lambda;
+     * si se rindio sin incumbente (limite de filas del motor en Java) solo vale la U de los nodos abiertos.
+     */
+    static double dinkelbachBound(SubproblemSolver solver, double lambda, double objValue, double gapTolerance) {
+        double precision = solver.getPrecision();
+        double upperBound = solver.getUpperBound();
+
+        if (solver.isInfeasibilityProven() || upperBound < -precision) return lambda;
+        if (objValue < 0 || upperBound == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+
+        return lambda + Math.max(0, upperBound) * (1 + gapTolerance) + precision;
+    }
+
+    private void reportBound() {
+        double best = Math.max(incumbentStore.ratio(), subproblemSolver.getCurrentBest());
+        lastBound = new SolverListener.BoundEvent(ratioBound.bound(), ratioBound.boundSource(), ratioBound.lagrangianBound(),
+                ratioBound.getIterations(), best, ratioBound.stoppedByGap());
+        listener.onBound(lastBound);
+    }
+
+    // Si el store tiene algo mejor que el subproblema lo pasa como MIP start. Devuelve su cociente o -1.
+    private double useStoredIncumbent(List<Integer> used_orders, List<Integer> used_aisles) {
+        double ratio = incumbentStore.copyIfBetter(used_orders, used_aisles, subproblemSolver.getCurrentBest());
+        if (ratio > 0) subproblemSolver.addMIPStart(used_orders, used_aisles, ratio);
+        return ratio;
+    }
+
+    // Una por solve de subproblema (tambien los optimistas), en el orden en que terminaron
+    public List<SubproblemSolver.IterationTiming> getIterationTimings() {
+        return iterationTimings;
+    }
+
+    // Cota del ultimo solveMILFP, null si todavia no se resolvio
+    public SolverListener.BoundEvent getLastBound() {
+        return lastBound;
+    }
+
+    public IncumbentStore getIncumbentStore() {
+        return incumbentStore;
+    }
+
+
 }
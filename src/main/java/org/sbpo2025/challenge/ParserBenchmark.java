@@ -0,0 +1,80 @@
+package org.sbpo2025.challenge;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Compara el lector linea a linea con MappedInstanceParser sobre las carpetas de datasets/.
+ *
+ * Uso: java -cp target/ChallengeSBPO2025-1.0.jar org.sbpo2025.challenge.ParserBenchmark [carpeta ...] [-r repeticiones]
+ */
+public class ParserBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        List<File> inputs = new ArrayList<>();
+        int repetitions = 10;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-r")) repetitions = Integer.parseInt(args[++i]);
+            else collectInputs(new File(args[i]), inputs);
+        }
+
+        if (inputs.isEmpty()) {
+            for (String folder : new String[] {"datasets/a", "datasets/b"})
+                collectInputs(new File(folder), inputs);
+        }
+
+        if (inputs.isEmpty()) {
+            System.out.println("No instances found");
+            return;
+        }
+
+        for (int w = 0; w < WARMUP_ROUNDS; w++) {
+            for (File input : inputs) {
+                new Challenge().readInputByLines(input.getPath());
+                new Challenge().readInput(input.getPath());
+            }
+        }
+
+        System.out.println("instance,bytes,lines_ms,mapped_ms,lines_alloc_kb,mapped_alloc_kb");
+
+        for (File input : inputs) {
+            long[] lines  = measure(() -> new Challenge().readInputByLines(input.getPath()), repetitions);
+            long[] mapped = measure(() -> new Challenge().readInput(input.getPath()), repetitions);
+
+            System.out.printf("%s,%d,%.3f,%.3f,%d,%d%n", input.getPath(), input.length(),
+                    lines[0] / 1e6, mapped[0] / 1e6, lines[1] / 1024, mapped[1] / 1024);
+        }
+    }
+
+    private static void collectInputs(File folder, List<File> inputs) {
+        File[] files = folder.isDirectory() ? folder.listFiles((dir, name) -> name.endsWith(".txt")) : new File[] {folder};
+        if (files == null) return;
+
+        Arrays.sort(files);
+        for (File file : files)
+            if (file.isFile()) inputs.add(file);
+    }
+
+    // Devuelve {nanosegundos promedio, bytes asignados promedio} por lectura
+    private static long[] measure(Runnable read, int repetitions) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+
+        for (int r = 0; r < repetitions; r++)
+            read.run();
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new long[] {elapsed / repetitions, allocated / repetitions};
+    }
+}
@@ -0,0 +1,236 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Cota superior del cociente, para terminar solveMILFP cuando el incumbente ya esta a menos de
+ * gapThreshold (relativo) de ella.
+ *
+ * Relajacion lagrangiana de las filas de cobertura sum_o q_oi X_o <= sum_a s_ai Y_a (multiplicadores
+ * mu_i en [0, 1]) y de sum(u_o X_o) <= UB (multiplicador t en [0, 1]). Para toda solucion con k pasillos:
+ *
+ *     unidades <= t UB + sum_o max(0, (1 - t) u_o - sum_i mu_i q_oi) + (suma de los k mayores sum_i mu_i s_ai)
+ *              =: f_k(mu, t)
+ *
+ * Ademas unidades <= UB, y con min(UB, f_k) < LB no hay soluciones de k pasillos. Como f_k / k baja
+ * con k, el cociente es a lo sumo min(UB, f_k) / k para el menor k que llega a LB. El stock de cada
+ * pasillo se recorta a la demanda total del item (como en JavaMIPSolver), asi con mu = 1 y t = 0 es
+ * la cota por capacidad de los mejores pasillos. mu y t se ajustan con subgradiente (paso de Polyak
+ * contra el incumbente) en un thread aparte.
+ *
+ * ParametricSolver ofrece tambien la cota de cada solve de Dinkelbach (offer). Cuando la mejor cota y
+ * el incumbente del store quedan a menos del umbral se llama a TimeBudget.stop().
+ */
+public class RatioBound implements Runnable {
+
+    private static final int    MAX_ITERATIONS = 5000;
+    private static final int    PATIENCE       = 30;   // Iteraciones sin mejora antes de achicar el paso
+    private static final double MIN_STEP       = 1e-3;
+    private static final long   POLL_NANOS     = 5_000_000L;
+
+    private final Instance instance;
+    private final IncumbentStore incumbentStore;
+    private final TimeBudget budget;
+    private final double gapThreshold;
+    private final double precision;
+
+    private final int[] itemDemand;
+    private final double[] mu;
+    private final double[] aisleWeight;
+    private final double[] sortedWeight;
+    private final double[] gradient;
+
+    // Mejor cota como bits de double, se baja con compareAndSet
+    private final AtomicLong bound = new AtomicLong(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+    private volatile String boundSource = "";
+    private volatile boolean gapStop;
+    private double lagrangianBound = Double.POSITIVE_INFINITY;
+    private int iterations;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    public RatioBound(Instance instance, IncumbentStore incumbentStore, TimeBudget budget, double gapThreshold, double precision) {
+        this.instance = instance;
+        this.incumbentStore = incumbentStore;
+        this.budget = budget;
+        this.gapThreshold = gapThreshold;
+        this.precision = precision;
+
+        this.itemDemand = new int[instance.nItems()];
+        for (int k = 0; k < instance.orderNonZeros(); k++) itemDemand[instance.orderItem(k)] += instance.orderQuantity(k);
+
+        this.mu = new double[instance.nItems()];
+        this.aisleWeight = new double[instance.nAisles()];
+        this.sortedWeight = new double[instance.nAisles()];
+        this.gradient = new double[instance.nItems()];
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this, "ratio-bound");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread == null) return;
+
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public double bound() {
+        return Double.longBitsToDouble(bound.get());
+    }
+
+    public double lagrangianBound() {
+        return lagrangianBound;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String boundSource() {
+        return boundSource;
+    }
+
+    // El solve se corto porque el incumbente llego a la cota (no por tiempo)
+    public boolean stoppedByGap() {
+        return gapStop;
+    }
+
+    // Baja la cota si value es menor, y corta el solve si con eso el gap ya alcanza
+    public void offer(double value, String source) {
+        while (true) {
+            long current = bound.get();
+            if (value >= Double.longBitsToDouble(current)) break;
+            if (bound.compareAndSet(current, Double.doubleToLongBits(value))) {
+                boundSource = source;
+                break;
+            }
+        }
+
+        checkGap();
+    }
+
+    public boolean checkGap() {
+        double upper = bound();
+        double best = incumbentStore.ratio();
+        if (best <= 0 || upper - best > Math.max(precision, gapThreshold * upper)) return false;
+
+        if (budget.stop()) gapStop = true;
+        return true;
+    }
+
+    @Override
+    public void run() {
+        subgradient();
+
+        // Ya no baja la cota: queda mirando si el incumbente la alcanza
+        while (running && !budget.expired() && !checkGap())
+            LockSupport.parkNanos(POLL_NANOS);
+    }
+
+    private void subgradient() {
+        int nOrders = instance.nOrders();
+        int ub = instance.waveSizeUB();
+        double t = 0, tGradient = 0;
+        double step = 2;
+        int sinceImprovement = 0;
+
+        if (aisleWeight.length == 0) return;
+        Arrays.fill(mu, 1);
+
+        for (iterations = 0; iterations < MAX_ITERATIONS && step > MIN_STEP; iterations++) {
+            if (!running || budget.expired()) return;
+
+            Arrays.fill(gradient, 0);
+
+            // Ordenes: mochila lagrangiana, X_o = 1 si su valor reducido es positivo
+            double orders = t * ub;
+            tGradient = ub;
+            for (int o = 0; o < nOrders; o++) {
+                double reduced = (1 - t) * instance.orderUnits(o);
+                for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                    reduced -= mu[instance.orderItem(k)] * instance.orderQuantity(k);
+
+                if (reduced <= 0) continue;
+
+                orders += reduced;
+                tGradient -= instance.orderUnits(o);
+                for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                    gradient[instance.orderItem(k)] -= instance.orderQuantity(k);
+            }
+
+            // Pasillos: se eligen los k de mas peso, con k el menor que llega a LB
+            for (int a = 0; a < aisleWeight.length; a++) {
+                double weight = 0;
+                for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++) {
+                    int i = instance.aisleItem(k);
+                    weight += mu[i] * Math.min(instance.aisleQuantity(k), itemDemand[i]);
+                }
+                aisleWeight[a] = weight;
+            }
+
+            System.arraycopy(aisleWeight, 0, sortedWeight, 0, aisleWeight.length);
+            Arrays.sort(sortedWeight);
+
+            int nAisles = sortedWeight.length;
+            double units = orders;
+            int k = 0;
+            do units += sortedWeight[nAisles - 1 - k++];
+            while (k < nAisles && Math.min(ub, units) < instance.waveSizeLB() - 1e-6);
+
+            if (Math.min(ub, units) < instance.waveSizeLB() - 1e-6) {
+                // Ni con todos los pasillos se llega a LB: no hay soluciones
+                lagrangianBound = 0;
+                offer(0, "lagrangiana");
+                return;
+            }
+
+            double value = Math.min(ub, units) / k;
+            if (value < lagrangianBound - 1e-9) {
+                lagrangianBound = value;
+                offer(value, "lagrangiana");
+                sinceImprovement = 0;
+            } else if (++sinceImprovement >= PATIENCE) {
+                step /= 2;
+                sinceImprovement = 0;
+            }
+
+            // Los k pasillos elegidos (con empates, los primeros que aparecen)
+            double threshold = sortedWeight[nAisles - k];
+            int above = 0;
+            for (int a = 0; a < nAisles; a++) if (aisleWeight[a] > threshold) above++;
+            int ties = k - above;
+
+            for (int a = 0; a < nAisles; a++) {
+                if (aisleWeight[a] < threshold || (aisleWeight[a] == threshold && ties-- <= 0)) continue;
+                for (int j = instance.aisleStart(a); j < instance.aisleEnd(a); j++) {
+                    int i = instance.aisleItem(j);
+                    gradient[i] += Math.min(instance.aisleQuantity(j), itemDemand[i]);
+                }
+            }
+
+            // Paso de Polyak hacia el incumbente, en unidades de f_k
+            double norm = tGradient * tGradient;
+            for (double g : gradient) norm += g * g;
+            if (norm == 0) return;
+
+            double target = Math.max(0, incumbentStore.ratio()) * k;
+            double size = step * Math.max(units - target, precision) / norm;
+
+            for (int i = 0; i < mu.length; i++) mu[i] = Math.min(1, Math.max(0, mu[i] - size * gradient[i]));
+            t = Math.min(1, Math.max(0, t - size * tGradient));
+        }
+    }
+}
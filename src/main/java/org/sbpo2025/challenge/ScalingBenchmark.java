@@ -0,0 +1,94 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+/*
+ * Mide como escalan el parser, los golosos y el solver parametrico con instancias de
+ * InstanceGenerator de tamanio creciente: para cada n se generan n ordenes, n / 10 pasillos y n items.
+ * Imprime un CSV por stdout.
+ *
+ * Uso: java -cp target/ChallengeSBPO2025-1.0.jar org.sbpo2025.challenge.ScalingBenchmark
+ *          [--sizes 1000,10000,100000] [--time-limit <seconds>] [--backend auto|cplex|java] [--seed <n>] [--keep <dir>]
+ */
+public class ScalingBenchmark {
+
+    private static final String USAGE = "Usage: java -cp target/ChallengeSBPO2025-1.0.jar org.sbpo2025.challenge.ScalingBenchmark"
+            + " [--sizes 1000,10000,100000] [--time-limit <seconds>] [--backend auto|cplex|java] [--seed <n>] [--keep <dir>]";
+
+    public static void main(String[] args) throws IOException {
+        String[] sizes = {"1000", "10000", "100000"};
+        long timeLimit = 60;
+        SolverConfig.Backend backend = SolverConfig.Backend.AUTO;
+        long seed = 0;
+        Path keep = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            switch (args[i]) {
+                case "--sizes"      -> sizes     = args[++i].split(",");
+                case "--time-limit" -> timeLimit = Long.parseLong(args[++i]);
+                case "--backend"    -> backend   = SolverConfig.Backend.valueOf(args[++i].toUpperCase());
+                case "--seed"       -> seed      = Long.parseLong(args[++i]);
+                case "--keep"       -> keep      = Path.of(args[++i]);
+                default -> {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+
+        SolverConfig config = SolverConfig.defaults()
+                .withTimeLimitMillis(TimeUnit.SECONDS.toMillis(timeLimit))
+                .withBackend(backend);
+
+        Path dir = keep != null ? Files.createDirectories(keep) : Files.createTempDirectory("scaling");
+        List<String> rows = new ArrayList<>();
+
+        for (String size : sizes) {
+            int n = Integer.parseInt(size.trim());
+            InstanceGenerator.Spec spec = InstanceGenerator.Spec.of(n, Math.max(1, n / 10), n).withSeed(seed);
+            Path file = dir.resolve("synthetic_" + n + ".txt");
+
+            InstanceGenerator.Stats generated = new InstanceGenerator(spec).generate(file);
+
+            long start = System.nanoTime();
+            Instance instance = MappedInstanceParser.parse(file.toString());
+            long parseNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double greedyValue = new GreedySolver(instance).solve_with_both_greedies(new ArrayList<>(), new ArrayList<>(), -1);
+            long greedyNanos = System.nanoTime() - start;
+
+            // El solver parametrico completo, con el mismo presupuesto que una corrida normal
+            StopWatch stopWatch = StopWatch.createStarted();
+            ChallengeSolver solver = new ChallengeSolver(instance, config);
+            ChallengeSolution solution = solver.solve(stopWatch);
+            long solveMillis = stopWatch.getTime(TimeUnit.MILLISECONDS);
+
+            rows.add(String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%.2f,%.3f,%.3f,%.6f,%s,%d,%.6f,%b",
+                    spec.nOrders(), spec.nAisles(), spec.nItems(), generated.orderNonZeros(), generated.aisleNonZeros(),
+                    generated.bytes() / 1e6, parseNanos / 1e6, greedyNanos / 1e6, greedyValue,
+                    solver.getBackendName(), solveMillis, solver.computeObjectiveFunction(solution), solver.isSolutionFeasible(solution)));
+
+            if (keep == null) Files.deleteIfExists(file);
+        }
+
+        if (keep == null) Files.deleteIfExists(dir);
+
+        // Al final, para que no se mezcle con lo que imprimen los solvers
+        System.out.println("orders,aisles,items,order_nnz,aisle_nnz,mb,parse_ms,greedy_ms,greedy_value,backend,solve_ms,objective,feasible");
+        rows.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,92 @@
+package org.sbpo2025.challenge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Reemplazo de checker.py: valida una solucion contra su instancia con SolutionValidator, o todas
+ * las soluciones de una carpeta contra las instancias del mismo nombre. Ademas de factibilidad y
+ * objetivo informa que falla (cotas, ids invalidos e items con faltante).
+ */
+public class SolutionChecker {
+
+    private static final String USAGE = "Usage: java -jar target/ChallengeSBPO2025-1.0.jar --check <inputFile|inputDir> <solutionFile|solutionDir>";
+
+    // Ids tal cual aparecen en el archivo, con repetidos: los marca SolutionValidator
+    public record SolutionFile(List<Integer> orders, List<Integer> aisles) {
+    }
+
+    // Lee el formato de salida: cantidad de ordenes, ordenes, cantidad de pasillos, pasillos
+    public static SolutionFile readSolution(File solutionFile) throws IOException {
+        String[] tokens = Files.readString(solutionFile.toPath()).trim().split("\\s+");
+        int p = 0;
+
+        int nOrders = Integer.parseInt(tokens[p++]);
+        List<Integer> orders = new ArrayList<>(nOrders);
+        for (int i = 0; i < nOrders; i++) orders.add(Integer.parseInt(tokens[p++]));
+
+        int nAisles = Integer.parseInt(tokens[p++]);
+        List<Integer> aisles = new ArrayList<>(nAisles);
+        for (int i = 0; i < nAisles; i++) aisles.add(Integer.parseInt(tokens[p++]));
+
+        return new SolutionFile(orders, aisles);
+    }
+
+    public static SolutionValidator.Report check(File inputFile, File solutionFile) throws IOException {
+        Instance instance = MappedInstanceParser.parse(inputFile.getPath());
+        SolutionFile solution = readSolution(solutionFile);
+
+        return new SolutionValidator(instance).load(solution.orders(), solution.aisles()).report();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        File input    = new File(args[0]);
+        File solution = new File(args[1]);
+
+        if (!input.isDirectory()) {
+            SolutionValidator.Report report = check(input, solution);
+            System.out.println(report);
+            if (!report.feasible()) System.exit(1);
+            return;
+        }
+
+        File[] inputs = input.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (inputs == null) inputs = new File[0];
+        Arrays.sort(inputs);
+
+        int checked = 0, infeasible = 0, missing = 0;
+        for (File inputFile : inputs) {
+            File solutionFile = new File(solution, inputFile.getName());
+            if (!solutionFile.isFile()) {
+                System.out.println(inputFile.getName() + ": no solution");
+                missing++;
+                continue;
+            }
+
+            SolutionValidator.Report report;
+            try {
+                report = check(inputFile, solutionFile);
+            } catch (IOException | RuntimeException e) {
+                System.out.println(inputFile.getName() + ": unreadable solution (" + e.getMessage() + ")");
+                infeasible++;
+                continue;
+            }
+
+            System.out.println(inputFile.getName() + ": " + report);
+            checked++;
+            if (!report.feasible()) infeasible++;
+        }
+
+        System.out.println("Checked " + checked + ", infeasible " + infeasible + ", missing " + missing);
+        if (infeasible > 0 || missing > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,101 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Modo anytime: escribe en la salida cada mejora del IncumbentStore (golosos, busqueda local,
+ * incumbentes de CPLEX o del motor Java), con escritura a temporal + rename (Challenge.writeSolution),
+ * y registra un shutdown hook para que un SIGTERM deje escrita la mejor solucion conocida.
+ *
+ * Las mejoras llegan desde cualquier thread; el listener solo despierta a un thread escritor, que
+ * escribe la ultima version (si llegaron varias mientras escribia, se escribe solo la mas nueva).
+ * El store trabaja con los ids de la instancia reducida: se traducen con la Reduction.
+ */
+public class SolutionCheckpointer {
+
+    private final IncumbentStore store;
+    private final InstanceReducer.Reduction reduction;
+    private final Path outputFile;
+
+    private final Thread writer;
+    private final Thread shutdownHook;
+    private volatile boolean running = true;
+
+    private long writtenVersion;
+    private int checkpoints;
+
+    public SolutionCheckpointer(IncumbentStore store, InstanceReducer.Reduction reduction, Path outputFile) {
+        this.store      = store;
+        this.reduction  = reduction;
+        this.outputFile = outputFile;
+
+        this.writer = new Thread(this::writeLoop, "checkpoint-writer");
+        this.writer.setDaemon(true);
+
+        this.shutdownHook = new Thread(this::writeLatest, "checkpoint-shutdown");
+    }
+
+    public void start() {
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        store.setImprovementListener(incumbent -> LockSupport.unpark(writer));
+
+        // Lo que ya estuviera en el store antes de arrancar
+        LockSupport.unpark(writer);
+    }
+
+    // Deja de escuchar, escribe lo ultimo que falte y saca el hook
+    public void close() {
+        store.setImprovementListener(null);
+        running = false;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        writeLatest();
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Ya se esta apagando la JVM: el hook corre igual y no escribe nada nuevo
+        }
+    }
+
+    public int getCheckpoints() {
+        return checkpoints;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            LockSupport.park(this);
+            if (running) writeLatest();
+        }
+    }
+
+    // Sincronizado: lo llaman el escritor, close y el shutdown hook
+    private synchronized void writeLatest() {
+        IncumbentStore.Incumbent best = store.get();
+        if (best.version() <= writtenVersion) return;
+
+        List<Integer> orders = new ArrayList<>(best.orders().length);
+        List<Integer> aisles = new ArrayList<>(best.aisles().length);
+        for (int o : best.orders()) orders.add(o);
+        for (int a : best.aisles()) aisles.add(a);
+
+        try {
+            Challenge.writeSolution(reduction.originalOrders(orders), reduction.originalAisles(aisles), outputFile);
+            writtenVersion = best.version();
+            checkpoints++;
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint to " + outputFile + ": " + e.getMessage());
+        }
+    }
+}
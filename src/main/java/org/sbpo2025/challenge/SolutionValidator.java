@@ -0,0 +1,196 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Factibilidad y objetivo de una solucion, mantenidos de forma incremental.
+ *
+ * Para cada item se lleva la holgura (stock de los pasillos abiertos menos lo que piden las ordenes
+ * elegidas) y cuantos items tienen holgura negativa, asi que agregar o sacar una orden o un pasillo
+ * cuesta O(items de esa fila) y isFeasible/objective son O(1). report recorre los items una vez para
+ * listar los faltantes.
+ *
+ * No es thread-safe: cada thread usa su propio validador.
+ */
+public class SolutionValidator {
+
+    public record Shortage(int item, int required, int available) {
+        public int missing() {
+            return required - available;
+        }
+    }
+
+    public record Report(boolean feasible, double objective, long units, int nOrders, int nAisles,
+                         List<Shortage> shortages, List<String> violations) {
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "feasible=%b objective=%.6f units=%d orders=%d aisles=%d",
+                    feasible, objective, units, nOrders, nAisles));
+
+            for (String violation : violations) sb.append("\n  ").append(violation);
+            for (Shortage s : shortages)
+                sb.append(String.format(Locale.ROOT, "\n  item %d: requires %d, available %d (missing %d)",
+                        s.item(), s.required(), s.available(), s.missing()));
+
+            return sb.toString();
+        }
+    }
+
+    private final Instance instance;
+
+    private final boolean[] orderChosen;
+    private final boolean[] aisleOpen;
+    private final int[] slack;
+    private long units;
+    private int nChosen;
+    private int nOpen;
+    private int nShort;
+
+    // Errores que no son de stock (ids fuera de rango o repetidos), solo para el reporte
+    private final List<String> idErrors = new ArrayList<>();
+
+    public SolutionValidator(Instance instance) {
+        this.instance    = instance;
+        this.orderChosen = new boolean[instance.nOrders()];
+        this.aisleOpen   = new boolean[instance.nAisles()];
+        this.slack       = new int[instance.nItems()];
+    }
+
+    public void clear() {
+        Arrays.fill(orderChosen, false);
+        Arrays.fill(aisleOpen, false);
+        Arrays.fill(slack, 0);
+        units = 0;
+        nChosen = 0;
+        nOpen = 0;
+        nShort = 0;
+        idErrors.clear();
+    }
+
+    // Carga una solucion desde cero; los ids invalidos o repetidos quedan anotados para report
+    public SolutionValidator load(Iterable<Integer> orders, Iterable<Integer> aisles) {
+        clear();
+
+        for (int a : aisles) {
+            if (a < 0 || a >= aisleOpen.length) idErrors.add("aisle " + a + " does not exist");
+            else if (aisleOpen[a]) idErrors.add("aisle " + a + " is repeated");
+            else addAisle(a);
+        }
+        for (int o : orders) {
+            if (o < 0 || o >= orderChosen.length) idErrors.add("order " + o + " does not exist");
+            else if (orderChosen[o]) idErrors.add("order " + o + " is repeated");
+            else addOrder(o);
+        }
+
+        return this;
+    }
+
+    public void addOrder(int o) {
+        orderChosen[o] = true;
+        nChosen++;
+        units += instance.orderUnits(o);
+        for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+            take(instance.orderItem(k), instance.orderQuantity(k));
+    }
+
+    public void removeOrder(int o) {
+        orderChosen[o] = false;
+        nChosen--;
+        units -= instance.orderUnits(o);
+        for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+            give(instance.orderItem(k), instance.orderQuantity(k));
+    }
+
+    public void addAisle(int a) {
+        aisleOpen[a] = true;
+        nOpen++;
+        for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+            give(instance.aisleItem(k), instance.aisleQuantity(k));
+    }
+
+    public void removeAisle(int a) {
+        aisleOpen[a] = false;
+        nOpen--;
+        for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+            take(instance.aisleItem(k), instance.aisleQuantity(k));
+    }
+
+    private void take(int item, int quantity) {
+        int before = slack[item];
+        slack[item] -= quantity;
+        if (before >= 0 && slack[item] < 0) nShort++;
+    }
+
+    private void give(int item, int quantity) {
+        int before = slack[item];
+        slack[item] += quantity;
+        if (before < 0 && slack[item] >= 0) nShort--;
+    }
+
+    // Si la orden entra con la holgura actual, sin tocar nada
+    public boolean fits(int o) {
+        boolean fits = true;
+        int k = instance.orderStart(o);
+
+        // Se descuenta entrada por entrada por si una orden repite item
+        for (; k < instance.orderEnd(o); k++) {
+            slack[instance.orderItem(k)] -= instance.orderQuantity(k);
+            if (slack[instance.orderItem(k)] < 0) { fits = false; k++; break; }
+        }
+        for (int p = instance.orderStart(o); p < k; p++)
+            slack[instance.orderItem(p)] += instance.orderQuantity(p);
+
+        return fits;
+    }
+
+    public boolean isOrderChosen(int o) { return orderChosen[o]; }
+    public boolean isAisleOpen(int a)   { return aisleOpen[a]; }
+    public int slack(int item)          { return slack[item]; }
+    public long units()                 { return units; }
+    public int nOrders()                { return nChosen; }
+    public int nAisles()                { return nOpen; }
+    public int nShortItems()            { return nShort; }
+
+    public boolean isFeasible() {
+        return nShort == 0 && nChosen > 0 && nOpen > 0 && idErrors.isEmpty()
+                && units >= instance.waveSizeLB() && units <= instance.waveSizeUB();
+    }
+
+    public double objective() {
+        return nChosen == 0 || nOpen == 0 ? 0 : (double) units / nOpen;
+    }
+
+    public Report report() {
+        List<String> violations = new ArrayList<>(idErrors);
+
+        if (nChosen == 0) violations.add("no orders selected");
+        if (nOpen == 0) violations.add("no aisles visited");
+        if (units < instance.waveSizeLB()) violations.add("units " + units + " below lower bound " + instance.waveSizeLB());
+        if (units > instance.waveSizeUB()) violations.add("units " + units + " above upper bound " + instance.waveSizeUB());
+
+        List<Shortage> shortages = new ArrayList<>(nShort);
+        if (nShort > 0) {
+            // Lo disponible se recalcula solo para los items que faltan
+            for (int i = 0; i < slack.length; i++) {
+                if (slack[i] >= 0) continue;
+
+                int available = 0;
+                for (int k = instance.itemAislesStart(i); k < instance.itemAislesEnd(i); k++) {
+                    int a = instance.itemAisle(k);
+                    // Un pasillo que repite el item aparece seguido en el transpuesto
+                    if (!aisleOpen[a] || (k > instance.itemAislesStart(i) && instance.itemAisle(k - 1) == a)) continue;
+                    for (int p = instance.aisleStart(a); p < instance.aisleEnd(a); p++)
+                        if (instance.aisleItem(p) == i) available += instance.aisleQuantity(p);
+                }
+                shortages.add(new Shortage(i, available - slack[i], available));
+            }
+        }
+
+        return new Report(isFeasible(), objective(), units, nChosen, nOpen, shortages, violations);
+    }
+}
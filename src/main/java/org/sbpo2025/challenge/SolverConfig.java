@@ -0,0 +1,54 @@
+package org.sbpo2025.challenge;
+
+/*
+ * Parametros de ejecucion de un solve; el tiempo total incluye lectura y escritura. Cada opcion se
+ * explica donde se usa (SolutionCheckpointer, ParametricSolver, RatioBound, MIPSolver).
+ */
+public record SolverConfig(long timeLimitMillis, int threads, Backend backend, boolean anytime, int parallelLambdas,
+                           double gapThreshold, boolean legacyCallbacks, boolean columnGeneration) {
+
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 600000; // 10 minutes
+
+    // AUTO usa CPLEX si la libreria nativa y la licencia estan disponibles, y si no Java puro
+    public enum Backend { AUTO, CPLEX, JAVA }
+
+    public static SolverConfig defaults() {
+        return new SolverConfig(DEFAULT_TIME_LIMIT_MILLIS, Runtime.getRuntime().availableProcessors(), Backend.AUTO, false, 1, 0, false, false);
+    }
+
+    public SolverConfig withTimeLimitMillis(long timeLimitMillis) {
+        return new SolverConfig(timeLimitMillis, threads, backend, anytime, parallelLambdas, gapThreshold, legacyCallbacks, columnGeneration);
+    }
+
+    public SolverConfig withThreads(int threads) {
+        return new SolverConfig(timeLimitMillis, Math.max(1, threads), backend, anytime, parallelLambdas, gapThreshold, legacyCallbacks, columnGeneration);
+    }
+
+    public SolverConfig withBackend(Backend backend) {
+        return new SolverConfig(timeLimitMillis, threads, backend, anytime, parallelLambdas, gapThreshold, legacyCallbacks, columnGeneration);
+    }
+
+    public SolverConfig withAnytime(boolean anytime) {
+        return new SolverConfig(timeLimitMillis, threads, backend, anytime, parallelLambdas, gapThreshold, legacyCallbacks, columnGeneration);
+    }
+
+    public SolverConfig withParallelLambdas(int parallelLambdas) {
+        return new SolverConfig(timeLimitMillis, threads, backend, anytime, Math.max(1, parallelLambdas), gapThreshold, legacyCallbacks, columnGeneration);
+    }
+
+    public SolverConfig withGapThreshold(double gapThreshold) {
+        return new SolverConfig(timeLimitMillis, threads, backend, anytime, parallelLambdas, Math.max(0, gapThreshold), legacyCallbacks, columnGeneration);
+    }
+
+    public SolverConfig withLegacyCallbacks(boolean legacyCallbacks) {
+        return new SolverConfig(timeLimitMillis, threads, backend, anytime, parallelLambdas, gapThreshold, legacyCallbacks, columnGeneration);
+    }
+
+    public SolverConfig withColumnGeneration(boolean columnGeneration) {
+        return new SolverConfig(timeLimitMillis, threads, backend, anytime, parallelLambdas, gapThreshold, legacyCallbacks, columnGeneration);
+    }
+
+    public long timeLimitSec() {
+        return timeLimitMillis / 1000;
+    }
+}
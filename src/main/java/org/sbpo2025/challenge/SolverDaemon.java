@@ -0,0 +1,454 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+/*
+ * Proceso residente que resuelve instancias que llegan por un socket local (TCP en loopback o Unix),
+ * para no pagar en cada una el arranque de la JVM, la creacion del entorno de CPLEX (CplexPool) y el
+ * calentamiento del JIT (un solve corto de una instancia sintetica al arrancar).
+ *
+ * Protocolo de texto, un pedido por conexion:
+ *
+ *   SOLVE [deadline=<ms>] [priority=<n>] [threads=<n>] bytes=<n>\n<n bytes de instancia>
+ *       QUEUED <job> <en cola>
+ *       STARTED <job> <ms en cola>
+ *       INCUMBENT <job> <ms> <cociente> <ordenes> <pasillos>     (cada mejora, con ids originales)
+ *       SOLUTION <job> <ms> <cociente> <ordenes> <pasillos>
+ *   STATUS     ->  STATUS queued=<n> running=<n> done=<n> pool=<...>
+ *   SHUTDOWN   ->  BYE (termina los trabajos encolados y sale)
+ *
+ * Las listas van separadas por comas ("-" si estan vacias). Los errores son "ERROR [<job>] <mensaje>".
+ * El deadline cuenta desde que llega el pedido, asi que la espera en cola lo consume; si vence antes de
+ * empezar no se resuelve. La cola atiende primero la prioridad mas alta, y a igual prioridad el
+ * deadline mas cercano.
+ *
+ * Uso: java -jar target/ChallengeSBPO2025-1.0.jar --daemon (--port <n> | --socket <path>)
+ *          [--workers <n>] [--threads <perJob>] [--pool <n>] [--warmup <seconds>] [--time-limit <seconds>]
+ *          [--backend auto|cplex|java] [--parallel-lambdas <n>] [--gap-threshold <relativeGap>]
+ */
+public class SolverDaemon {
+
+    private static final String USAGE = "Usage: java -jar target/ChallengeSBPO2025-1.0.jar --daemon (--port <n> | --socket <path>)"
+            + " [--workers <n>] [--threads <perJob>] [--pool <n>] [--warmup <seconds>] [--time-limit <seconds>]"
+            + " [--backend auto|cplex|java] [--parallel-lambdas <n>] [--gap-threshold <relativeGap>]";
+
+    private static final int MAX_HEADER_BYTES = 1024;
+
+    private final SolverConfig config; // time limit por defecto y threads por trabajo
+    private final int workers;
+
+    // Los avisos de parada van detras de todo trabajo real, sea cual sea su prioridad
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>(16,
+            Comparator.comparing(Job::isStop)
+                      .thenComparing(Comparator.comparingInt(Job::priority).reversed())
+                      .thenComparingLong(Job::deadlineNanos)
+                      .thenComparingLong(Job::id));
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger done = new AtomicInteger();
+    private volatile boolean accepting = true;
+
+    private ServerSocketChannel server;
+    private Path socketFile;
+
+    private record Job(long id, int priority, long submittedNanos, long deadlineNanos, int threads, byte[] payload,
+                       Connection connection) {
+
+        // Trabajo vacio que hace salir a un worker
+        static Job stop() {
+            return new Job(Long.MAX_VALUE, 0, 0, Long.MAX_VALUE, 0, null, null);
+        }
+
+        boolean isStop() {
+            return connection == null;
+        }
+    }
+
+    // Las lineas pueden salir desde el worker y desde el thread que manda incumbentes
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final OutputStream out;
+        private boolean broken;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.out = Channels.newOutputStream(channel);
+        }
+
+        synchronized void send(String line) {
+            if (broken) return;
+            try {
+                out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException e) {
+                // El cliente se fue: el trabajo sigue, pero no se le manda nada mas
+                broken = true;
+            }
+        }
+
+        synchronized void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    public SolverDaemon(SolverConfig config, int workers) {
+        this.config = config;
+        this.workers = Math.max(1, workers);
+    }
+
+    public void bindTcp(int port) throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        System.out.println("Escuchando en " + server.getLocalAddress());
+    }
+
+    public void bindUnix(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(path));
+        socketFile = path;
+        System.out.println("Escuchando en " + path);
+    }
+
+    // Un solve corto de una instancia sintetica, para que el JIT compile el camino caliente
+    public void warmUp(long millis) throws IOException {
+        if (millis <= 0) return;
+
+        Path file = Files.createTempFile("daemon-warmup", ".txt");
+        try {
+            new InstanceGenerator(InstanceGenerator.Spec.of(2000, 200, 2000)).generate(file);
+            Instance instance = MappedInstanceParser.parse(file);
+
+            StopWatch stopWatch = StopWatch.createStarted();
+            new ChallengeSolver(instance, config.withTimeLimitMillis(millis)).solve(stopWatch);
+            System.out.println(String.format(Locale.ROOT, "Calentamiento: %.1f s", stopWatch.getNanoTime() / 1e9));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void serve() throws IOException, InterruptedException {
+        List<Thread> workerThreads = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            Thread worker = new Thread(this::workLoop, "daemon-worker-" + w);
+            worker.start();
+            workerThreads.add(worker);
+        }
+
+        ExecutorService readers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "daemon-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            while (accepting) {
+                SocketChannel channel;
+                try {
+                    channel = server.accept();
+                } catch (ClosedChannelException e) {
+                    break; // SHUTDOWN cerro el server
+                }
+                readers.execute(() -> handle(channel));
+            }
+        } finally {
+            readers.shutdown();
+            // Un aviso de parada por worker: sale cuando ya no queda nada encolado
+            for (int w = 0; w < workers; w++) queue.add(Job.stop());
+            for (Thread worker : workerThreads) worker.join();
+
+            if (socketFile != null) Files.deleteIfExists(socketFile);
+            CplexPool.shutdown();
+        }
+    }
+
+    private void handle(SocketChannel channel) {
+        Connection connection = new Connection(channel);
+        boolean queued = false;
+
+        try {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            String[] header = readHeader(in).trim().split("\\s+");
+
+            switch (header[0]) {
+                case "SOLVE"    -> queued = submit(header, in, connection);
+                case "STATUS"   -> connection.send("STATUS queued=" + queue.size() + " running=" + running.get()
+                                                   + " done=" + done.get() + " pool=" + CplexPool.stats().replace(' ', '_'));
+                case "SHUTDOWN" -> {
+                    connection.send("BYE");
+                    accepting = false;
+                    server.close();
+                }
+                default -> connection.send("ERROR comando desconocido: " + header[0]);
+            }
+        } catch (IOException | RuntimeException e) {
+            connection.send("ERROR " + e.getMessage());
+        } finally {
+            if (!queued) connection.close();
+        }
+    }
+
+    private boolean submit(String[] header, InputStream in, Connection connection) throws IOException {
+        long now = System.nanoTime();
+        long deadline = config.timeLimitMillis();
+        int priority = 0, threads = config.threads(), bytes = -1;
+
+        for (int i = 1; i < header.length; i++) {
+            String[] option = header[i].split("=", 2);
+            if (option.length != 2) throw new IOException("opcion invalida: " + header[i]);
+
+            switch (option[0]) {
+                case "deadline" -> deadline = Long.parseLong(option[1]);
+                case "priority" -> priority = Integer.parseInt(option[1]);
+                case "threads"  -> threads  = Math.max(1, Integer.parseInt(option[1]));
+                case "bytes"    -> bytes    = Integer.parseInt(option[1]);
+                default -> throw new IOException("opcion invalida: " + header[i]);
+            }
+        }
+
+        if (bytes < 0) throw new IOException("falta bytes=<n>");
+        if (!accepting) throw new IOException("el daemon se esta apagando");
+
+        byte[] payload = in.readNBytes(bytes);
+        if (payload.length < bytes) throw new IOException("instancia incompleta: " + payload.length + " de " + bytes + " bytes");
+
+        Job job = new Job(sequence.incrementAndGet(), priority, now, now + TimeUnit.MILLISECONDS.toNanos(deadline),
+                          threads, payload, connection);
+        queue.add(job);
+        connection.send("QUEUED " + job.id() + " " + queue.size());
+        return true;
+    }
+
+    private static String readHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            if (line.size() >= MAX_HEADER_BYTES) throw new IOException("encabezado demasiado largo");
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private void workLoop() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (job.isStop()) return;
+
+            running.incrementAndGet();
+            try {
+                run(job);
+            } catch (Exception e) {
+                job.connection().send("ERROR " + job.id() + " " + e.getMessage());
+            } finally {
+                running.decrementAndGet();
+                done.incrementAndGet();
+                job.connection().close();
+            }
+        }
+    }
+
+    private void run(Job job) throws IOException {
+        Connection connection = job.connection();
+        long start = System.nanoTime();
+        long remaining = job.deadlineNanos() - start;
+        if (remaining <= 0) {
+            connection.send("ERROR " + job.id() + " vencio el deadline en la cola");
+            return;
+        }
+
+        connection.send("STARTED " + job.id() + " " + TimeUnit.NANOSECONDS.toMillis(start - job.submittedNanos()));
+
+        StopWatch stopWatch = StopWatch.createStarted();
+        Instance instance = MappedInstanceParser.parse(ByteBuffer.wrap(job.payload()));
+        SolverConfig jobConfig = config.withThreads(job.threads()).withTimeLimitMillis(TimeUnit.NANOSECONDS.toMillis(remaining));
+        ChallengeSolver solver = new ChallengeSolver(instance, jobConfig);
+
+        IncumbentStore store = solver.getParametricSolver().getIncumbentStore();
+        IncumbentSender sender = new IncumbentSender(job, store, solver.getReduction(), job.submittedNanos());
+        sender.start();
+
+        ChallengeSolution solution;
+        try {
+            solution = solver.solve(stopWatch);
+        } finally {
+            sender.close();
+        }
+
+        connection.send(line("SOLUTION", job.id(), job.submittedNanos(), solver.computeObjectiveFunction(solution),
+                             solution.orders(), solution.aisles()));
+
+        System.out.println(String.format(Locale.ROOT, "Trabajo %d: %.6f en %.1f s (%d threads, prioridad %d)", job.id(),
+                solver.computeObjectiveFunction(solution), (System.nanoTime() - job.submittedNanos()) / 1e9,
+                job.threads(), job.priority()));
+    }
+
+    private static String line(String kind, long job, long submittedNanos, double ratio,
+                               Iterable<Integer> orders, Iterable<Integer> aisles) {
+        return String.format(Locale.ROOT, "%s %d %d %.6f %s %s", kind, job,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedNanos), ratio, ids(orders), ids(aisles));
+    }
+
+    private static String ids(Iterable<Integer> ids) {
+        StringJoiner joiner = new StringJoiner(",");
+        joiner.setEmptyValue("-");
+        for (int id : ids) joiner.add(Integer.toString(id));
+        return joiner.toString();
+    }
+
+    /*
+     * Como SolutionCheckpointer: el listener del store solo despierta a este thread, que manda la ultima
+     * version (con ids originales) y se saltea las intermedias si llegaron varias mientras mandaba.
+     */
+    private static final class IncumbentSender {
+        private final Job job;
+        private final IncumbentStore store;
+        private final InstanceReducer.Reduction reduction;
+        private final long submittedNanos;
+        private final Thread thread;
+        private volatile boolean running = true;
+        private long sentVersion;
+
+        IncumbentSender(Job job, IncumbentStore store, InstanceReducer.Reduction reduction, long submittedNanos) {
+            this.job = job;
+            this.store = store;
+            this.reduction = reduction;
+            this.submittedNanos = submittedNanos;
+            this.thread = new Thread(this::sendLoop, "daemon-incumbents-" + job.id());
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+            store.setImprovementListener(incumbent -> LockSupport.unpark(thread));
+            LockSupport.unpark(thread);
+        }
+
+        void close() {
+            store.setImprovementListener(null);
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void sendLoop() {
+            while (running) {
+                LockSupport.park(this);
+                if (running) sendLatest();
+            }
+        }
+
+        private void sendLatest() {
+            IncumbentStore.Incumbent best = store.get();
+            if (best.version() <= sentVersion || best.orders().length == 0) return;
+            sentVersion = best.version();
+
+            List<Integer> orders = new ArrayList<>(best.orders().length);
+            List<Integer> aisles = new ArrayList<>(best.aisles().length);
+            for (int o : best.orders()) orders.add(o);
+            for (int a : best.aisles()) aisles.add(a);
+
+            job.connection().send(line("INCUMBENT", job.id(), submittedNanos, best.ratio(),
+                    reduction.originalOrders(orders), reduction.originalAisles(aisles)));
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Integer port = null;
+        Path socket = null;
+        int workers = 1;
+        int threads = -1;
+        int pool = -1;
+        long warmup = 2;
+        SolverConfig config = SolverConfig.defaults();
+
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            switch (args[i]) {
+                case "--port"             -> port    = Integer.parseInt(args[++i]);
+                case "--socket"           -> socket  = Path.of(args[++i]);
+                case "--workers"          -> workers = Integer.parseInt(args[++i]);
+                case "--threads"          -> threads = Integer.parseInt(args[++i]);
+                case "--pool"             -> pool    = Integer.parseInt(args[++i]);
+                case "--warmup"           -> warmup  = Long.parseLong(args[++i]);
+                case "--time-limit"       -> config  = config.withTimeLimitMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(args[++i])));
+                case "--backend"          -> config  = config.withBackend(SolverConfig.Backend.valueOf(args[++i].toUpperCase()));
+                case "--parallel-lambdas" -> config  = config.withParallelLambdas(Integer.parseInt(args[++i]));
+                case "--gap-threshold"    -> config  = config.withGapThreshold(Double.parseDouble(args[++i]));
+                default -> {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+
+        if ((port == null) == (socket == null)) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        if (threads <= 0) threads = Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, workers));
+        config = config.withThreads(threads);
+
+        // Un entorno por solver de cada worker (con lambdas en paralelo cada trabajo usa varios)
+        if (pool < 0) pool = workers * Math.max(1, config.parallelLambdas());
+        if (pool > 0 && config.backend() != SolverConfig.Backend.JAVA) {
+            CplexPool.enable(pool);
+            if (CplexPool.prewarm(pool)) System.out.println("Pool de CPLEX: " + CplexPool.stats());
+        }
+
+        SolverDaemon daemon = new SolverDaemon(config, workers);
+        if (port != null) daemon.bindTcp(port);
+        else daemon.bindUnix(socket);
+
+        daemon.warmUp(TimeUnit.SECONDS.toMillis(warmup));
+        daemon.serve();
+    }
+}
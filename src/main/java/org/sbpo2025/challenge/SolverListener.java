@@ -0,0 +1,43 @@
+package org.sbpo2025.challenge;
+
+import java.util.Map;
+
+/*
+ * Eventos del solve para telemetria: tiempos de cada fase (lectura, reduccion, golosos, armado del
+ * modelo, escritura), cambios del modelo del subproblema, la cota final y el detalle de cada
+ * iteracion de Dinkelbach. Todos los metodos tienen una implementacion vacia, cada listener escucha
+ * lo que le interesa.
+ *
+ * En modo batch varios workers llaman al mismo listener a la vez: las implementaciones tienen que
+ * ser thread-safe.
+ */
+public interface SolverListener {
+
+    SolverListener NONE = new SolverListener() {};
+
+    record IterationEvent(int iteration, double lambda, double objective, double upperBound, double gapTolerance,
+                          boolean localSearch, long neighbourhoodSize, long iterationLimitNanos, int predictedSteps, boolean abortedEarly,
+                          long wallNanos, long modelUpdateNanos, long solveNanos, double bestRatio) {
+    }
+
+    // Cota del cociente al terminar: la mejor y quien la dio, la lagrangiana y si corto el solve por gap
+    record BoundEvent(double bound, String source, double lagrangianBound, int lagrangianIterations,
+                      double bestRatio, boolean gapStop) {
+    }
+
+    default void onPhase(String phase, long nanos) {
+    }
+
+    default void onIteration(IterationEvent event) {
+    }
+
+    // Armado o cambio del modelo del subproblema (kind: coverage, ...) con sus contadores
+    default void onModel(String kind, long nanos, Map<String, Long> counts) {
+    }
+
+    default void onBound(BoundEvent event) {
+    }
+
+    default void onFinish(int iterations, double bestRatio) {
+    }
+}
@@ -0,0 +1,391 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Sesion larga sobre un pool de ordenes que cambia: addOrders, removeOrders y updateAisleStock
+ * acumulan cambios y solve() los aplica sobre los modelos del solve anterior (updateInstance) en lugar
+ * de rearmarlos desde el archivo.
+ *
+ * Los ids son los de la sesion: las ordenes nuevas van al final y las canceladas quedan sin items (no
+ * se renumera nada, por eso no se pasa por InstanceReducer). Los pasillos y el catalogo de items son
+ * fijos; solo cambia su stock.
+ *
+ * Cada solve arranca del incumbente anterior reparado (sin las ordenes canceladas y sin las que ya no
+ * entran con el stock nuevo): su cociente es el primer lambda de Dinkelbach y el MIP start de los
+ * modelos, salvo que los golosos encuentren algo mejor. El lambda del solve anterior no se puede usar
+ * tal cual porque con menos stock puede no ser alcanzable y el corte dejaria el modelo infactible.
+ *
+ * Uso: java -cp target/ChallengeSBPO2025-1.0.jar org.sbpo2025.challenge.SolverSession <inputFile>
+ *          [--deltas <n>] [--time-limit <seconds>] [--resolve-time-limit <seconds>] [--backend auto|cplex|java] [--seed <n>]
+ *
+ * El main compara, despues de cada cambio chico al azar, el re-solve de la sesion (con
+ * --resolve-time-limit, por defecto un cuarto de --time-limit) contra resolver en frio la misma
+ * instancia con --time-limit.
+ */
+public class SolverSession {
+
+    private static final String USAGE = "Usage: java -cp target/ChallengeSBPO2025-1.0.jar org.sbpo2025.challenge.SolverSession <inputFile>"
+            + " [--deltas <n>] [--time-limit <seconds>] [--resolve-time-limit <seconds>] [--backend auto|cplex|java] [--seed <n>]";
+
+    private final SolverConfig config;
+    private final SolverListener listener;
+    private final int nItems;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+
+    // Filas de la instancia de la sesion, se arma de nuevo solo si cambiaron
+    private final List<int[]> orderItems = new ArrayList<>();
+    private final List<int[]> orderQuantities = new ArrayList<>();
+    private final int[][] aisleItems;
+    private final int[][] aisleQuantities;
+    private Instance instance;
+    private boolean dirty;
+
+    private ParametricSolver solver;
+    private long resolveTimeLimitMillis;
+    private List<Integer> lastOrders = new ArrayList<>();
+    private List<Integer> lastAisles = new ArrayList<>();
+
+    public SolverSession(Instance instance, SolverConfig config) {
+        this(instance, config, SolverListener.NONE);
+    }
+
+    public SolverSession(Instance instance, SolverConfig config, SolverListener listener) {
+        this.config = config;
+        this.listener = listener;
+        this.nItems = instance.nItems();
+        this.waveSizeLB = instance.waveSizeLB();
+        this.waveSizeUB = instance.waveSizeUB();
+        this.instance = instance;
+        this.resolveTimeLimitMillis = config.timeLimitMillis();
+
+        for (int o = 0; o < instance.nOrders(); o++) {
+            orderItems.add(orderItems(instance, o));
+            orderQuantities.add(orderQuantities(instance, o));
+        }
+
+        aisleItems = new int[instance.nAisles()][];
+        aisleQuantities = new int[instance.nAisles()][];
+        for (int a = 0; a < instance.nAisles(); a++) {
+            int n = instance.aisleDistinct(a);
+            aisleItems[a] = new int[n];
+            aisleQuantities[a] = new int[n];
+            for (int j = 0; j < n; j++) {
+                aisleItems[a][j] = instance.aisleItem(instance.aisleStart(a) + j);
+                aisleQuantities[a][j] = instance.aisleQuantity(instance.aisleStart(a) + j);
+            }
+        }
+    }
+
+    private static int[] orderItems(Instance instance, int o) {
+        int[] items = new int[instance.orderDistinct(o)];
+        for (int j = 0; j < items.length; j++) items[j] = instance.orderItem(instance.orderStart(o) + j);
+        return items;
+    }
+
+    private static int[] orderQuantities(Instance instance, int o) {
+        int[] quantities = new int[instance.orderDistinct(o)];
+        for (int j = 0; j < quantities.length; j++) quantities[j] = instance.orderQuantity(instance.orderStart(o) + j);
+        return quantities;
+    }
+
+    // Limite de los solves que arrancan de un incumbente anterior; el primero usa el de la configuracion
+    public void setResolveTimeLimitMillis(long resolveTimeLimitMillis) {
+        this.resolveTimeLimitMillis = resolveTimeLimitMillis;
+    }
+
+    public Instance getInstance() {
+        if (dirty) {
+            instance = build();
+            dirty = false;
+        }
+        return instance;
+    }
+
+    // Devuelve los ids que les tocaron, en el mismo orden. Se valida todo antes de agregar nada
+    public int[] addOrders(int[][] items, int[][] quantities) {
+        if (quantities.length != items.length)
+            throw new IllegalArgumentException("Ordenes con items: " + items.length + ", con cantidades: " + quantities.length);
+
+        for (int j = 0; j < items.length; j++) {
+            if (quantities[j].length != items[j].length)
+                throw new IllegalArgumentException("Orden " + j + ": " + items[j].length + " items y " + quantities[j].length + " cantidades");
+            for (int item : items[j])
+                if (item < 0 || item >= nItems) throw new IllegalArgumentException("Item fuera de rango: " + item);
+            for (int quantity : quantities[j])
+                if (quantity <= 0) throw new IllegalArgumentException("Cantidad no positiva: " + quantity);
+        }
+
+        int[] ids = new int[items.length];
+        for (int j = 0; j < items.length; j++) {
+            ids[j] = orderItems.size();
+            orderItems.add(items[j].clone());
+            orderQuantities.add(quantities[j].clone());
+        }
+
+        dirty |= items.length > 0;
+        return ids;
+    }
+
+    // Las ordenes canceladas quedan sin items; su id no se reusa
+    public void removeOrders(Collection<Integer> orders) {
+        for (int o : orders) {
+            if (orderItems.get(o).length == 0) continue;
+            orderItems.set(o, new int[0]);
+            orderQuantities.set(o, new int[0]);
+            dirty = true;
+        }
+    }
+
+    // Stock nuevo (no un delta) del item en el pasillo; con 0 la entrada se borra
+    public void updateAisleStock(int aisle, int item, int stock) {
+        if (item < 0 || item >= nItems) throw new IllegalArgumentException("Item fuera de rango: " + item);
+
+        int[] items = aisleItems[aisle];
+        int[] quantities = aisleQuantities[aisle];
+        int n = 0;
+        boolean found = false;
+        for (int k = 0; k < items.length; k++) {
+            if (items[k] == item) {
+                // Si el pasillo repetia el item queda una sola entrada
+                if (found || stock == 0) continue;
+                quantities[k] = stock;
+                found = true;
+            }
+            items[n] = items[k];
+            quantities[n++] = quantities[k];
+        }
+
+        if (!found && stock > 0) {
+            items = Arrays.copyOf(items, n + 1);
+            quantities = Arrays.copyOf(quantities, n + 1);
+            items[n] = item;
+            quantities[n++] = stock;
+        }
+
+        aisleItems[aisle] = Arrays.copyOf(items, n);
+        aisleQuantities[aisle] = Arrays.copyOf(quantities, n);
+        dirty = true;
+    }
+
+    private Instance build() {
+        int[] orderOffsets = new int[orderItems.size() + 1];
+        for (int o = 0; o < orderItems.size(); o++) orderOffsets[o + 1] = orderOffsets[o] + orderItems.get(o).length;
+
+        int[] items = new int[orderOffsets[orderItems.size()]];
+        int[] quantities = new int[items.length];
+        for (int o = 0; o < orderItems.size(); o++) {
+            System.arraycopy(orderItems.get(o), 0, items, orderOffsets[o], orderItems.get(o).length);
+            System.arraycopy(orderQuantities.get(o), 0, quantities, orderOffsets[o], orderItems.get(o).length);
+        }
+
+        int[] aisleOffsets = new int[aisleItems.length + 1];
+        for (int a = 0; a < aisleItems.length; a++) aisleOffsets[a + 1] = aisleOffsets[a] + aisleItems[a].length;
+
+        int[] stockItems = new int[aisleOffsets[aisleItems.length]];
+        int[] stock = new int[stockItems.length];
+        for (int a = 0; a < aisleItems.length; a++) {
+            System.arraycopy(aisleItems[a], 0, stockItems, aisleOffsets[a], aisleItems[a].length);
+            System.arraycopy(aisleQuantities[a], 0, stock, aisleOffsets[a], aisleItems[a].length);
+        }
+
+        return new Instance(nItems, orderOffsets, items, quantities, aisleOffsets, stockItems, stock, waveSizeLB, waveSizeUB);
+    }
+
+    public ChallengeSolution solve() {
+        long start = System.nanoTime();
+        Instance current = getInstance();
+
+        List<Integer> orders = new ArrayList<>(lastOrders);
+        List<Integer> aisles = new ArrayList<>(lastAisles);
+        double ratio = repair(current, orders, aisles);
+
+        long timeLimitMillis = solver == null ? config.timeLimitMillis() : resolveTimeLimitMillis;
+        solver = solver == null ? new ParametricSolver(current, config, listener) : new ParametricSolver(current, solver);
+        solver.getSubproblemSolver().startFromGreedySolution(ratio);
+
+        TimeBudget budget = new TimeBudget(start, TimeUnit.MILLISECONDS.toNanos(timeLimitMillis), 0,
+                solver.getSubproblemSolver().getPrecision());
+        solver.solveMILFP(orders, aisles, 0.4, budget);
+
+        orders.removeIf(o -> current.orderDistinct(o) == 0);
+        if (!new SolutionValidator(current).load(orders, aisles).isFeasible()) {
+            orders.clear();
+            aisles.clear();
+        }
+
+        lastOrders = orders;
+        lastAisles = aisles;
+        return new ChallengeSolution(Set.copyOf(orders), Set.copyOf(aisles));
+    }
+
+    /*
+     * Deja en orders/aisles lo que queda factible del incumbente anterior en current y devuelve su
+     * cociente (0 si no queda nada). Se sacan las ordenes canceladas y, mientras falte stock, la ultima
+     * orden que pide un item que falta; despues se agregan las que entran en los mismos pasillos.
+     */
+    private static double repair(Instance current, List<Integer> orders, List<Integer> aisles) {
+        orders.removeIf(o -> current.orderDistinct(o) == 0);
+
+        SolutionValidator validator = new SolutionValidator(current).load(orders, aisles);
+        for (int j = orders.size() - 1; j >= 0 && validator.nShortItems() > 0; j--) {
+            int o = orders.get(j);
+            for (int k = current.orderStart(o); k < current.orderEnd(o); k++) {
+                if (validator.slack(current.orderItem(k)) < 0) {
+                    validator.removeOrder(o);
+                    orders.remove(j);
+                    break;
+                }
+            }
+        }
+
+        if (aisles.isEmpty() || validator.nShortItems() > 0) {
+            orders.clear();
+            aisles.clear();
+            return 0;
+        }
+
+        // Con la holgura que queda en los pasillos abiertos entran otras ordenes (las nuevas tambien),
+        // primero las de mas unidades. Si no llega a LB se abre el pasillo cerrado de mas unidades y
+        // se vuelve a llenar
+        Integer[] candidates = new Integer[current.nOrders()];
+        for (int o = 0; o < candidates.length; o++) candidates[o] = o;
+        Arrays.sort(candidates, (p, q) -> Integer.compare(current.orderUnits(q), current.orderUnits(p)));
+
+        do {
+            for (int o : candidates) {
+                if (validator.isOrderChosen(o) || current.orderDistinct(o) == 0) continue;
+                if (validator.units() + current.orderUnits(o) > current.waveSizeUB() || !validator.fits(o)) continue;
+                validator.addOrder(o);
+                orders.add(o);
+            }
+        } while (validator.units() < current.waveSizeLB() && openLargestAisle(current, validator, aisles));
+
+        if (validator.isFeasible()) return validator.objective();
+
+        orders.clear();
+        aisles.clear();
+        return 0;
+    }
+
+    private static boolean openLargestAisle(Instance current, SolutionValidator validator, List<Integer> aisles) {
+        int best = -1;
+        for (int a = 0; a < current.nAisles(); a++)
+            if (!validator.isAisleOpen(a) && (best < 0 || current.aisleUnits(a) > current.aisleUnits(best))) best = a;
+
+        if (best < 0) return false;
+        validator.addAisle(best);
+        aisles.add(best);
+        return true;
+    }
+
+    public void end() {
+        if (solver != null) solver.end();
+        solver = null;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        int deltas = 5;
+        long seed = 0;
+        long resolveTimeLimit = -1;
+        SolverConfig config = SolverConfig.defaults();
+
+        for (int i = 1; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            switch (args[i]) {
+                case "--deltas"             -> deltas = Integer.parseInt(args[++i]);
+                case "--time-limit"         -> config = config.withTimeLimitMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(args[++i])));
+                case "--resolve-time-limit" -> resolveTimeLimit = TimeUnit.SECONDS.toMillis(Long.parseLong(args[++i]));
+                case "--backend"            -> config = config.withBackend(SolverConfig.Backend.valueOf(args[++i].toUpperCase()));
+                case "--seed"               -> seed   = Long.parseLong(args[++i]);
+                default -> {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+
+        Instance instance = MappedInstanceParser.parse(args[0]);
+        Random random = new Random(seed);
+        SolverSession session = new SolverSession(instance, config);
+        session.setResolveTimeLimitMillis(resolveTimeLimit >= 0 ? resolveTimeLimit : config.timeLimitMillis() / 4);
+
+        List<String> rows = new ArrayList<>();
+        long start = System.nanoTime();
+        ChallengeSolution solution = session.solve();
+        rows.add(String.format(Locale.ROOT, "0,cold,%.1f,%.6f,,", (System.nanoTime() - start) / 1e6,
+                objective(session.getInstance(), solution)));
+
+        for (int d = 1; d <= deltas; d++) {
+            randomDelta(session, solution, random);
+
+            start = System.nanoTime();
+            solution = session.solve();
+            double warmMillis = (System.nanoTime() - start) / 1e6;
+
+            // La misma instancia desde cero, con solvers nuevos
+            SolverSession cold = new SolverSession(session.getInstance(), config);
+            start = System.nanoTime();
+            ChallengeSolution coldSolution = cold.solve();
+            double coldMillis = (System.nanoTime() - start) / 1e6;
+            cold.end();
+
+            rows.add(String.format(Locale.ROOT, "%d,warm,%.1f,%.6f,%.1f,%.6f", d, warmMillis,
+                    objective(session.getInstance(), solution), coldMillis, objective(session.getInstance(), coldSolution)));
+        }
+
+        session.end();
+
+        System.out.println("delta,mode,millis,objective,cold_millis,cold_objective");
+        rows.forEach(System.out::println);
+    }
+
+    // Cancela una orden de la solucion, llegan dos copias de ordenes al azar y baja un stock en 1
+    private static void randomDelta(SolverSession session, ChallengeSolution solution, Random random) {
+        Instance current = session.getInstance();
+
+        if (!solution.orders().isEmpty()) {
+            List<Integer> picked = new ArrayList<>(solution.orders());
+            picked.sort(null);
+            session.removeOrders(List.of(picked.get(random.nextInt(picked.size()))));
+        }
+
+        int[][] items = new int[2][];
+        int[][] quantities = new int[2][];
+        for (int j = 0; j < 2; j++) {
+            int o = random.nextInt(current.nOrders());
+            while (current.orderDistinct(o) == 0) o = random.nextInt(current.nOrders());
+            items[j] = orderItems(current, o);
+            quantities[j] = orderQuantities(current, o);
+        }
+        session.addOrders(items, quantities);
+
+        int a = random.nextInt(current.nAisles());
+        if (current.aisleDistinct(a) > 0) {
+            int k = current.aisleStart(a) + random.nextInt(current.aisleDistinct(a));
+            session.updateAisleStock(a, current.aisleItem(k), current.aisleQuantity(k) - 1);
+        }
+    }
+
+    private static double objective(Instance instance, ChallengeSolution solution) {
+        return new SolutionValidator(instance).load(solution.orders(), solution.aisles()).objective();
+    }
+}
@@ -0,0 +1,73 @@
+package org.sbpo2025.challenge;
+
+import java.util.List;
+
+/*
+ * Subproblema de cada iteracion de Dinkelbach:
+ *
+ *     F(lambda) = max sum(u_o X_o) - lambda sum(Y_a)
+ *
+ * sujeto a cobertura de items, LB <= sum(u_o X_o) <= UB, al menos un pasillo y el corte
+ * sum(u_o X_o) >= k sum(Y_a). Lo implementan MIPSolver (CPLEX) y JavaMIPSolver (Java puro).
+ */
+public interface SubproblemSolver {
+
+    // Tiempos de un solveWith: actualizar el modelo (objetivo, corte, MIP starts) y resolverlo
+    record IterationTiming(double lambda, long modelUpdateNanos, long solveNanos) {
+    }
+
+    // Cota inferior del cociente con la que arranca (y el k inicial del corte)
+    void startFromGreedySolution(double greedySolutionValue);
+
+    // Mejor cociente encontrado hasta ahora
+    double getCurrentBest();
+
+    // Arma el modelo una unica vez por instancia, usando la solucion dada como inicial
+    void generateModel(List<Integer> used_orders, List<Integer> used_aisles);
+
+    void updateCutConstraint(double k);
+
+    // Solucion encontrada fuera del solver (busqueda local): sube el mejor cociente si corresponde
+    // y se usa como solucion inicial del proximo solve
+    void addMIPStart(List<Integer> orders, List<Integer> aisles, double ratio);
+
+    // Incumbentes compartidos: durante el solve se inyectan los que aparezcan en el store y se
+    // publican ahi los que encuentre el solver
+    void setIncumbentStore(IncumbentStore incumbentStore);
+
+    // Destino de los eventos onModel; el motor en Java no tiene nada para informar
+    default void setListener(SolverListener listener) {
+    }
+
+    // Resuelve F(q) sin pasar el deadline del budget; al vencer el limite de la iteracion corta si ya
+    // tiene un entero y si no lo extiende. Si encuentra un cociente mejor reemplaza used_orders/used_aisles.
+    // Devuelve el valor objetivo del mejor entero encontrado o -1 si no encontro ninguno.
+    double solveWith(double q, List<Integer> used_orders, List<Integer> used_aisles,
+                     double gapTolerance, TimeBudget budget,
+                     boolean localSearch, long neighbourhoodSize);
+
+    // True si el ultimo solve lo corto el limite de la iteracion con un incumbente (o CPLEX por cota negativa)
+    boolean wasAbortedEarly();
+
+    // Tiempos del ultimo solveWith (la actualizacion incluye el updateCutConstraint previo)
+    IterationTiming getLastIterationTiming();
+
+    // Cota superior de F(q) del ultimo solve
+    double getUpperBound();
+
+    // True si el ultimo solve probo que no hay solucion (o no puede seguir mejorando)
+    boolean isSolutionInfeasible();
+
+    // True solo si el ultimo solve probo que el modelo no tiene soluciones enteras; cortar por limite
+    // (filas, tiempo) no cuenta. Solo asi lambda es cota del cociente
+    boolean isInfeasibilityProven();
+
+    double getPrecision();
+
+    // Siguiente ola de WavePlanner o cambio de SolverSession: misma numeracion, las ordenes que salieron
+    // quedan sin items, el stock de los pasillos puede cambiar y las ordenes nuevas van al final. El
+    // modelo se actualiza en lugar de rearmarse
+    void updateInstance(Instance residual);
+
+    void end();
+}
@@ -0,0 +1,156 @@
+package org.sbpo2025.challenge;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Reparte el tiempo de un solve entre las iteraciones de Dinkelbach. Reemplaza a TimeListener, que
+ * trabajaba en segundos enteros, achicaba el limite a la duracion de la ultima iteracion o lo
+ * duplicaba, y dependia de un margen fijo de 5 segundos.
+ *
+ * Todo se mide en nanosegundos contra un deadline absoluto (System.nanoTime), al que se le resta un
+ * margen de escritura medido (ver Challenge.measureWriteNanos) mas un margen de seguridad
+ * proporcional al presupuesto total.
+ *
+ * Limite de cada iteracion = tiempo restante / pasos de Newton que faltan, estimados a partir de como
+ * viene bajando F(lambda): con F_k / F_(k-1) = r se estima que faltan log(eps / F_k) / log(r) pasos.
+ * Con F(lambda) ya en 0 las iteraciones que quedan solo ajustan el gap y se reparten entre
+ * REFINE_STEPS. Si se vence el limite y el solver no tiene incumbente, el limite se duplica
+ * (sin pasar el deadline).
+ *
+ * Los callbacks de CPLEX leen el limite desde sus threads, por eso los campos que cambian durante
+ * un solve son volatile.
+ *
+ * En el modo paralelo de ParametricSolver los solves optimistas usan fixedIteration(): el mismo
+ * deadline y limite que la iteracion en curso, pero sin extenderlo.
+ *
+ * stop() da el presupuesto por vencido antes del deadline (RatioBound lo llama cuando el gap contra la
+ * cota superior ya es chico): el loop termina y el solve en curso corta como si se hubiera vencido su
+ * limite. Las copias de fixedIteration() comparten la marca.
+ */
+public class TimeBudget {
+
+    private static final int    DEFAULT_STEPS       = 6;   // Hasta tener dos valores de F
+    private static final int    REFINE_STEPS        = 4;
+    private static final int    MAX_STEPS           = 20;
+    private static final long   MAX_INITIAL_LIMIT   = 10_000_000_000L; // 10 s, como el TimeListener original
+    private static final long   MIN_ITERATION_LIMIT = 100_000_000L;    // 100 ms
+    private static final double SAFETY_FRACTION     = 0.01;
+    private static final long   MIN_SAFETY          = 500_000_000L;    // 500 ms
+
+    private final long deadlineNanos; // Ya descontados los margenes
+    private final long marginNanos;
+    private final double precision;
+    private final boolean extendable;
+    private final AtomicBoolean stopped;
+
+    private volatile long iterationStart;
+    private volatile long iterationLimit;
+
+    private double previousF = Double.NaN;
+    private double lastF = Double.NaN;
+    private int predictedSteps = DEFAULT_STEPS;
+
+    // startNanos/totalNanos: presupuesto completo (incluye lectura y escritura)
+    public TimeBudget(long startNanos, long totalNanos, long writeMarginNanos, double precision) {
+        this.marginNanos   = writeMarginNanos + Math.max(MIN_SAFETY, (long) (SAFETY_FRACTION * totalNanos));
+        this.deadlineNanos = startNanos + totalNanos - marginNanos;
+        this.precision     = precision;
+        this.extendable    = true;
+        this.stopped       = new AtomicBoolean();
+        this.iterationLimit = Math.min(MAX_INITIAL_LIMIT, Math.max(MIN_ITERATION_LIMIT, remainingNanos() / DEFAULT_STEPS));
+    }
+
+    private TimeBudget(TimeBudget iteration) {
+        this.marginNanos    = iteration.marginNanos;
+        this.deadlineNanos  = iteration.deadlineNanos;
+        this.precision      = iteration.precision;
+        this.extendable     = false;
+        this.stopped        = iteration.stopped;
+        this.iterationStart = iteration.iterationStart;
+        this.iterationLimit = iteration.iterationLimit;
+    }
+
+    // Copia de la iteracion en curso cuyo limite no se extiende
+    public TimeBudget fixedIteration() {
+        return new TimeBudget(this);
+    }
+
+    public long deadlineNanos()  { return deadlineNanos; }
+    public long marginNanos()    { return marginNanos; }
+    public int predictedSteps()  { return predictedSteps; }
+
+    public long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public boolean expired() {
+        return stopped.get() || System.nanoTime() >= deadlineNanos;
+    }
+
+    // Devuelve true solo en la primera llamada
+    public boolean stop() {
+        return stopped.compareAndSet(false, true);
+    }
+
+    public boolean stopped() {
+        return stopped.get();
+    }
+
+    // Arranca una iteracion y devuelve su limite
+    public long startIteration() {
+        long remaining = remainingNanos();
+        long limit = remaining / Math.max(1, predictedSteps);
+
+        // La primera iteracion (sin F todavia) queda con el limite inicial
+        if (!Double.isNaN(lastF)) this.iterationLimit = Math.max(MIN_ITERATION_LIMIT, limit);
+        this.iterationLimit = Math.min(this.iterationLimit, remaining);
+        this.iterationStart = System.nanoTime();
+
+        return this.iterationLimit;
+    }
+
+    public long iterationLimitNanos() {
+        return iterationLimit;
+    }
+
+    public long iterationElapsedNanos() {
+        return System.nanoTime() - iterationStart;
+    }
+
+    public boolean iterationLimitReached() {
+        return stopped.get() || iterationElapsedNanos() >= iterationLimit;
+    }
+
+    // Se vencio el limite sin incumbente: se duplica sin pasar el deadline. Devuelve false si no se
+    // puede extender y el solve tiene que cortar. Lo llaman a la vez varios threads de CPLEX (callback
+    // generico en LocalProgress): si otro ya lo extendio no se vuelve a duplicar
+    public synchronized boolean extendIteration() {
+        if (!extendable || stopped.get()) return false;
+        if (iterationElapsedNanos() < iterationLimit) return true;
+        this.iterationLimit = Math.min(2 * iterationLimit, deadlineNanos - iterationStart);
+        return true;
+    }
+
+    // Una iteracion rapida es la que uso menos de la mitad de su limite
+    public boolean fastIteration(long durationNanos) {
+        return durationNanos < iterationLimit / 2;
+    }
+
+    // Registra F(lambda) de la iteracion que termino y reestima cuantos pasos faltan
+    public void endIteration(double f) {
+        if (f < 0) return; // Sin solucion entera, no dice nada de la convergencia
+
+        previousF = lastF;
+        lastF = f;
+
+        if (lastF <= precision) {
+            predictedSteps = REFINE_STEPS;
+        } else if (!Double.isNaN(previousF) && previousF > lastF) {
+            double rate = lastF / previousF;
+            double steps = Math.log(precision / lastF) / Math.log(rate);
+            predictedSteps = (int) Math.max(1, Math.min(MAX_STEPS, Math.ceil(steps)));
+        } else {
+            predictedSteps = DEFAULT_STEPS;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Varias olas de un mismo pool de ordenes: resuelve una ola, saca las ordenes elegidas, descuenta del
+ * stock de los pasillos elegidos lo que se llevaron y vuelve a resolver, hasta maxWaves olas o hasta
+ * que no quede ninguna ola factible.
+ *
+ * La instancia se reduce una sola vez, en el constructor, sin la regla de dominancia (ver
+ * InstanceReducer), y las olas siguientes mantienen la numeracion: las ordenes que ya salieron quedan
+ * sin items. Asi cada ola reusa los modelos de la anterior (ParametricSolver(residual, previous) y
+ * updateInstance) en lugar de rearmarlos, y los golosos arrancan de lo que queda del pool.
+ *
+ * Cada ola tiene el limite de tiempo completo de la configuracion.
+ *
+ * Uso: java -jar target/ChallengeSBPO2025-1.0.jar --waves <inputFile> <outputDir>
+ *          [--count <k>] [--time-limit <seconds>] [--backend auto|cplex|java] [--parallel-lambdas <n>]
+ */
+public class WavePlanner {
+
+    private static final String USAGE = "Usage: java -jar target/ChallengeSBPO2025-1.0.jar --waves <inputFile> <outputDir>"
+            + " [--count <k>] [--time-limit <seconds>] [--backend auto|cplex|java] [--parallel-lambdas <n>]";
+
+    // Ordenes y pasillos con los ids de la instancia original
+    public record Wave(int index, ChallengeSolution solution, long units, double objective, long millis) {
+    }
+
+    private final SolverConfig config;
+    private final SolverListener listener;
+    private final InstanceReducer.Reduction reduction;
+
+    public WavePlanner(Instance instance, SolverConfig config) {
+        this(instance, config, SolverListener.NONE);
+    }
+
+    public WavePlanner(Instance instance, SolverConfig config, SolverListener listener) {
+        this.config = config;
+        this.listener = listener;
+        this.reduction = new InstanceReducer(instance).reduce(false);
+    }
+
+    public InstanceReducer.Stats getReductionStats() {
+        return reduction.stats();
+    }
+
+    public List<Wave> plan(int maxWaves) {
+        Instance current = reduction.instance();
+        ParametricSolver solver = null;
+        List<Wave> waves = new ArrayList<>();
+
+        for (int w = 0; w < maxWaves && hasOrders(current); w++) {
+            long start = System.nanoTime();
+
+            solver = solver == null ? new ParametricSolver(current, config, listener) : new ParametricSolver(current, solver);
+            TimeBudget budget = new TimeBudget(start, TimeUnit.MILLISECONDS.toNanos(config.timeLimitMillis()), 0,
+                    solver.getSubproblemSolver().getPrecision());
+
+            List<Integer> orders = new ArrayList<>();
+            List<Integer> aisles = new ArrayList<>();
+            solver.solveMILFP(orders, aisles, 0.4, budget);
+
+            // Las ordenes sin items son de olas anteriores: no aportan unidades y no se vuelven a pickear
+            Instance pool = current;
+            orders.removeIf(o -> pool.orderDistinct(o) == 0);
+
+            SolutionValidator validator = new SolutionValidator(current).load(orders, aisles);
+            if (orders.isEmpty() || !validator.isFeasible()) break;
+
+            ChallengeSolution solution = new ChallengeSolution(Set.copyOf(reduction.originalOrders(orders)),
+                                                               Set.copyOf(reduction.originalAisles(aisles)));
+            waves.add(new Wave(w, solution, validator.units(), validator.objective(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+
+            current = residual(current, orders, aisles);
+        }
+
+        if (solver != null) solver.end();
+
+        return waves;
+    }
+
+    private static boolean hasOrders(Instance instance) {
+        for (int o = 0; o < instance.nOrders(); o++)
+            if (instance.orderDistinct(o) > 0) return true;
+        return false;
+    }
+
+    /*
+     * Misma numeracion que instance, sin las ordenes elegidas (quedan sin items) y con el stock de los
+     * pasillos elegidos descontado. La demanda de cada item se saca de los pasillos elegidos en orden de
+     * id; las entradas que quedan en 0 se borran.
+     */
+    static Instance residual(Instance instance, Collection<Integer> orders, Collection<Integer> aisles) {
+        long[] demand = new long[instance.nItems()];
+        boolean[] picked = new boolean[instance.nOrders()];
+        for (int o : orders) {
+            picked[o] = true;
+            for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                demand[instance.orderItem(k)] += instance.orderQuantity(k);
+        }
+
+        int[] stock = new int[instance.aisleNonZeros()];
+        for (int k = 0; k < stock.length; k++) stock[k] = instance.aisleQuantity(k);
+
+        for (int a : new TreeSet<>(aisles)) {
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++) {
+                int item = instance.aisleItem(k);
+                int taken = (int) Math.min(demand[item], stock[k]);
+                stock[k] -= taken;
+                demand[item] -= taken;
+            }
+        }
+
+        int[] orderOffsets = new int[instance.nOrders() + 1];
+        int[] orderItems = new int[instance.orderNonZeros()];
+        int[] orderQuantities = new int[instance.orderNonZeros()];
+        int n = 0;
+        for (int o = 0; o < instance.nOrders(); o++) {
+            if (!picked[o]) {
+                for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++) {
+                    orderItems[n] = instance.orderItem(k);
+                    orderQuantities[n++] = instance.orderQuantity(k);
+                }
+            }
+            orderOffsets[o + 1] = n;
+        }
+
+        int[] aisleOffsets = new int[instance.nAisles() + 1];
+        int[] aisleItems = new int[instance.aisleNonZeros()];
+        int[] aisleQuantities = new int[instance.aisleNonZeros()];
+        int m = 0;
+        for (int a = 0; a < instance.nAisles(); a++) {
+            for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++) {
+                if (stock[k] == 0) continue;
+                aisleItems[m] = instance.aisleItem(k);
+                aisleQuantities[m++] = stock[k];
+            }
+            aisleOffsets[a + 1] = m;
+        }
+
+        return new Instance(instance.nItems(),
+                orderOffsets, Arrays.copyOf(orderItems, n), Arrays.copyOf(orderQuantities, n),
+                aisleOffsets, Arrays.copyOf(aisleItems, m), Arrays.copyOf(aisleQuantities, m),
+                instance.waveSizeLB(), instance.waveSizeUB());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        Path outputDir = Path.of(args[1]);
+        int count = 3;
+        SolverConfig config = SolverConfig.defaults();
+
+        for (int i = 2; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            switch (args[i]) {
+                case "--count"            -> count  = Integer.parseInt(args[++i]);
+                case "--time-limit"       -> config = config.withTimeLimitMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(args[++i])));
+                case "--backend"          -> config = config.withBackend(SolverConfig.Backend.valueOf(args[++i].toUpperCase()));
+                case "--parallel-lambdas" -> config = config.withParallelLambdas(Integer.parseInt(args[++i]));
+                default -> {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+
+        Instance instance = MappedInstanceParser.parse(args[0]);
+        WavePlanner planner = new WavePlanner(instance, config);
+        System.out.println("Reduccion: " + planner.getReductionStats());
+        List<Wave> waves = planner.plan(count);
+
+        Files.createDirectories(outputDir);
+        for (Wave wave : waves)
+            Challenge.writeSolution(wave.solution().orders(), wave.solution().aisles(),
+                    outputDir.resolve("wave_" + (wave.index() + 1) + ".txt"));
+
+        System.out.println("wave,orders,aisles,units,objective,millis");
+        for (Wave wave : waves)
+            System.out.println(String.format(Locale.ROOT, "%d,%d,%d,%d,%.6f,%d", wave.index() + 1,
+                    wave.solution().orders().size(), wave.solution().aisles().size(), wave.units(), wave.objective(), wave.millis()));
+    }
+}
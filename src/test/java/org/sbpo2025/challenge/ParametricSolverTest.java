@@ -0,0 +1,67 @@
+package org.sbpo2025.challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ParametricSolverTest {
+
+    private static final double PRECISION = 1e-6;
+
+    // Solo lo que mira dinkelbachBound: cota superior, infactibilidad y si esta probada
+    private static final class FinishedSolve implements SubproblemSolver {
+        private final double upperBound;
+        private final boolean infeasible;
+        private final boolean proven;
+
+        FinishedSolve(double upperBound, boolean infeasible, boolean proven) {
+            this.upperBound = upperBound;
+            this.infeasible = infeasible;
+            this.proven = proven;
+        }
+
+        @Override public void startFromGreedySolution(double greedySolutionValue) { }
+        @Override public double getCurrentBest() { return 0; }
+        @Override public void generateModel(List<Integer> used_orders, List<Integer> used_aisles) { }
+        @Override public void updateCutConstraint(double k) { }
+        @Override public void addMIPStart(List<Integer> orders, List<Integer> aisles, double ratio) { }
+        @Override public void setIncumbentStore(IncumbentStore incumbentStore) { }
+        @Override public double solveWith(double q, List<Integer> used_orders, List<Integer> used_aisles, double gapTolerance,
+                                          TimeBudget budget, boolean localSearch, long neighbourhoodSize) { return -1; }
+        @Override public boolean wasAbortedEarly() { return false; }
+        @Override public IterationTiming getLastIterationTiming() { return new IterationTiming(0, 0, 0); }
+        @Override public double getUpperBound() { return upperBound; }
+        @Override public boolean isSolutionInfeasible() { return infeasible; }
+        @Override public boolean isInfeasibilityProven() { return proven; }
+        @Override public double getPrecision() { return PRECISION; }
+        @Override public void updateInstance(Instance residual) { }
+        @Override public void end() { }
+    }
+
+    @Test
+    void provenInfeasibilityBoundsTheRatioByLambda() {
+        assertEquals(5, ParametricSolver.dinkelbachBound(new FinishedSolve(Double.NEGATIVE_INFINITY, true, true), 5, -1, 0));
+    }
+
+    @Test
+    void givingUpWithoutIncumbentLeavesOnlyTheOpenNodesBound() {
+        // Limite de filas del motor en Java: sin incumbente pero con nodos abiertos
+        assertEquals(Double.POSITIVE_INFINITY,
+                ParametricSolver.dinkelbachBound(new FinishedSolve(Double.POSITIVE_INFINITY, true, false), 5, -1, 0));
+        assertEquals(5.5 + PRECISION,
+                ParametricSolver.dinkelbachBound(new FinishedSolve(0.5, true, false), 5, 0.2, 0), 1e-12);
+    }
+
+    @Test
+    void negativeUpperBoundBoundsTheRatioByLambda() {
+        assertEquals(5, ParametricSolver.dinkelbachBound(new FinishedSolve(-1, false, false), 5, -1, 0));
+    }
+
+    @Test
+    void gapToleranceInflatesTheBound() {
+        assertEquals(5 + 2 * 1.1 + PRECISION,
+                ParametricSolver.dinkelbachBound(new FinishedSolve(2, false, false), 5, 1.9, 0.1), 1e-12);
+    }
+}
@@ -0,0 +1,85 @@
+package org.sbpo2025.challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class RatioBoundTest {
+
+    private static final double PRECISION = 1e-6;
+
+    private static TimeBudget budget() {
+        return new TimeBudget(System.nanoTime(), TimeUnit.SECONDS.toNanos(10), 0, PRECISION);
+    }
+
+    @Test
+    void lagrangianBoundNeverCutsTheOptimum() throws InterruptedException {
+        Random random = new Random(3);
+
+        for (int trial = 0; trial < 20; trial++) {
+            Instance instance = TestInstances.random(random, 4, 7, 5);
+            double optimum = TestInstances.optimalRatio(instance);
+
+            // Sin incumbente el paso de Polyak apunta a 0: empuja la cota lo mas abajo posible
+            IncumbentStore store = new IncumbentStore(instance);
+            TimeBudget budget = budget();
+            RatioBound bound = new RatioBound(instance, store, budget, 0, PRECISION);
+
+            bound.start();
+            Thread.sleep(20);
+            bound.stop();
+
+            assertTrue(bound.lagrangianBound() >= optimum - 1e-9, "trial " + trial + ": " + bound.lagrangianBound() + " < " + optimum);
+            assertTrue(bound.bound() >= optimum - 1e-9);
+            assertFalse(budget.stopped());
+        }
+    }
+
+    @Test
+    void offerKeepsTheLowestBoundAndStopsAtTheGap() {
+        Instance instance = TestInstances.of(1, 1, 10, new int[][] {{0, 4}}, new int[][] {{0, 4}, {0, 4}});
+        IncumbentStore store = new IncumbentStore(instance);
+        store.offer(List.of(0), List.of(0), "test");
+
+        TimeBudget budget = budget();
+        RatioBound bound = new RatioBound(instance, store, budget, 0.1, PRECISION);
+
+        bound.offer(8, "a");
+        bound.offer(9, "b");
+        assertEquals(8, bound.bound());
+        assertFalse(budget.stopped());
+
+        bound.offer(4.3, "c");
+        assertEquals(4.3, bound.bound());
+        assertTrue(budget.stopped());
+    }
+
+    @Test
+    void noBoundIsReachedWithoutAnIncumbent() {
+        Instance instance = TestInstances.of(1, 1, 10, new int[][] {{0, 4}}, new int[][] {{0, 4}});
+        TimeBudget budget = budget();
+        RatioBound bound = new RatioBound(instance, new IncumbentStore(instance), budget, 0.5, PRECISION);
+
+        bound.offer(4, "dinkelbach");
+        assertFalse(bound.checkGap());
+        assertFalse(budget.stopped());
+    }
+
+    @Test
+    void missingStockForTheLowerBoundGivesZero() throws InterruptedException {
+        Instance instance = TestInstances.of(1, 9, 20, new int[][] {{0, 5}, {0, 5}}, new int[][] {{0, 3}, {0, 3}});
+        RatioBound bound = new RatioBound(instance, new IncumbentStore(instance), budget(), 0, PRECISION);
+
+        bound.start();
+        for (int wait = 0; wait < 200 && bound.bound() > 0; wait++) Thread.sleep(10);
+        bound.stop();
+
+        assertEquals(0, bound.bound());
+    }
+}
@@ -0,0 +1,44 @@
+package org.sbpo2025.challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SolutionCheckerTest {
+
+    private static final String INSTANCE = "2 2 2\n1 0 2\n1 1 1\n1 0 2\n1 1 1\n1 3\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readSolutionKeepsRepeatedIds() throws IOException {
+        Path solution = Files.writeString(dir.resolve("solution.txt"), "3\n1\n0\n1\n2\n0\n0\n");
+
+        SolutionChecker.SolutionFile ids = SolutionChecker.readSolution(solution.toFile());
+        assertEquals(List.of(1, 0, 1), ids.orders());
+        assertEquals(List.of(0, 0), ids.aisles());
+    }
+
+    @Test
+    void checkRejectsRepeatedOrders() throws IOException {
+        File input = Files.writeString(dir.resolve("instance.txt"), INSTANCE).toFile();
+
+        File valid = Files.writeString(dir.resolve("valid.txt"), "1\n0\n1\n0\n").toFile();
+        assertTrue(SolutionChecker.check(input, valid).feasible());
+
+        File repeated = Files.writeString(dir.resolve("repeated.txt"), "2\n0\n0\n1\n0\n").toFile();
+        SolutionValidator.Report report = SolutionChecker.check(input, repeated);
+        assertFalse(report.feasible());
+        assertTrue(report.violations().contains("order 0 is repeated"));
+    }
+}
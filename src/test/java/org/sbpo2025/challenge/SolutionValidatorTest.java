@@ -0,0 +1,129 @@
+package org.sbpo2025.challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SolutionValidatorTest {
+
+    // Items 0..2; la orden 3 repite el item 0 y el pasillo 3 repite el item 2
+    private static final Instance INSTANCE = TestInstances.of(3, 1, 10,
+            new int[][] {{0, 2, 1, 1}, {1, 2}, {2, 3}, {0, 1, 0, 1}},
+            new int[][] {{0, 2, 1, 1}, {1, 2, 2, 1}, {2, 3}, {2, 1, 2, 1}});
+
+    @Test
+    void slackAndShortItemsFollowAddsAndRemoves() {
+        SolutionValidator validator = new SolutionValidator(INSTANCE);
+
+        validator.addAisle(0);
+        validator.addOrder(0);
+        assertEquals(0, validator.slack(0));
+        assertEquals(0, validator.slack(1));
+        assertEquals(0, validator.nShortItems());
+        assertTrue(validator.isFeasible());
+
+        validator.addOrder(1);
+        assertEquals(-2, validator.slack(1));
+        assertEquals(1, validator.nShortItems());
+        assertFalse(validator.isFeasible());
+
+        validator.addAisle(1);
+        assertEquals(0, validator.slack(1));
+        assertEquals(1, validator.slack(2));
+        assertEquals(0, validator.nShortItems());
+        assertEquals(5, validator.units());
+        assertEquals(2.5, validator.objective(), 1e-12);
+
+        validator.removeAisle(1);
+        assertEquals(1, validator.nShortItems());
+
+        validator.removeOrder(1);
+        assertEquals(0, validator.slack(1));
+        assertEquals(0, validator.nShortItems());
+        assertEquals(3, validator.units());
+    }
+
+    @Test
+    void repeatedItemsInARowAreAccumulated() {
+        SolutionValidator validator = new SolutionValidator(INSTANCE);
+
+        validator.addAisle(3);
+        assertEquals(2, validator.slack(2));
+
+        validator.addAisle(0);
+        assertTrue(validator.fits(3));
+        validator.addOrder(3);
+        assertEquals(0, validator.slack(0));
+        assertFalse(validator.fits(0));
+    }
+
+    @Test
+    void fitsLeavesTheSlackUntouched() {
+        SolutionValidator validator = new SolutionValidator(INSTANCE);
+        validator.addAisle(0);
+
+        assertFalse(validator.fits(1));
+        assertTrue(validator.fits(0));
+        assertEquals(2, validator.slack(0));
+        assertEquals(1, validator.slack(1));
+        assertEquals(0, validator.slack(2));
+    }
+
+    @Test
+    void incrementalChangesMatchALoadFromScratch() {
+        Random random = new Random(7);
+        SolutionValidator incremental = new SolutionValidator(INSTANCE);
+        SolutionValidator fresh = new SolutionValidator(INSTANCE);
+
+        for (int step = 0; step < 200; step++) {
+            if (random.nextBoolean()) {
+                int o = random.nextInt(INSTANCE.nOrders());
+                if (incremental.isOrderChosen(o)) incremental.removeOrder(o);
+                else incremental.addOrder(o);
+            } else {
+                int a = random.nextInt(INSTANCE.nAisles());
+                if (incremental.isAisleOpen(a)) incremental.removeAisle(a);
+                else incremental.addAisle(a);
+            }
+
+            List<Integer> orders = new ArrayList<>();
+            List<Integer> aisles = new ArrayList<>();
+            for (int o = 0; o < INSTANCE.nOrders(); o++) if (incremental.isOrderChosen(o)) orders.add(o);
+            for (int a = 0; a < INSTANCE.nAisles(); a++) if (incremental.isAisleOpen(a)) aisles.add(a);
+            fresh.load(orders, aisles);
+
+            for (int i = 0; i < INSTANCE.nItems(); i++) assertEquals(fresh.slack(i), incremental.slack(i));
+            assertEquals(fresh.nShortItems(), incremental.nShortItems());
+            assertEquals(fresh.units(), incremental.units());
+            assertEquals(fresh.isFeasible(), incremental.isFeasible());
+        }
+    }
+
+    @Test
+    void reportListsShortagesWithTheAvailableStock() {
+        SolutionValidator.Report report = new SolutionValidator(INSTANCE).load(List.of(1, 2), List.of(0)).report();
+
+        assertFalse(report.feasible());
+        assertEquals(2, report.shortages().size());
+        assertEquals(new SolutionValidator.Shortage(1, 2, 1), report.shortages().get(0));
+        assertEquals(new SolutionValidator.Shortage(2, 3, 0), report.shortages().get(1));
+    }
+
+    @Test
+    void repeatedAndUnknownIdsMakeTheSolutionInfeasible() {
+        SolutionValidator validator = new SolutionValidator(INSTANCE).load(List.of(0, 0), List.of(0, 0, 9));
+        SolutionValidator.Report report = validator.report();
+
+        assertFalse(report.feasible());
+        assertTrue(report.violations().contains("order 0 is repeated"));
+        assertTrue(report.violations().contains("aisle 0 is repeated"));
+        assertTrue(report.violations().contains("aisle 9 does not exist"));
+        assertEquals(0, validator.nShortItems());
+    }
+}
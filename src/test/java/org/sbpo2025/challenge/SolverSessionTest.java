@@ -0,0 +1,153 @@
+package org.sbpo2025.challenge;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+
+class SolverSessionTest {
+
+    private static final SolverConfig CONFIG = SolverConfig.defaults()
+            .withBackend(SolverConfig.Backend.JAVA).withThreads(1).withTimeLimitMillis(3000);
+
+    private static final Instance INSTANCE = TestInstances.of(3, 1, 10,
+            new int[][] {{0, 2}, {1, 1, 2, 1}},
+            new int[][] {{0, 2, 1, 1}, {2, 1, 2, 2}});
+
+    @Test
+    void changesAreAppliedToTheSessionRows() {
+        SolverSession session = new SolverSession(INSTANCE, CONFIG);
+        assertSame(INSTANCE, session.getInstance());
+
+        int[] ids = session.addOrders(new int[][] {{2}, {0, 1}}, new int[][] {{3}, {1, 1}});
+        assertArrayEquals(new int[] {2, 3}, ids);
+
+        session.removeOrders(List.of(0));
+        session.updateAisleStock(0, 1, 0);  // Se borra la entrada
+        session.updateAisleStock(0, 2, 4);  // Entrada nueva
+        session.updateAisleStock(1, 2, 5);  // El pasillo repetia el item: queda una sola entrada
+
+        Instance current = session.getInstance();
+        assertNotSame(INSTANCE, current);
+        assertSame(current, session.getInstance());
+
+        assertEquals(4, current.nOrders());
+        assertEquals(0, current.orderDistinct(0));
+        assertEquals(2, current.orderUnits(1));
+        assertEquals(3, current.orderUnits(2));
+        assertEquals(2, current.orderUnits(3));
+
+        assertEquals(2, current.aisleDistinct(0));
+        assertEquals(6, current.aisleUnits(0));
+        assertEquals(1, current.aisleDistinct(1));
+        assertEquals(5, current.aisleUnits(1));
+
+        assertEquals(2, current.itemStock(0));
+        assertEquals(0, current.itemStock(1));
+        assertEquals(9, current.itemStock(2));
+        assertEquals(INSTANCE.waveSizeLB(), current.waveSizeLB());
+        assertEquals(INSTANCE.waveSizeUB(), current.waveSizeUB());
+    }
+
+    @Test
+    void malformedChangesAreRejected() {
+        SolverSession session = new SolverSession(INSTANCE, CONFIG);
+
+        assertThrows(IllegalArgumentException.class, () -> session.addOrders(new int[][] {{3}}, new int[][] {{1}}));
+        assertThrows(IllegalArgumentException.class, () -> session.updateAisleStock(0, -1, 1));
+
+        // Sin cantidad para un item, o con cantidad no positiva; la orden valida del lote tampoco entra
+        assertThrows(IllegalArgumentException.class, () -> session.addOrders(new int[][] {{0}, {1, 2}}, new int[][] {{1}, {1}}));
+        assertThrows(IllegalArgumentException.class, () -> session.addOrders(new int[][] {{0}, {1}}, new int[][] {{1}, {0}}));
+        assertThrows(IllegalArgumentException.class, () -> session.addOrders(new int[][] {{0}}, new int[][] {{-2}}));
+        assertThrows(IllegalArgumentException.class, () -> session.addOrders(new int[][] {{0}}, new int[][] {{1}, {1}}));
+        assertSame(INSTANCE, session.getInstance());
+    }
+
+    @Test
+    void resolvesMatchAColdSolveAfterArrivalsCancellationsAndStockChanges() {
+        Random random = new Random(5);
+
+        for (int trial = 0; trial < 3; trial++) {
+            Instance instance = TestInstances.random(random, 5, 8, 5);
+            SolverSession session = new SolverSession(instance, CONFIG);
+            session.setResolveTimeLimitMillis(2000);
+
+            try {
+                assertOptimal(session, session.solve(), "trial " + trial + ", solve inicial");
+
+                for (int delta = 0; delta < 4; delta++) {
+                    Instance before = session.getInstance();
+                    switch (delta % 3) {
+                        case 0 -> session.addOrders(new int[][] {{random.nextInt(5)}, {random.nextInt(5)}},
+                                                    new int[][] {{1 + random.nextInt(3)}, {1 + random.nextInt(3)}});
+                        case 1 -> session.removeOrders(List.of(random.nextInt(before.nOrders()), random.nextInt(before.nOrders())));
+                        default -> session.updateAisleStock(random.nextInt(before.nAisles()), random.nextInt(5), random.nextInt(4));
+                    }
+
+                    assertOptimal(session, session.solve(), "trial " + trial + ", cambio " + delta);
+                }
+            } finally {
+                session.end();
+            }
+        }
+    }
+
+    @Test
+    void resolvesAreOptimalAgainAfterAnInfeasibleChange() {
+        Random random = new Random(17);
+
+        for (int trial = 0; trial < 3; trial++) {
+            Instance instance = TestInstances.random(random, 5, 8, 5);
+            SolverSession session = new SolverSession(instance, CONFIG);
+            session.setResolveTimeLimitMillis(2000);
+
+            try {
+                assertOptimal(session, session.solve(), "trial " + trial + ", solve inicial");
+
+                // Sin stock ninguna ola llega al LB
+                for (int a = 0; a < instance.nAisles(); a++)
+                    for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+                        session.updateAisleStock(a, instance.aisleItem(k), 0);
+                assertTrue(session.solve().orders().isEmpty(), "trial " + trial + ", sin stock");
+
+                for (int a = 0; a < instance.nAisles(); a++)
+                    for (int k = instance.aisleStart(a); k < instance.aisleEnd(a); k++)
+                        session.updateAisleStock(a, instance.aisleItem(k), instance.aisleQuantity(k));
+
+                assertOptimal(session, session.solve(), "trial " + trial + ", stock repuesto");
+                session.addOrders(new int[][] {{random.nextInt(5)}}, new int[][] {{1 + random.nextInt(3)}});
+                assertOptimal(session, session.solve(), "trial " + trial + ", orden nueva");
+            } finally {
+                session.end();
+            }
+        }
+    }
+
+    // La solucion de la sesion es factible en la instancia actual y tiene el cociente de un solve en frio
+    private static void assertOptimal(SolverSession session, ChallengeSolution solution, String context) {
+        Instance current = session.getInstance();
+        SolutionValidator validator = new SolutionValidator(current).load(solution.orders(), solution.aisles());
+        double optimum = TestInstances.optimalRatio(current);
+
+        if (optimum == 0) {
+            assertTrue(solution.orders().isEmpty(), context + ": no hay ola factible");
+            return;
+        }
+        assertTrue(validator.isFeasible(), context + ": " + validator.report());
+        assertEquals(optimum, validator.objective(), 1e-6, context);
+
+        ChallengeSolver cold = new ChallengeSolver(current, CONFIG);
+        ChallengeSolution coldSolution = cold.solve(StopWatch.createStarted());
+        double coldRatio = new SolutionValidator(current).load(coldSolution.orders(), coldSolution.aisles()).objective();
+        assertEquals(coldRatio, validator.objective(), 1e-6, context + ": solve en frio");
+    }
+}
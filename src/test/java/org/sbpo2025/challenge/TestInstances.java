@@ -0,0 +1,94 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Instancias chicas para los tests. Cada fila de orders/aisles son pares item, cantidad:
+ * {0, 2, 1, 1} es 2 unidades del item 0 y 1 del item 1.
+ */
+final class TestInstances {
+
+    private TestInstances() {
+    }
+
+    static Instance of(int nItems, int waveSizeLB, int waveSizeUB, int[][] orders, int[][] aisles) {
+        List<int[]> orderCsr = csr(orders);
+        List<int[]> aisleCsr = csr(aisles);
+        return new Instance(nItems, orderCsr.get(0), orderCsr.get(1), orderCsr.get(2),
+                            aisleCsr.get(0), aisleCsr.get(1), aisleCsr.get(2), waveSizeLB, waveSizeUB);
+    }
+
+    // Cada orden pide 1 a 3 items y cada pasillo guarda 1 a 3; LB y UB dejan olas de varias ordenes
+    static Instance random(Random random, int nItems, int nOrders, int nAisles) {
+        int[][] orders = randomRows(random, nItems, nOrders, 3);
+        int[][] aisles = randomRows(random, nItems, nAisles, 4);
+
+        int totalUnits = 0;
+        for (int[] order : orders) for (int p = 1; p < order.length; p += 2) totalUnits += order[p];
+
+        return of(nItems, 1 + random.nextInt(3), Math.max(3, totalUnits / 2), orders, aisles);
+    }
+
+    private static int[][] randomRows(Random random, int nItems, int nRows, int maxQuantity) {
+        int[][] rows = new int[nRows][];
+        for (int r = 0; r < nRows; r++) {
+            int size = 1 + random.nextInt(Math.min(3, nItems));
+            rows[r] = new int[2 * size];
+            int item = random.nextInt(nItems);
+            for (int p = 0; p < size; p++) {
+                rows[r][2 * p] = (item + p) % nItems;
+                rows[r][2 * p + 1] = 1 + random.nextInt(maxQuantity);
+            }
+        }
+        return rows;
+    }
+
+    // Mejor cociente por fuerza bruta (todas las ordenes y pasillos), 0 si no hay ola factible
+    static double optimalRatio(Instance instance) {
+        int nOrders = instance.nOrders(), nAisles = instance.nAisles();
+        SolutionValidator validator = new SolutionValidator(instance);
+        double best = 0;
+
+        for (int aisleMask = 1; aisleMask < 1 << nAisles; aisleMask++) {
+            for (int orderMask = 1; orderMask < 1 << nOrders; orderMask++) {
+                validator.load(members(orderMask, nOrders), members(aisleMask, nAisles));
+                if (validator.isFeasible()) best = Math.max(best, validator.objective());
+            }
+        }
+        return best;
+    }
+
+    private static List<Integer> members(int mask, int n) {
+        List<Integer> members = new ArrayList<>();
+        for (int j = 0; j < n; j++) if ((mask & 1 << j) != 0) members.add(j);
+        return members;
+    }
+
+    // Offsets, items y cantidades
+    private static List<int[]> csr(int[][] rows) {
+        int nonZeros = 0;
+        for (int[] row : rows) nonZeros += row.length / 2;
+
+        int[] offsets = new int[rows.length + 1];
+        int[] items = new int[nonZeros];
+        int[] quantities = new int[nonZeros];
+
+        int k = 0;
+        for (int r = 0; r < rows.length; r++) {
+            for (int p = 0; p < rows[r].length; p += 2) {
+                items[k] = rows[r][p];
+                quantities[k] = rows[r][p + 1];
+                k++;
+            }
+            offsets[r + 1] = k;
+        }
+
+        List<int[]> csr = new ArrayList<>();
+        csr.add(offsets);
+        csr.add(items);
+        csr.add(quantities);
+        return csr;
+    }
+}
@@ -0,0 +1,173 @@
+package org.sbpo2025.challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class WavePlannerTest {
+
+    @Test
+    void residualTakesTheDemandFromTheChosenAislesInIdOrder() {
+        Instance instance = TestInstances.of(2, 1, 10,
+                new int[][] {{0, 3}, {0, 1, 1, 2}, {1, 1}},
+                new int[][] {{0, 2, 1, 1}, {0, 4}, {1, 5}});
+
+        Instance residual = WavePlanner.residual(instance, List.of(0, 1), List.of(1, 0));
+
+        assertEquals(3, residual.nOrders());
+        assertEquals(3, residual.nAisles());
+        assertEquals(0, residual.orderDistinct(0));
+        assertEquals(0, residual.orderDistinct(1));
+        assertEquals(1, residual.orderDistinct(2));
+        assertEquals(1, residual.orderUnits(2));
+
+        // El pasillo 0 se vacia entero y sus entradas desaparecen; el 1 pone lo que falta del item 0
+        assertEquals(0, residual.aisleDistinct(0));
+        assertEquals(1, residual.aisleDistinct(1));
+        assertEquals(2, residual.aisleUnits(1));
+        assertEquals(5, residual.aisleUnits(2));
+
+        assertEquals(2, residual.itemStock(0));
+        assertEquals(5, residual.itemStock(1));
+        assertEquals(instance.waveSizeLB(), residual.waveSizeLB());
+        assertEquals(instance.waveSizeUB(), residual.waveSizeUB());
+    }
+
+    @Test
+    void residualHandlesAislesThatRepeatAnItem() {
+        Instance instance = TestInstances.of(1, 1, 10, new int[][] {{0, 2}}, new int[][] {{0, 1, 0, 2}});
+
+        Instance residual = WavePlanner.residual(instance, List.of(0), List.of(0));
+
+        assertEquals(1, residual.aisleDistinct(0));
+        assertEquals(1, residual.aisleUnits(0));
+        assertEquals(1, residual.itemStock(0));
+    }
+
+    @Test
+    void residualStockIsTheStockMinusTheDemandOfAFeasibleWave() {
+        Random random = new Random(11);
+        int checked = 0;
+
+        for (int trial = 0; trial < 200; trial++) {
+            Instance instance = TestInstances.random(random, 4, 6, 5);
+            List<Integer> orders = new ArrayList<>();
+            List<Integer> aisles = new ArrayList<>();
+            for (int o = 0; o < instance.nOrders(); o++) if (random.nextBoolean()) orders.add(o);
+            for (int a = 0; a < instance.nAisles(); a++) if (random.nextInt(3) > 0) aisles.add(a);
+
+            SolutionValidator validator = new SolutionValidator(instance).load(orders, aisles);
+            if (!validator.isFeasible()) continue;
+            checked++;
+
+            Instance residual = WavePlanner.residual(instance, orders, aisles);
+
+            long[] demand = new long[instance.nItems()];
+            for (int o : orders)
+                for (int k = instance.orderStart(o); k < instance.orderEnd(o); k++)
+                    demand[instance.orderItem(k)] += instance.orderQuantity(k);
+
+            for (int i = 0; i < instance.nItems(); i++)
+                assertEquals(instance.itemStock(i) - demand[i], residual.itemStock(i));
+
+            // Los pasillos no elegidos quedan intactos y ninguno gana stock
+            for (int a = 0; a < instance.nAisles(); a++) {
+                if (!aisles.contains(a)) assertEquals(instance.aisleUnits(a), residual.aisleUnits(a));
+                assertTrue(residual.aisleUnits(a) <= instance.aisleUnits(a));
+            }
+            for (int o = 0; o < instance.nOrders(); o++)
+                assertEquals(orders.contains(o) ? 0 : instance.orderUnits(o), residual.orderUnits(o));
+        }
+
+        assertTrue(checked > 20, "solo " + checked + " olas factibles");
+    }
+
+    @Test
+    void planPicksEachOrderOnceAndEveryWaveFitsTheRemainingStock() {
+        Instance instance = TestInstances.of(3, 2, 6,
+                new int[][] {{0, 2}, {1, 2}, {2, 2}, {0, 1, 1, 1}, {2, 3}, {0, 2, 2, 1}},
+                new int[][] {{0, 3}, {1, 3}, {2, 4}, {0, 2, 2, 2}});
+        SolverConfig config = SolverConfig.defaults().withBackend(SolverConfig.Backend.JAVA).withThreads(1).withTimeLimitMillis(2000);
+
+        List<WavePlanner.Wave> waves = new WavePlanner(instance, config).plan(3);
+        assertFalse(waves.isEmpty());
+
+        Set<Integer> picked = new HashSet<>();
+        Instance remaining = instance;
+        for (WavePlanner.Wave wave : waves) {
+            for (int o : wave.solution().orders()) assertTrue(picked.add(o), "orden " + o + " en dos olas");
+
+            SolutionValidator validator = new SolutionValidator(remaining).load(wave.solution().orders(), wave.solution().aisles());
+            assertTrue(validator.isFeasible(), "ola " + wave.index() + ": " + validator.report());
+            assertEquals(validator.units(), wave.units());
+
+            remaining = WavePlanner.residual(remaining, wave.solution().orders(), wave.solution().aisles());
+        }
+    }
+
+    @Test
+    void aWaveWithoutFeasibleSolutionDoesNotCutTheNextOneShort() {
+        Random random = new Random(13);
+        SolverConfig config = SolverConfig.defaults().withBackend(SolverConfig.Backend.JAVA).withThreads(1).withTimeLimitMillis(2000);
+
+        for (int trial = 0; trial < 5; trial++) {
+            Instance instance = TestInstances.random(random, 5, 8, 5);
+            double optimum = TestInstances.optimalRatio(instance);
+
+            // Ola sin stock: el subproblema es infactible
+            Instance empty = withoutStock(instance);
+            ParametricSolver solver = new ParametricSolver(empty, config);
+            List<Integer> orders = new ArrayList<>();
+            List<Integer> aisles = new ArrayList<>();
+            solve(solver, orders, aisles);
+            assertTrue(solver.getSubproblemSolver().isSolutionInfeasible());
+            assertTrue(orders.isEmpty() || !new SolutionValidator(empty).load(orders, aisles).isFeasible());
+
+            // Misma numeracion con stock: los modelos de la ola anterior tienen que llegar al optimo
+            solver = new ParametricSolver(instance, solver);
+            try {
+                orders.clear();
+                aisles.clear();
+                solve(solver, orders, aisles);
+                assertFalse(solver.getSubproblemSolver().isSolutionInfeasible(), "trial " + trial);
+                SolutionValidator validator = new SolutionValidator(instance).load(orders, aisles);
+
+                if (optimum == 0) continue;
+                assertTrue(validator.isFeasible(), "trial " + trial + ": " + validator.report());
+                assertEquals(optimum, validator.objective(), 1e-6, "trial " + trial);
+            } finally {
+                solver.end();
+            }
+        }
+    }
+
+    private static void solve(ParametricSolver solver, List<Integer> orders, List<Integer> aisles) {
+        TimeBudget budget = new TimeBudget(System.nanoTime(), TimeUnit.SECONDS.toNanos(2), 0,
+                solver.getSubproblemSolver().getPrecision());
+        solver.solveMILFP(orders, aisles, 0.4, budget);
+    }
+
+    // Mismas ordenes, pasillos sin items: ninguna ola llega al LB
+    private static Instance withoutStock(Instance instance) {
+        int[] orderOffsets = new int[instance.nOrders() + 1];
+        int[] orderItems = new int[instance.orderNonZeros()];
+        int[] orderQuantities = new int[instance.orderNonZeros()];
+        for (int o = 0; o < instance.nOrders(); o++) orderOffsets[o + 1] = instance.orderEnd(o);
+        for (int k = 0; k < orderItems.length; k++) {
+            orderItems[k] = instance.orderItem(k);
+            orderQuantities[k] = instance.orderQuantity(k);
+        }
+
+        return new Instance(instance.nItems(), orderOffsets, orderItems, orderQuantities,
+                new int[instance.nAisles() + 1], new int[0], new int[0], instance.waveSizeLB(), instance.waveSizeUB());
+    }
+}